@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.benchmarks;
+
+import ca.weblite.codename1.db.DAOProvider;
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Database;
+import com.codename1.impl.javase.SEDatabase;
+import com.codename1.ui.Display;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A temporary SQLite database for benchmarks.  By default the database is opened through the 
+ * Codename One JavaSE {@link Database} implementation, so benchmarks exercise the same
+ * code path as an app running in the simulator or on the desktop.  It can also be opened 
+ * through {@link JDBCDatabase}, which caches prepared statements.
+ * 
+ * <p>The database contains a single table, {@link #TABLE}, with a mix of integer,
+ * floating point and text columns.</p>
+ */
+public class BenchmarkDatabase {
+    
+    /**
+     * The name of the benchmark table.
+     */
+    public static final String TABLE = "items";
+    
+    /**
+     * Driver that opens the database with the Codename One JavaSE Database implementation.
+     */
+    public static final String DRIVER_SE = "se";
+    
+    /**
+     * Driver that opens the database with {@link JDBCDatabase}.
+     */
+    public static final String DRIVER_JDBC = "jdbc";
+    
+    /**
+     * Number of rows inserted per statement when populating the table.
+     */
+    private static final int ROWS_PER_INSERT = 200;
+    
+    private final File file;
+    private final Database db;
+    private final DAOProvider provider;
+    
+    private BenchmarkDatabase(File file, Database db){
+        this.file = file;
+        this.db = db;
+        this.provider = new DAOProvider(db, 0);
+    }
+    
+    /**
+     * Initializes the Codename One Display.  The DAO entity cache relies on the
+     * Display to create soft references.
+     */
+    public static synchronized void initDisplay(){
+        if ( !Display.isInitialized() ){
+            Display.init(null);
+        }
+    }
+    
+    /**
+     * Opens a new, empty temporary database.
+     * @return The database.  Call {@link #close()} to delete it.
+     * @throws IOException 
+     */
+    public static BenchmarkDatabase open() throws IOException {
+        return open(DRIVER_SE);
+    }
+    
+    /**
+     * Opens a new, empty temporary database with the given driver.
+     * @param driver {@link #DRIVER_SE} or {@link #DRIVER_JDBC}.
+     * @return The database.  Call {@link #close()} to delete it.
+     * @throws IOException 
+     */
+    public static BenchmarkDatabase open(String driver) throws IOException {
+        initDisplay();
+        File file = File.createTempFile("cn1-data-access-bench", ".db");
+        file.deleteOnExit();
+        try {
+            Connection conn = DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath());
+            if ( DRIVER_JDBC.equals(driver) ){
+                return new BenchmarkDatabase(file, new JDBCDatabase(conn));
+            } else if ( DRIVER_SE.equals(driver) ){
+                return new BenchmarkDatabase(file, new SEDatabase(conn));
+            }
+            conn.close();
+            throw new IllegalArgumentException("Unknown driver "+driver);
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to open benchmark database "+file, ex);
+        }
+    }
+    
+    /**
+     * Opens a new temporary database and creates the benchmark table with the given
+     * number of rows.
+     * @param rows The number of rows to create.
+     * @return The database.
+     * @throws IOException 
+     */
+    public static BenchmarkDatabase create(int rows) throws IOException {
+        return create(rows, DRIVER_SE);
+    }
+    
+    /**
+     * Opens a new temporary database with the given driver and creates the benchmark table 
+     * with the given number of rows.
+     * @param rows The number of rows to create.
+     * @param driver {@link #DRIVER_SE} or {@link #DRIVER_JDBC}.
+     * @return The database.
+     * @throws IOException 
+     */
+    public static BenchmarkDatabase create(int rows, String driver) throws IOException {
+        BenchmarkDatabase out = open(driver);
+        out.createTable();
+        out.populate(0, rows);
+        return out;
+    }
+    
+    /**
+     * Creates the benchmark table.
+     * @throws IOException 
+     */
+    public void createTable() throws IOException {
+        db.execute("CREATE TABLE IF NOT EXISTS "+TABLE+" ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "name VARCHAR, "
+                + "qty INTEGER, "
+                + "price DOUBLE, "
+                + "notes VARCHAR)");
+    }
+    
+    /**
+     * Inserts rows into the benchmark table using raw multi-row inserts.  This bypasses
+     * the DAO so that setup doesn't fill the entity cache.
+     * @param first Ordinal of the first row.  Row contents are derived from the ordinal.
+     * @param count The number of rows to insert.
+     * @throws IOException 
+     */
+    public void populate(int first, int count) throws IOException {
+        db.beginTransaction();
+        try {
+            int i = first;
+            int end = first + count;
+            while ( i < end ){
+                int n = Math.min(ROWS_PER_INSERT, end - i);
+                StringBuilder sb = new StringBuilder();
+                sb.append("INSERT INTO ").append(TABLE).append(" (name, qty, price, notes) VALUES ");
+                Object[] args = new Object[n * 4];
+                int a = 0;
+                for ( int r=0; r<n; r++ ){
+                    Map row = newRow(i + r);
+                    sb.append("(?,?,?,?),");
+                    args[a++] = row.get("name");
+                    args[a++] = row.get("qty");
+                    args[a++] = row.get("price");
+                    args[a++] = row.get("notes");
+                }
+                sb.deleteCharAt(sb.length()-1);
+                db.execute(sb.toString(), args);
+                i += n;
+            }
+            db.commitTransaction();
+        } catch ( IOException ex ){
+            db.rollbackTransaction();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Creates the values of a row (without ID) for the given ordinal.
+     * @param i The row ordinal.
+     * @return Map of column values.
+     */
+    public static Map newRow(int i){
+        Map row = new HashMap();
+        row.put("name", "Item "+i);
+        row.put("qty", i % 1000);
+        row.put("price", (i % 10000) / 100.0);
+        row.put("notes", "Notes for item "+i+" in benchmark data set");
+        return row;
+    }
+    
+    public Database getDatabase(){
+        return db;
+    }
+    
+    public DAOProvider getProvider(){
+        return provider;
+    }
+    
+    public File getFile(){
+        return file;
+    }
+    
+    /**
+     * Closes the database and deletes its file.
+     */
+    public void close(){
+        try {
+            db.close();
+        } catch ( IOException ex ){
+            // ignore
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.benchmarks;
+
+import ca.weblite.codename1.db.ColumnarResult;
+import ca.weblite.codename1.db.Importer;
+import ca.weblite.codename1.db.TuningProfile;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the hot paths of {@link ca.weblite.codename1.db.DAO}, run against a
+ * real SQLite database at several table sizes.
+ * 
+ * <p>Run a subset with e.g. <code>java -jar benchmarks/target/benchmarks.jar DAOBenchmark.getById -p rows=1000</code></p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DAOBenchmark {
+    
+    /**
+     * Number of entities that are kept strongly reachable so that they stay in the entity cache.
+     */
+    private static final int HOT_SET = 1000;
+    
+    /**
+     * Number of rows decoded per invocation of {@link #fillMapDecode()}.
+     */
+    private static final int DECODE_BATCH = 1000;
+    
+    /**
+     * Number of rows imported per invocation of {@link #importSet()}.
+     */
+    private static final int IMPORT_BATCH = 1000;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    
+    /**
+     * How rows are copied into entities: "map" uses fillMap()/unmap(), and 
+     * "hydrate" uses the Map-free hydrate() path.
+     */
+    @Param({"map", "hydrate"})
+    public String mapping;
+    
+    /**
+     * The Database implementation: "se" for the Codename One JavaSE database, and "jdbc"
+     * for {@link ca.weblite.codename1.db.jdbc.JDBCDatabase}, which caches prepared statements.
+     */
+    @Param({"se", "jdbc"})
+    public String driver;
+    
+    /**
+     * The {@link TuningProfile} applied to the database, or "none" to use SQLite's defaults.
+     */
+    @Param({"none", "default", "read_mostly", "bulk_import"})
+    public String profile;
+    
+    private BenchmarkDatabase bdb;
+    private ItemDAO dao;
+    
+    /**
+     * Entities that are held with hard references so that cache hits are possible.
+     */
+    private final List<Map> hot = new ArrayList<Map>();
+    
+    private final Random random = new Random(42);
+    private int counter;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        bdb = BenchmarkDatabase.create(rows, driver);
+        if ( !"none".equals(profile) ){
+            bdb.getProvider().setProfile(TuningProfile.forName(profile));
+        }
+        dao = new ItemDAO(bdb.getProvider());
+        dao.setHydrating("hydrate".equals(mapping));
+        bdb.getProvider().set(BenchmarkDatabase.TABLE, dao);
+        int n = Math.min(HOT_SET, rows);
+        for ( int i=1; i<=n; i++ ){
+            hot.add(dao.getById(i, true));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        hot.clear();
+        bdb.close();
+    }
+    
+    private Map nextHot(){
+        return hot.get(random.nextInt(hot.size()));
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Map> fetchAll() throws IOException {
+        return dao.fetchAll();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ColumnarResult fetchColumnar() throws IOException {
+        return dao.fetchColumnar();
+    }
+    
+    @Benchmark
+    public Map getByIdHit() throws IOException {
+        return dao.getById(dao.getId(nextHot()));
+    }
+    
+    @Benchmark
+    public Map getByIdMiss() throws IOException {
+        return dao.getById(1 + random.nextInt(rows), true);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECODE_BATCH)
+    public int fillMapDecode() throws IOException {
+        int offset = random.nextInt(Math.max(1, rows - DECODE_BATCH));
+        return dao.decode(offset, DECODE_BATCH);
+    }
+    
+    @Benchmark
+    public Map insert() throws IOException {
+        Map row = BenchmarkDatabase.newRow(rows + counter++);
+        dao.insert(row);
+        return row;
+    }
+    
+    @Benchmark
+    public Map update() throws IOException {
+        Map row = nextHot();
+        row.put("qty", counter++);
+        dao.update(row);
+        return row;
+    }
+    
+    @Benchmark
+    public Map save() throws IOException {
+        Map row = nextHot();
+        row.put("qty", counter++);
+        dao.save(row);
+        return row;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(IMPORT_BATCH)
+    public void importSet() throws IOException {
+        // Half of the rows update existing records, the other half are new.
+        List importRows = new ArrayList(IMPORT_BATCH);
+        for ( int i=0; i<IMPORT_BATCH; i++ ){
+            Map row = BenchmarkDatabase.newRow(counter++);
+            if ( i % 2 == 0 ){
+                row.put("id", 1 + random.nextInt(rows));
+            }
+            importRows.add(row);
+        }
+        new Importer<Map>(dao).importSet(importRows);
+    }
+}
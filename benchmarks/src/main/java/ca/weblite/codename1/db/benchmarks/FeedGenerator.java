@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.benchmarks;
+
+import com.codename1.db.Database;
+import com.codename1.util.StringUtil;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic generator for synthetic import feeds.  A feed is a nested JSON document
+ * whose rows are located at a selector path (e.g. <code>{"sync":{"rows":[...]}}</code> for
+ * the selector "sync/rows"), in the format expected by {@link ca.weblite.codename1.db.Importer}.
+ * 
+ * <p>The same generator settings (including the seed) always produce the same feed, so
+ * runs can be compared with each other.  Each row has an <code>id</code>, a configurable number of 
+ * integer, double and string columns (<code>c0</code>, <code>c1</code>, ...), and optionally
+ * a <code>payload</code> string of a configurable size.  A configurable fraction of the rows 
+ * reuse IDs of rows that already exist in the table (see {@link #populate}), so that they
+ * are imported as updates rather than inserts.</p>
+ */
+public class FeedGenerator {
+    
+    /**
+     * The name of the table that feeds are imported into.
+     */
+    public static final String TABLE = "feed";
+    
+    private int rows = 10000;
+    private int columns = 8;
+    private double upsertHitRatio = 0.5;
+    private int blobSize = 0;
+    private String selector = "sync/rows";
+    private long seed = 42;
+    
+    public void setRows(int rows){
+        this.rows = rows;
+    }
+    
+    public void setColumns(int columns){
+        this.columns = columns;
+    }
+    
+    /**
+     * Sets the fraction of rows that update an existing record.
+     * @param ratio A value between 0 and 1.
+     */
+    public void setUpsertHitRatio(double ratio){
+        this.upsertHitRatio = ratio;
+    }
+    
+    /**
+     * Sets the size (in characters) of the payload column of each row.  0 for no payload column.
+     * @param size
+     */
+    public void setBlobSize(int size){
+        this.blobSize = size;
+    }
+    
+    public void setSelector(String selector){
+        this.selector = selector;
+    }
+    
+    public void setSeed(long seed){
+        this.seed = seed;
+    }
+    
+    public int getRows(){
+        return rows;
+    }
+    
+    public String getSelector(){
+        return selector;
+    }
+    
+    /**
+     * Creates the feed table in the given database.
+     * @param db
+     * @throws IOException 
+     */
+    public void createTable(Database db) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE TABLE IF NOT EXISTS ").append(TABLE).append(" (id INTEGER PRIMARY KEY AUTOINCREMENT");
+        for ( int i=0; i<columns; i++ ){
+            sb.append(", c").append(i).append(" ");
+            switch ( i % 3 ){
+                case 0: sb.append("INTEGER"); break;
+                case 1: sb.append("DOUBLE"); break;
+                default: sb.append("VARCHAR");
+            }
+        }
+        if ( blobSize > 0 ){
+            sb.append(", payload VARCHAR");
+        }
+        sb.append(")");
+        db.execute(sb.toString());
+    }
+    
+    /**
+     * Populates the feed table with the rows that upserts will hit.  The table will
+     * contain rows with IDs 1 to {@link #getRows()}.
+     * @param db
+     * @throws IOException 
+     */
+    public void populate(Database db) throws IOException {
+        Random r = new Random(seed ^ 0x5DEECE66DL);
+        db.beginTransaction();
+        try {
+            for ( int i=1; i<=rows; i++ ){
+                Map row = row(r, i);
+                StringBuilder sb = new StringBuilder();
+                sb.append("INSERT INTO ").append(TABLE).append(" (id");
+                StringBuilder vals = new StringBuilder("?");
+                Object[] args = new Object[row.size()];
+                args[0] = ""+i;
+                int a = 1;
+                for ( int c=0; c<columns; c++ ){
+                    sb.append(", c").append(c);
+                    vals.append(",?");
+                    args[a++] = ""+row.get("c"+c);
+                }
+                if ( blobSize > 0 ){
+                    sb.append(", payload");
+                    vals.append(",?");
+                    args[a++] = row.get("payload");
+                }
+                sb.append(") VALUES (").append(vals).append(")");
+                db.execute(sb.toString(), args);
+            }
+            db.commitTransaction();
+        } catch ( IOException ex ){
+            db.rollbackTransaction();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Generates the rows of the feed in memory.
+     * @return List of row maps.
+     */
+    public List<Map> generateRows(){
+        Random r = new Random(seed);
+        List<Map> out = new ArrayList<Map>(rows);
+        for ( int i=0; i<rows; i++ ){
+            out.add(row(r, nextId(r, i)));
+        }
+        return out;
+    }
+    
+    /**
+     * Generates the feed as a nested Map, with the rows located at the selector path.
+     * @return 
+     */
+    public Map generateSet(){
+        Map root = new HashMap();
+        Map parent = root;
+        List<String> path = StringUtil.tokenize(selector, "/");
+        for ( int i=0; i<path.size()-1; i++ ){
+            Map child = new HashMap();
+            parent.put(path.get(i), child);
+            parent = child;
+        }
+        parent.put(path.get(path.size()-1), generateRows());
+        return root;
+    }
+    
+    /**
+     * Writes the feed as JSON to a temporary file.
+     * @return The file.  It is deleted on exit.
+     * @throws IOException 
+     */
+    public File writeJSON() throws IOException {
+        File f = File.createTempFile("cn1-data-access-feed", ".json");
+        f.deleteOnExit();
+        FileOutputStream fos = new FileOutputStream(f);
+        try {
+            writeJSON(fos);
+        } finally {
+            fos.close();
+        }
+        return f;
+    }
+    
+    /**
+     * Writes the feed as JSON to an output stream.  Rows are written as they are
+     * generated, so the feed is never held in memory.
+     * @param os 
+     * @throws IOException 
+     */
+    public void writeJSON(OutputStream os) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"));
+        List<String> path = StringUtil.tokenize(selector, "/");
+        for ( String part : path ){
+            w.write("{\"");
+            w.write(part);
+            w.write("\":");
+        }
+        w.write("[");
+        Random r = new Random(seed);
+        for ( int i=0; i<rows; i++ ){
+            if ( i > 0 ){
+                w.write(",\n");
+            }
+            writeRow(w, row(r, nextId(r, i)));
+        }
+        w.write("]");
+        for ( int i=0; i<path.size(); i++ ){
+            w.write("}");
+        }
+        w.flush();
+    }
+    
+    private void writeRow(Writer w, Map row) throws IOException {
+        w.write("{\"id\":");
+        w.write(String.valueOf(row.get("id")));
+        for ( int c=0; c<columns; c++ ){
+            w.write(",\"c");
+            w.write(String.valueOf(c));
+            w.write("\":");
+            Object v = row.get("c"+c);
+            if ( v instanceof String ){
+                w.write("\"");
+                w.write((String)v);
+                w.write("\"");
+            } else {
+                w.write(String.valueOf(v));
+            }
+        }
+        if ( blobSize > 0 ){
+            w.write(",\"payload\":\"");
+            w.write((String)row.get("payload"));
+            w.write("\"");
+        }
+        w.write("}");
+    }
+    
+    /**
+     * Picks the ID of the i'th feed row.  Hits reuse an ID of a populated row, and
+     * misses get a new ID beyond the populated range.
+     */
+    private long nextId(Random r, int i){
+        if ( r.nextDouble() < upsertHitRatio ){
+            return 1 + r.nextInt(rows);
+        }
+        return rows + 1 + i;
+    }
+    
+    private Map row(Random r, long id){
+        Map row = new HashMap();
+        row.put("id", id);
+        for ( int c=0; c<columns; c++ ){
+            switch ( c % 3 ){
+                case 0: row.put("c"+c, r.nextInt(1000000)); break;
+                case 1: row.put("c"+c, Math.floor(r.nextDouble() * 100000) / 100); break;
+                default: row.put("c"+c, "value-"+Long.toString(r.nextLong() & 0xffffffffL, 36));
+            }
+        }
+        if ( blobSize > 0 ){
+            char[] payload = new char[blobSize];
+            for ( int i=0; i<blobSize; i++ ){
+                payload[i] = (char)('A' + r.nextInt(26));
+            }
+            row.put("payload", new String(payload));
+        }
+        return row;
+    }
+}
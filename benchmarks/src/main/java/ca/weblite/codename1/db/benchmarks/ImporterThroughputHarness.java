@@ -0,0 +1,326 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.benchmarks;
+
+import ca.weblite.codename1.db.DAO;
+import ca.weblite.codename1.db.Importer;
+import ca.weblite.codename1.db.TuningProfile;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the throughput of {@link Importer} for each import mode against a temporary
+ * SQLite database, using feeds produced by {@link FeedGenerator}.  For each mode it
+ * reports rows/sec, peak heap usage and allocation rate.
+ * 
+ * <p>Usage:</p>
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ca.weblite.codename1.db.benchmarks.ImporterThroughputHarness \
+ *     [--rows N] [--columns N] [--hit-ratio R] [--blob-size N] [--seed N] [--driver se|jdbc] [--profile NAME] [--modes LIST,SET,JSON]
+ * </pre>
+ * 
+ * <p>Allocation is measured with the per-thread allocation counters of the JVM, so it 
+ * requires a HotSpot-based JVM.  The counters and the used heap are sampled every millisecond 
+ * during the import by a {@link Sampler}, so threads that exit during the import (e.g. the 
+ * parser thread of pipelined imports) are included up to their last sample.  Peak heap is the 
+ * highest used heap that was sampled.</p>
+ */
+public class ImporterThroughputHarness {
+    
+    /**
+     * The ways in which a feed can be imported.
+     */
+    public enum ImportMode {
+        /**
+         * {@link Importer#importSet(java.util.List)} with a pre-built list of rows.
+         */
+        LIST,
+        
+        /**
+         * {@link Importer#importSet(java.util.Map, java.lang.String)} with a pre-built nested map.
+         */
+        SET,
+        
+        /**
+         * {@link Importer#importJSON(java.io.InputStream, java.lang.String)} from a JSON file.
+         */
+        JSON,
+        
+        /**
+         * {@link Importer#importJSON(java.io.InputStream, java.lang.String)} from a JSON file, 
+         * with {@link Importer#setPipelined(boolean) pipelining} enabled.
+         */
+        PIPELINED
+    }
+    
+    /**
+     * The measurements of a single import run.
+     */
+    public static class Result {
+        public ImportMode mode;
+        public int rows;
+        public long elapsedNanos;
+        public long peakHeapBytes;
+        public long allocatedBytes;
+        
+        public double getRowsPerSecond(){
+            return rows / (elapsedNanos / 1e9);
+        }
+        
+        public double getAllocationRate(){
+            return allocatedBytes / (elapsedNanos / 1e9);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-10s %10d %12.0f %12.1f %14.1f", 
+                    mode, rows, getRowsPerSecond(), peakHeapBytes / 1048576.0, getAllocationRate() / 1048576.0);
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        FeedGenerator gen = new FeedGenerator();
+        List<ImportMode> modes = new ArrayList<ImportMode>();
+        String driver = BenchmarkDatabase.DRIVER_SE;
+        TuningProfile profile = null;
+        for ( int i=0; i<args.length; i++ ){
+            String arg = args[i];
+            if ( "--rows".equals(arg) ){
+                gen.setRows(Integer.parseInt(args[++i]));
+            } else if ( "--columns".equals(arg) ){
+                gen.setColumns(Integer.parseInt(args[++i]));
+            } else if ( "--hit-ratio".equals(arg) ){
+                gen.setUpsertHitRatio(Double.parseDouble(args[++i]));
+            } else if ( "--blob-size".equals(arg) ){
+                gen.setBlobSize(Integer.parseInt(args[++i]));
+            } else if ( "--seed".equals(arg) ){
+                gen.setSeed(Long.parseLong(args[++i]));
+            } else if ( "--driver".equals(arg) ){
+                driver = args[++i];
+            } else if ( "--profile".equals(arg) ){
+                String name = args[++i];
+                profile = TuningProfile.forName(name);
+                if ( profile == null ){
+                    System.err.println("Unknown profile "+name);
+                    System.exit(1);
+                }
+            } else if ( "--modes".equals(arg) ){
+                for ( String m : args[++i].split(",") ){
+                    modes.add(ImportMode.valueOf(m.trim().toUpperCase(Locale.US)));
+                }
+            } else {
+                System.err.println("Unknown argument "+arg);
+                System.exit(1);
+            }
+        }
+        if ( modes.isEmpty() ){
+            for ( ImportMode m : ImportMode.values() ){
+                modes.add(m);
+            }
+        }
+        
+        System.out.println(String.format(Locale.US, "%-10s %10s %12s %12s %14s", 
+                "mode", "rows", "rows/sec", "peak MB", "alloc MB/sec"));
+        for ( ImportMode mode : modes ){
+            System.out.println(run(mode, gen, driver, profile));
+        }
+        System.exit(0);
+    }
+    
+    /**
+     * Imports the generated feed into a fresh database with the given mode.
+     * @param mode The import mode.
+     * @param gen The feed generator.
+     * @return The measurements.
+     * @throws IOException 
+     */
+    public static Result run(ImportMode mode, FeedGenerator gen) throws IOException {
+        return run(mode, gen, BenchmarkDatabase.DRIVER_SE);
+    }
+    
+    /**
+     * Imports the generated feed into a fresh database with the given mode and driver.
+     * @param mode The import mode.
+     * @param gen The feed generator.
+     * @param driver The driver to open the database with.  See {@link BenchmarkDatabase#open(java.lang.String)}.
+     * @return The measurements.
+     * @throws IOException 
+     */
+    public static Result run(ImportMode mode, FeedGenerator gen, String driver) throws IOException {
+        return run(mode, gen, driver, null);
+    }
+    
+    /**
+     * Imports the generated feed into a fresh database with the given mode and driver, 
+     * applying a tuning profile for the duration of the import.
+     * @param mode The import mode.
+     * @param gen The feed generator.
+     * @param driver The driver to open the database with.  See {@link BenchmarkDatabase#open(java.lang.String)}.
+     * @param profile The profile to import with, or null to use the database's default settings.
+     * @return The measurements.
+     * @throws IOException 
+     * @see Importer#setProfile(ca.weblite.codename1.db.TuningProfile) 
+     */
+    public static Result run(ImportMode mode, FeedGenerator gen, String driver, TuningProfile profile) throws IOException {
+        BenchmarkDatabase bdb = BenchmarkDatabase.open(driver);
+        try {
+            gen.createTable(bdb.getDatabase());
+            gen.populate(bdb.getDatabase());
+            DAO<Map> dao = bdb.getProvider().get(FeedGenerator.TABLE);
+            
+            // Inputs are prepared up front, so that only the import itself is measured.
+            List<Map> rows = null;
+            Map set = null;
+            File json = null;
+            switch ( mode ){
+                case LIST: rows = gen.generateRows(); break;
+                case SET: set = gen.generateSet(); break;
+                default: json = gen.writeJSON();
+            }
+            
+            Result res = new Result();
+            res.mode = mode;
+            res.rows = gen.getRows();
+            System.gc();
+            Sampler sampler = new Sampler();
+            sampler.start();
+            long start = System.nanoTime();
+            Importer<Map> importer = new Importer<Map>(dao);
+            importer.setPipelined(mode == ImportMode.PIPELINED);
+            importer.setProfile(profile);
+            switch ( mode ){
+                case LIST:
+                    importer.importSet(rows);
+                    break;
+                case SET:
+                    importer.importSet(set, gen.getSelector());
+                    break;
+                default:
+                    InputStream is = new FileInputStream(json);
+                    try {
+                        importer.importJSON(is, gen.getSelector());
+                    } finally {
+                        is.close();
+                    }
+            }
+            res.elapsedNanos = System.nanoTime() - start;
+            sampler.finish();
+            res.allocatedBytes = sampler.getAllocatedBytes();
+            res.peakHeapBytes = sampler.getPeakHeapBytes();
+            if ( json != null ){
+                json.delete();
+            }
+            return res;
+        } finally {
+            bdb.close();
+        }
+    }
+    
+    /**
+     * Samples the used heap and the allocation counters of all threads on a background 
+     * thread.  Counters are kept by thread ID, so the allocations of a thread that has 
+     * exited are still counted, up to its last sample.
+     */
+    private static class Sampler extends Thread {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final com.sun.management.ThreadMXBean threads;
+        
+        /**
+         * The allocated bytes of the threads that were alive when sampling started.
+         */
+        private final Map<Long,Long> startBytes = new HashMap<Long,Long>();
+        
+        /**
+         * The last sampled allocated bytes of each thread.
+         */
+        private final Map<Long,Long> lastBytes = new HashMap<Long,Long>();
+        private long peakHeapBytes;
+        private volatile boolean stopped;
+        
+        Sampler(){
+            setDaemon(true);
+            ThreadMXBean t = ManagementFactory.getThreadMXBean();
+            threads = t instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean)t : null;
+            sample();
+            startBytes.putAll(lastBytes);
+        }
+        
+        private synchronized void sample(){
+            peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+            if ( threads == null ){
+                return;
+            }
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for ( int i=0; i<ids.length; i++ ){
+                // Don't count the sampler's own allocations.
+                if ( bytes[i] >= 0 && ids[i] != getId() ){
+                    lastBytes.put(ids[i], bytes[i]);
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            while ( !stopped ){
+                sample();
+                try {
+                    Thread.sleep(1);
+                } catch ( InterruptedException ex ){
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Stops sampling, and takes a final sample of the threads that are still alive.
+         */
+        void finish(){
+            stopped = true;
+            interrupt();
+            try {
+                join();
+            } catch ( InterruptedException ex ){
+                Thread.currentThread().interrupt();
+            }
+            sample();
+        }
+        
+        synchronized long getAllocatedBytes(){
+            long total = 0;
+            for ( Map.Entry<Long,Long> e : lastBytes.entrySet() ){
+                Long start = startBytes.get(e.getKey());
+                total += e.getValue() - (start == null ? 0 : start);
+            }
+            return total;
+        }
+        
+        synchronized long getPeakHeapBytes(){
+            return peakHeapBytes;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.benchmarks;
+
+import ca.weblite.codename1.db.DAO;
+import ca.weblite.codename1.db.DAOProvider;
+import ca.weblite.codename1.db.RowReader;
+import com.codename1.db.Cursor;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A Map-based DAO for the benchmark table.  It mirrors the generic DAO, but also
+ * exposes the protected decoding methods of {@link DAO} to the benchmarks.  If 
+ * hydration is enabled, rows are loaded with {@link #hydrate} rather than through 
+ * an intermediate Map.
+ */
+public class ItemDAO extends DAO<Map> {
+    
+    private static final String[] COLUMNS = new String[]{"id", "name", "qty", "price", "notes"};
+    
+    private boolean hydrating;
+    
+    public ItemDAO(DAOProvider provider) throws IOException {
+        super(BenchmarkDatabase.TABLE, provider);
+    }
+    
+    @Override
+    public Map newObject() {
+        return new HashMap();
+    }
+
+    @Override
+    public void unmap(Map obj, Map values) {
+        obj.putAll(values);
+    }
+
+    @Override
+    public void map(Map obj, Map values) {
+        values.putAll(obj);
+    }
+
+    @Override
+    protected boolean hydrate(Map obj, RowReader row) throws IOException {
+        if ( !hydrating ){
+            return false;
+        }
+        int[] idx = row.ordinals(COLUMNS);
+        obj.put("id", row.getLong(idx[0]));
+        obj.put("name", row.getString(idx[1]));
+        obj.put("qty", row.getInt(idx[2]));
+        obj.put("price", row.getDouble(idx[3]));
+        obj.put("notes", row.getString(idx[4]));
+        return true;
+    }
+    
+    /**
+     * Enables or disables the {@link #hydrate} path.  This must be called before
+     * any rows are loaded, since the DAO falls back to {@link #unmap} permanently 
+     * once {@link #hydrate} has returned false.
+     * @param hydrating 
+     */
+    public void setHydrating(boolean hydrating){
+        this.hydrating = hydrating;
+    }
+
+    @Override
+    public long getId(Map object) {
+        Object id = object.get("id");
+        return id == null ? 0 : ((Number)id).longValue();
+    }
+    
+    /**
+     * Decodes a range of rows with {@link #fillMap}, without creating entities.
+     * @param offset The offset of the first row.
+     * @param limit The number of rows to decode.
+     * @return The number of rows decoded.
+     * @throws IOException 
+     */
+    public int decode(int offset, int limit) throws IOException {
+        Cursor c = db().executeQuery("select * from "+BenchmarkDatabase.TABLE+" order by id limit ? offset ?", 
+                new String[]{""+limit, ""+offset});
+        int n = 0;
+        try {
+            Map m = new HashMap();
+            while ( c.next() ){
+                fillMap(c, m);
+                n++;
+            }
+        } finally {
+            c.close();
+        }
+        return n;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+/**
+ * Computes Adler-32 checksums, as specified by RFC 1950.  This is used instead of 
+ * java.util.zip.Adler32, which isn't available on all Codename One platforms.
+ */
+class Adler32 {
+    
+    private static final int MOD = 65521;
+    
+    /**
+     * The largest number of bytes that can be summed before the sums must be reduced 
+     * to avoid overflowing an int.
+     */
+    private static final int NMAX = 5552;
+    
+    private int a = 1;
+    private int b = 0;
+    
+    /**
+     * Adds bytes to the checksum.
+     * @param buf The bytes.
+     * @param off The offset of the first byte.
+     * @param len The number of bytes.
+     */
+    void update(byte[] buf, int off, int len){
+        int a = this.a;
+        int b = this.b;
+        while ( len > 0 ){
+            int n = Math.min(len, NMAX);
+            len -= n;
+            while ( n-- > 0 ){
+                a += buf[off++] & 0xff;
+                b += a;
+            }
+            a %= MOD;
+            b %= MOD;
+        }
+        this.a = a;
+        this.b = b;
+    }
+    
+    /**
+     * Resets the checksum to its initial value.
+     */
+    void reset(){
+        a = 1;
+        b = 0;
+    }
+    
+    /**
+     * Gets the checksum of the bytes added since the last reset.
+     * @return 
+     */
+    int getValue(){
+        return (b << 16) | a;
+    }
+}
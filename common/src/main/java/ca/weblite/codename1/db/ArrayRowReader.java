@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import java.util.Map;
+
+/**
+ * A {@link RowReader} over an array of column values, such as a row held by the
+ * {@link RowCache}.  Values are converted to the requested type with {@link NumberUtil}.
+ */
+class ArrayRowReader extends RowReader {
+    
+    private final String[] columns;
+    private Object[] values;
+    
+    /**
+     * Creates a reader.
+     * @param columns The column names.
+     * @param values The column values.  values[i] is the value of the column columns[i].
+     */
+    ArrayRowReader(String[] columns, Object[] values){
+        this.columns = columns;
+        this.values = values;
+    }
+    
+    void setValues(Object[] values){
+        this.values = values;
+    }
+
+    /**
+     * Copies the column values into a Map.
+     * @param m The map to fill.
+     */
+    void fillMap(Map m){
+        for ( int i=0; i<columns.length; i++ ){
+            m.put(columns[i], values[i]);
+        }
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int index) {
+        return columns[index];
+    }
+
+    public boolean isNull(int index) {
+        return values[index] == null;
+    }
+
+    public long getLong(int index) {
+        return NumberUtil.longValue(values[index]);
+    }
+
+    public int getInt(int index) {
+        return NumberUtil.intValue(values[index]);
+    }
+
+    public short getShort(int index) {
+        return (short)NumberUtil.intValue(values[index]);
+    }
+
+    public double getDouble(int index) {
+        return NumberUtil.doubleValue(values[index]);
+    }
+
+    public float getFloat(int index) {
+        return (float)NumberUtil.doubleValue(values[index]);
+    }
+
+    public String getString(int index) {
+        Object v = values[index];
+        return v == null ? null : String.valueOf(v);
+    }
+
+    public byte[] getBlob(int index) {
+        return (byte[])values[index];
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.DAO.ColType;
+import java.io.IOException;
+
+/**
+ * A read-only, column oriented result of a bulk fetch.  Instead of one entity object
+ * per row, the values of each column are stored in a single array: <code>long[]</code> for 
+ * INTEGER, LONG and SHORT columns, <code>double[]</code> for FLOAT and DOUBLE columns, 
+ * <code>String[]</code> for STRING and VARCHAR columns, and <code>byte[][]</code> for BLOB 
+ * columns.  This uses several times less memory than entity objects for large scans, 
+ * such as reports.
+ * 
+ * <p>Rows in a ColumnarResult are not entities.  They are not cached, and are not
+ * updated when the table changes.  NULL values in numeric columns are read as 0.</p>
+ * @see DAO#fetchColumnar() 
+ */
+public class ColumnarResult {
+    
+    private final String[] columns;
+    private final ColType[] types;
+    
+    /**
+     * The column arrays.  data[i] is the array for column i.
+     */
+    private final Object[] data;
+    private int rowCount;
+    private int capacity;
+    
+    /**
+     * Creates an empty result.
+     * @param columns The column names.
+     * @param types The column types.
+     */
+    ColumnarResult(String[] columns, ColType[] types){
+        this.columns = columns;
+        this.types = types;
+        this.data = new Object[columns.length];
+        allocate(16);
+    }
+    
+    /**
+     * Gets the number of rows.
+     * @return 
+     */
+    public int getRowCount(){
+        return rowCount;
+    }
+    
+    /**
+     * Gets the number of columns.
+     * @return 
+     */
+    public int getColumnCount(){
+        return columns.length;
+    }
+    
+    /**
+     * Gets the name of a column.
+     * @param col The column index.
+     * @return 
+     */
+    public String getColumnName(int col){
+        return columns[col];
+    }
+    
+    /**
+     * Gets the type of a column.
+     * @param col The column index.
+     * @return 
+     */
+    public ColType getColumnType(int col){
+        return types[col];
+    }
+    
+    /**
+     * Gets the index of the column with the given name.
+     * @param name The column name.
+     * @return The column index, or -1 if the result has no such column.
+     */
+    public int getColumnIndex(String name){
+        for ( int i=0; i<columns.length; i++ ){
+            if ( columns[i].equals(name) ){
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the values of an INTEGER, LONG or SHORT column.  The array has exactly
+     * {@link #getRowCount()} elements, and must not be modified.
+     * @param name The column name.
+     * @return The values of the column.
+     * @throws IllegalArgumentException If there is no such column, or it has a different type.
+     */
+    public long[] getLongColumn(String name){
+        Object d = column(name);
+        if ( !(d instanceof long[]) ){
+            throw wrongType(name);
+        }
+        return (long[])d;
+    }
+    
+    /**
+     * Gets the values of a FLOAT or DOUBLE column.  The array has exactly
+     * {@link #getRowCount()} elements, and must not be modified.
+     * @param name The column name.
+     * @return The values of the column.
+     * @throws IllegalArgumentException If there is no such column, or it has a different type.
+     */
+    public double[] getDoubleColumn(String name){
+        Object d = column(name);
+        if ( !(d instanceof double[]) ){
+            throw wrongType(name);
+        }
+        return (double[])d;
+    }
+    
+    /**
+     * Gets the values of a STRING or VARCHAR column.  The array has exactly
+     * {@link #getRowCount()} elements, and must not be modified.
+     * @param name The column name.
+     * @return The values of the column.
+     * @throws IllegalArgumentException If there is no such column, or it has a different type.
+     */
+    public String[] getStringColumn(String name){
+        Object d = column(name);
+        if ( !(d instanceof String[]) ){
+            throw wrongType(name);
+        }
+        return (String[])d;
+    }
+    
+    /**
+     * Gets the values of a BLOB column.  The array has exactly
+     * {@link #getRowCount()} elements, and must not be modified.
+     * @param name The column name.
+     * @return The values of the column.
+     * @throws IllegalArgumentException If there is no such column, or it has a different type.
+     */
+    public byte[][] getBlobColumn(String name){
+        Object d = column(name);
+        if ( !(d instanceof byte[][]) ){
+            throw wrongType(name);
+        }
+        return (byte[][])d;
+    }
+    
+    /**
+     * Gets a single value as a long.
+     * @param row The row index.
+     * @param col The column index.
+     * @return 
+     */
+    public long getLong(int row, int col){
+        Object d = data[col];
+        if ( d instanceof long[] ){
+            return ((long[])d)[row];
+        } else if ( d instanceof double[] ){
+            return (long)((double[])d)[row];
+        }
+        return NumberUtil.longValue(getValue(row, col));
+    }
+    
+    /**
+     * Gets a single value as a double.
+     * @param row The row index.
+     * @param col The column index.
+     * @return 
+     */
+    public double getDouble(int row, int col){
+        Object d = data[col];
+        if ( d instanceof double[] ){
+            return ((double[])d)[row];
+        } else if ( d instanceof long[] ){
+            return ((long[])d)[row];
+        }
+        return NumberUtil.doubleValue(getValue(row, col));
+    }
+    
+    /**
+     * Gets a single value as a String.
+     * @param row The row index.
+     * @param col The column index.
+     * @return 
+     */
+    public String getString(int row, int col){
+        Object v = getValue(row, col);
+        return v == null ? null : String.valueOf(v);
+    }
+    
+    /**
+     * Gets a single value of a BLOB column.
+     * @param row The row index.
+     * @param col The column index.
+     * @return 
+     */
+    public byte[] getBlob(int row, int col){
+        return ((byte[][])data[col])[row];
+    }
+    
+    /**
+     * Gets a single value, boxed.
+     * @param row The row index.
+     * @param col The column index.
+     * @return 
+     */
+    public Object getValue(int row, int col){
+        if ( row >= rowCount ){
+            throw new IndexOutOfBoundsException("Row "+row+" out of bounds");
+        }
+        Object d = data[col];
+        if ( d instanceof long[] ){
+            return ((long[])d)[row];
+        } else if ( d instanceof double[] ){
+            return ((double[])d)[row];
+        } else if ( d instanceof String[] ){
+            return ((String[])d)[row];
+        }
+        return ((byte[][])d)[row];
+    }
+    
+    private Object column(String name){
+        int col = getColumnIndex(name);
+        if ( col < 0 ){
+            throw new IllegalArgumentException("No column "+name);
+        }
+        return data[col];
+    }
+    
+    private IllegalArgumentException wrongType(String name){
+        return new IllegalArgumentException("Column "+name+" is of type "+types[getColumnIndex(name)]);
+    }
+    
+    /**
+     * Appends a row.
+     * @param row The row.
+     * @param idx The ordinal in the row of each column of this result.
+     * @throws IOException 
+     */
+    void addRow(RowReader row, int[] idx) throws IOException {
+        if ( rowCount == capacity ){
+            allocate(capacity * 2);
+        }
+        int r = rowCount;
+        for ( int i=0; i<columns.length; i++ ){
+            int j = idx[i];
+            switch ( types[i] ){
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                    ((long[])data[i])[r] = row.getLong(j);
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    ((double[])data[i])[r] = row.getDouble(j);
+                    break;
+                case BLOB:
+                    ((byte[][])data[i])[r] = row.getBlob(j);
+                    break;
+                default:
+                    ((String[])data[i])[r] = row.getString(j);
+            }
+        }
+        rowCount++;
+    }
+    
+    /**
+     * Trims the column arrays to the number of rows.  Called once all rows are added.
+     */
+    void trim(){
+        if ( capacity != rowCount ){
+            allocate(rowCount);
+        }
+    }
+    
+    /**
+     * Resizes the column arrays.
+     * @param size The new capacity.
+     */
+    private void allocate(int size){
+        int n = Math.min(size, rowCount);
+        for ( int i=0; i<columns.length; i++ ){
+            Object old = data[i];
+            Object d;
+            switch ( types[i] ){
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                    d = new long[size];
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    d = new double[size];
+                    break;
+                case BLOB:
+                    d = new byte[size][];
+                    break;
+                default:
+                    d = new String[size];
+            }
+            if ( old != null ){
+                System.arraycopy(old, 0, d, 0, n);
+            }
+            data[i] = d;
+        }
+        capacity = size;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Row;
+import java.io.IOException;
+
+/**
+ * A {@link RowReader} over the current row of a database Cursor.  The column names
+ * are read once, when the reader is created.  {@link #setRow(com.codename1.db.Row)} 
+ * must be called after each call to {@link Cursor#next()}.
+ */
+class CursorRowReader extends RowReader {
+    
+    private final String[] columns;
+    private Row row;
+    
+    CursorRowReader(Cursor c) throws IOException {
+        columns = new String[c.getColumnCount()];
+        for ( int i=0; i<columns.length; i++ ){
+            columns[i] = c.getColumnName(i);
+        }
+    }
+    
+    void setRow(Row row){
+        this.row = row;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int index) {
+        return columns[index];
+    }
+
+    public boolean isNull(int index) throws IOException {
+        return row.getString(index) == null;
+    }
+
+    public long getLong(int index) throws IOException {
+        return row.getLong(index);
+    }
+
+    public int getInt(int index) throws IOException {
+        return row.getInteger(index);
+    }
+
+    public short getShort(int index) throws IOException {
+        return row.getShort(index);
+    }
+
+    public double getDouble(int index) throws IOException {
+        return row.getDouble(index);
+    }
+
+    public float getFloat(int index) throws IOException {
+        return row.getFloat(index);
+    }
+
+    public String getString(int index) throws IOException {
+        return row.getString(index);
+    }
+
+    public byte[] getBlob(int index) throws IOException {
+        return row.getBlob(index);
+    }
+}
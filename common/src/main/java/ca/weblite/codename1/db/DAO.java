@@ -23,11 +23,14 @@ import com.codename1.io.Log;
 import com.codename1.ui.Display;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
@@ -59,9 +62,16 @@ public abstract class DAO<T> {
     }
     
     /**
-     * Cache mapping long IDs to Wrappers for the model POJO.
+     * The maximum number of ? placeholders that can be used in a single SQL statement.
+     * This is the default value of SQLITE_MAX_VARIABLE_NUMBER for SQLite versions before 3.32.
      */
-    private final Map<Long,Wrapper> cache = new HashMap<Long,Wrapper>();
+    static final int MAX_SQL_VARIABLES = 999;
+    
+    /**
+     * Cache mapping long IDs to Wrappers for the model POJO.  This is synchronized, since 
+     * entities may be loaded on one thread while another thread writes (e.g. a background import).
+     */
+    private final Map<Long,Wrapper> cache = Collections.synchronizedMap(new HashMap<Long,Wrapper>());
     //private final Map<Long,T> index = new HashMap<Long,T>();
     
     /**
@@ -90,6 +100,125 @@ public abstract class DAO<T> {
      */
     private String selectByIdStatement = null;
     
+    /**
+     * The column names of this table.  Used as the shared key array for rows
+     * stored in the second-level {@link RowCache}.
+     */
+    private String[] columnNames = null;
+    
+    /**
+     * The column types of this table, in the order of {@link #columnNames}.
+     */
+    private ColType[] columnTypes = null;
+    
+    /**
+     * Set to false once {@link #hydrate} has returned false, so that the Map
+     * based {@link #unmap} path is used from then on.
+     */
+    private boolean hydrateSupported = true;
+    
+    /**
+     * Set to false once {@link #bind} has returned false, so that the Map
+     * based {@link #map} path is used from then on.
+     */
+    private boolean bindSupported = true;
+    
+    /**
+     * Cache mapping query keys (SQL + params) to the IDs of the rows in the
+     * result.  Null if the query cache is disabled.
+     * @see #setQueryCacheSize(int) 
+     */
+    private Map<String,long[]> queryCache = null;
+    
+    /**
+     * The maximum number of queries retained in the query cache.
+     */
+    private int queryCacheSize = 0;
+    
+    /**
+     * Query cache statistics.  Access is synchronized on {@link #queryCacheStats}.
+     */
+    private int queryCacheHits, queryCacheMisses, queryCacheInvalidations;
+    
+    /**
+     * Lock for the query cache statistics, which are updated by concurrent
+     * readers and writers.
+     */
+    private final Object queryCacheStats = new Object();
+    
+    /**
+     * The number of writes to this table, so that loads from a reader connection can
+     * detect that they may have read rows older than the cached entities.
+     * @see #stale(int) 
+     */
+    private volatile int writes;
+    
+    /**
+     * The number of times that committed rows of this table have changed, so that a 
+     * load from a reader connection can tell whether the rows it read are still current.
+     * @see #loadStale(long, com.codename1.db.Cursor, int) 
+     */
+    private volatile int commits;
+    
+    /**
+     * The relations declared on this table.
+     * @see #addManyToOne(java.lang.String, java.lang.String, java.lang.String) 
+     * @see #addOneToMany(java.lang.String, java.lang.String, java.lang.String) 
+     */
+    private final List<Relation> relations = new ArrayList<Relation>();
+    
+    /**
+     * A relation from this table to another table, by foreign key column.
+     */
+    private static class Relation {
+        String name;
+        String table;
+        String column;
+        boolean toMany;
+    }
+    
+    /**
+     * The columns of the full-text index, or null if the table has none.
+     * @see #setFullTextColumns(java.lang.String[]) 
+     */
+    private String[] fullTextColumns;
+    
+    /**
+     * The IDs of the rows written in the provider's current transaction, so that their 
+     * entities can be evicted if it is rolled back.  Access is synchronized on this set.
+     */
+    private final Set<Long> transactionWrites = new HashSet<Long>();
+    
+    /**
+     * Flag to indicate that rows were written in the provider's current transaction
+     * without going through this DAO (e.g. bulk imports), so the IDs of the written
+     * rows aren't known.  Access is synchronized on {@link #transactionWrites}.
+     */
+    private boolean transactionBulkWrite;
+    
+    /**
+     * Listeners to be notified of changes to this table.
+     */
+    private final List<DAOChangeListener> changeListeners = new ArrayList<DAOChangeListener>();
+    
+    /**
+     * Changes that have been made but not yet delivered to the change listeners.
+     * Access is synchronized on changeListeners.
+     */
+    private DAOChangeEvent pendingChanges = null;
+    
+    /**
+     * Changes that have been made in the provider's current transaction.  They are merged
+     * into the pending changes when the transaction is committed, and discarded if it is
+     * rolled back.  Access is synchronized on changeListeners.
+     */
+    private DAOChangeEvent transactionChanges = null;
+    
+    /**
+     * Flag to indicate that delivery of the pending changes has already been scheduled.
+     */
+    private boolean changesScheduled = false;
+    
     /**
      * Reference to the DAO provider for this table.  This will allow
      * subclasses to load the DAO for other tables if necessary.
@@ -118,6 +247,477 @@ public abstract class DAO<T> {
         return provider;
     }
     
+    /**
+     * Returns the name of the table that this DAO works on.
+     * @return 
+     */
+    public String getTableName(){
+        return tableName;
+    }
+    
+    /**
+     * Gets the column names of this table.
+     * @return 
+     */
+    String[] columnNames(){
+        if ( columnNames == null ){
+            columnNames = colTypes.keySet().toArray(new String[colTypes.size()]);
+        }
+        return columnNames;
+    }
+    
+    /**
+     * Gets the column types of this table, in the order of {@link #columnNames()}.
+     * @return 
+     */
+    ColType[] columnTypes(){
+        if ( columnTypes == null ){
+            String[] cols = columnNames();
+            ColType[] types = new ColType[cols.length];
+            for ( int i=0; i<cols.length; i++ ){
+                types[i] = colTypes.get(cols[i]);
+            }
+            columnTypes = types;
+        }
+        return columnTypes;
+    }
+    
+    /**
+     * Reads the values of the current row into an array, in the order of {@link #columnNames()}.
+     * The values have the same types as those produced by {@link #fillMap}.
+     * @param row The row.
+     * @return 
+     * @throws IOException 
+     */
+    private Object[] readValues(RowReader row) throws IOException {
+        String[] cols = columnNames();
+        ColType[] types = columnTypes();
+        int[] idx = row.ordinals(cols);
+        Object[] vals = new Object[cols.length];
+        for ( int i=0; i<cols.length; i++ ){
+            if ( idx[i] >= 0 ){
+                vals[i] = readValue(row, idx[i], cols[i], types[i]);
+            }
+        }
+        return vals;
+    }
+    
+    /**
+     * Checks whether a query result has all of the columns of the table, so that its rows
+     * can be stored in the row cache.  Rows of partial projections (or joins) would otherwise
+     * be cached with nulls in the columns they don't have.
+     * @param reader A reader over the query result.
+     * @return 
+     */
+    private boolean hasAllColumns(RowReader reader){
+        int[] idx = reader.ordinals(columnNames());
+        for ( int i=0; i<idx.length; i++ ){
+            if ( idx[i] < 0 ){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reads the values of the current row into a Map.  The keys are the column name
+     * strings of the table's schema, so they are shared by all rows.
+     * @param row The row.
+     * @param m The map to fill.
+     * @throws IOException 
+     */
+    void readValues(RowReader row, Map m) throws IOException {
+        String[] cols = columnNames();
+        ColType[] types = columnTypes();
+        int[] idx = row.ordinals(cols);
+        for ( int i=0; i<cols.length; i++ ){
+            if ( idx[i] >= 0 && types[i] != null ){
+                m.put(cols[i], readValue(row, idx[i], cols[i], types[i]));
+            }
+        }
+    }
+    
+    /**
+     * Reads a single column value with the same type as {@link #fillMap} would produce.
+     * @param row The row.
+     * @param index The ordinal of the column in the row.
+     * @param colName The column name.
+     * @param colType The column type, or null if the column isn't in the schema.
+     * @return 
+     * @throws IOException 
+     */
+    private static Object readValue(RowReader row, int index, String colName, ColType colType) throws IOException {
+        if ( colType == null ){
+            return null;
+        }
+        switch ( colType ){
+            case FLOAT:
+                return row.getFloat(index);
+            case DOUBLE:
+                return row.getDouble(index);
+            case BLOB:
+                return row.getBlob(index);
+            case STRING:
+            case VARCHAR:
+                return row.getString(index);
+            case INTEGER:
+                if ( "id".equals(colName) ){
+                    return row.getLong(index);
+                } else {
+                    return row.getInt(index);
+                }
+            case LONG:
+                return row.getLong(index);
+            case SHORT:
+                return row.getShort(index);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Stores a decoded row in the provider's second-level cache, if one is set.
+     * @param id The ID of the row.
+     * @param m The decoded row data.
+     */
+    private void cacheRow(long id, Map m){
+        RowCache rc = provider.getRowCache();
+        if ( rc != null ){
+            rc.put(tableName, id, columnNames(), m);
+        }
+    }
+    
+    /**
+     * Removes a row from the provider's second-level cache, if one is set.
+     * @param id The ID of the row.
+     */
+    private void uncacheRow(long id){
+        RowCache rc = provider.getRowCache();
+        if ( rc != null ){
+            rc.invalidate(tableName, id);
+        }
+    }
+    
+    /**
+     * Invalidates any cached data for this table that may have been made stale
+     * by writes that didn't go through this DAO (e.g. bulk imports).  The entity
+     * cache is unaffected.
+     */
+    void invalidateCaches(){
+        writes++;
+        if ( provider.transactionWritten(this) ){
+            synchronized ( transactionWrites ){
+                transactionBulkWrite = true;
+            }
+        } else {
+            commits++;
+        }
+        RowCache rc = provider.getRowCache();
+        if ( rc != null ){
+            rc.invalidate(tableName);
+        }
+        clearQueryCache();
+    }
+    
+    /**
+     * Invalidates cached data and records a change event after a single row has been written.
+     * @param type The type of write.
+     * @param id The ID of the row that was written.
+     */
+    private void rowWritten(DAOChangeEvent.Type type, long id){
+        writes++;
+        uncacheRow(id);
+        clearQueryCache();
+        boolean inTransaction = provider.transactionWritten(this);
+        if ( inTransaction ){
+            synchronized ( transactionWrites ){
+                transactionWrites.add(id);
+            }
+        } else {
+            commits++;
+        }
+        recordChange(type, id, inTransaction);
+    }
+    
+    /**
+     * Called by the provider when a transaction in which this DAO wrote rows ends.  If it 
+     * was rolled back, the entities of the rows are evicted from the cache, since they 
+     * may hold values (or, for inserts, IDs) that were never committed, and the changes
+     * made in the transaction are discarded.  Otherwise the changes become pending, and 
+     * are delivered with the changes made before the transaction.
+     * @param rolledBack True if the transaction was rolled back.
+     */
+    void transactionEnded(boolean rolledBack){
+        boolean changed;
+        synchronized ( changeListeners ){
+            changed = !rolledBack && transactionChanges != null;
+            if ( changed ){
+                if ( pendingChanges == null ){
+                    pendingChanges = new DAOChangeEvent(this);
+                }
+                pendingChanges.addAll(transactionChanges);
+            }
+            transactionChanges = null;
+        }
+        if ( changed && !provider.changesPending(this) ){
+            scheduleChanges();
+        }
+        Long[] ids;
+        synchronized ( transactionWrites ){
+            ids = transactionWrites.toArray(new Long[transactionWrites.size()]);
+            transactionWrites.clear();
+            transactionBulkWrite = false;
+            if ( !rolledBack ){
+                commits++;
+            }
+        }
+        if ( rolledBack ){
+            for ( Long id : ids ){
+                evict(id);
+            }
+        }
+    }
+    
+    /**
+     * Adds a listener to be notified when rows of this table are inserted, updated
+     * or deleted through this DAO (including via an {@link Importer}).  Changes are 
+     * coalesced: changes made inside a {@link DAOProvider#beginBatch() batch} or 
+     * {@link DAOProvider#beginTransaction() transaction} are delivered as a single event
+     * when the batch ends, and other changes are delivered together on the next 
+     * cycle of the EDT.
+     * @param l The listener.
+     */
+    public void addChangeListener(DAOChangeListener l){
+        synchronized ( changeListeners ){
+            changeListeners.add(l);
+        }
+    }
+    
+    /**
+     * Removes a change listener.
+     * @param l The listener to remove.
+     */
+    public void removeChangeListener(DAOChangeListener l){
+        synchronized ( changeListeners ){
+            changeListeners.remove(l);
+        }
+    }
+    
+    /**
+     * Records a change to be delivered to the change listeners.  This does nothing
+     * if there are no change listeners.
+     * @param type The type of change.
+     * @param id The ID of the row that changed.
+     * @param inTransaction True if the change was made in the provider's current transaction,
+     * in which case it is only delivered if the transaction is committed.
+     */
+    private void recordChange(DAOChangeEvent.Type type, long id, boolean inTransaction){
+        synchronized ( changeListeners ){
+            if ( changeListeners.isEmpty() ){
+                return;
+            }
+            if ( inTransaction ){
+                if ( transactionChanges == null ){
+                    transactionChanges = new DAOChangeEvent(this);
+                }
+                transactionChanges.add(type, id);
+                return;
+            }
+            if ( pendingChanges == null ){
+                pendingChanges = new DAOChangeEvent(this);
+            }
+            pendingChanges.add(type, id);
+        }
+        if ( !provider.changesPending(this) ){
+            scheduleChanges();
+        }
+    }
+    
+    /**
+     * Schedules delivery of pending changes to the change listeners.  If a Display
+     * is running, the changes are delivered on the next cycle of the EDT, so all changes 
+     * made until then are coalesced into one event.  Otherwise they are delivered immediately.
+     */
+    void scheduleChanges(){
+        synchronized ( changeListeners ){
+            if ( pendingChanges == null || changesScheduled ){
+                return;
+            }
+            changesScheduled = true;
+        }
+        if ( Display.isInitialized() ){
+            Display.getInstance().callSerially(new Runnable(){
+                public void run() {
+                    fireChanges();
+                }
+            });
+        } else {
+            fireChanges();
+        }
+    }
+    
+    /**
+     * Delivers pending changes to the change listeners.
+     */
+    private void fireChanges(){
+        DAOChangeEvent evt;
+        DAOChangeListener[] listeners;
+        synchronized ( changeListeners ){
+            evt = pendingChanges;
+            pendingChanges = null;
+            changesScheduled = false;
+            if ( evt == null || evt.isEmpty() ){
+                return;
+            }
+            listeners = changeListeners.toArray(new DAOChangeListener[changeListeners.size()]);
+        }
+        for ( DAOChangeListener l : listeners ){
+            l.tableChanged(evt);
+        }
+    }
+    
+    /**
+     * Sets the maximum number of queries whose results are cached by {@link #fetchAll(java.lang.String, java.lang.String[])}.
+     * The query cache maps the SQL and params of a query to the IDs of the resulting rows, so
+     * that subsequent runs of the same query can be rebuilt from the entity cache without 
+     * going to the database.  The query cache is cleared whenever a row of this table is
+     * inserted or updated through this DAO, or imported with an {@link Importer}.
+     * 
+     * <p>Note that the query cache is invalidated based on writes to this table only.  Queries that
+     * join other tables should not be run with the query cache enabled, unless those tables are
+     * read-only.  Writes made directly through {@link #db()} should be followed by {@link #clearQueryCache()}.</p>
+     * @param size The maximum number of queries to cache.  0 to disable the query cache.
+     */
+    public void setQueryCacheSize(int size){
+        queryCacheSize = size;
+        if ( size <= 0 ){
+            queryCache = null;
+        } else if ( queryCache == null ){
+            queryCache = Collections.synchronizedMap(new LinkedHashMap<String,long[]>(16, 0.75f, true){
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String,long[]> eldest) {
+                    return size() > queryCacheSize;
+                }
+            });
+        } else {
+            queryCache.clear();
+        }
+    }
+    
+    /**
+     * Gets the maximum number of queries whose results are cached.
+     * @return The query cache size.  0 if the query cache is disabled.
+     */
+    public int getQueryCacheSize(){
+        return queryCacheSize;
+    }
+    
+    /**
+     * Clears the query cache.
+     */
+    public void clearQueryCache(){
+        Map<String,long[]> qc = queryCache;
+        if ( qc != null && !qc.isEmpty() ){
+            qc.clear();
+            synchronized ( queryCacheStats ){
+                queryCacheInvalidations++;
+            }
+        }
+    }
+    
+    /**
+     * Gets the number of queries that were served from the query cache.
+     * @return 
+     */
+    public int getQueryCacheHits(){
+        synchronized ( queryCacheStats ){
+            return queryCacheHits;
+        }
+    }
+    
+    /**
+     * Gets the number of queries that had to be run against the database while
+     * the query cache was enabled.
+     * @return 
+     */
+    public int getQueryCacheMisses(){
+        synchronized ( queryCacheStats ){
+            return queryCacheMisses;
+        }
+    }
+    
+    /**
+     * Gets the number of times that the query cache has been cleared due to writes.
+     * @return 
+     */
+    public int getQueryCacheInvalidations(){
+        synchronized ( queryCacheStats ){
+            return queryCacheInvalidations;
+        }
+    }
+    
+    /**
+     * Gets the fraction of queries that were served from the query cache.
+     * @return A value between 0 and 1.
+     */
+    public double getQueryCacheHitRate(){
+        synchronized ( queryCacheStats ){
+            int total = queryCacheHits + queryCacheMisses;
+            return total == 0 ? 0 : ((double)queryCacheHits)/total;
+        }
+    }
+    
+    /**
+     * Builds the query cache key for the given SQL query and params.
+     * @param sqlQuery
+     * @param params
+     * @return 
+     */
+    private static String queryKey(String sqlQuery, String[] params){
+        if ( params == null || params.length == 0 ){
+            return sqlQuery;
+        }
+        StringBuilder sb = new StringBuilder(sqlQuery);
+        for ( String p : params ){
+            sb.append('\0').append(p);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Rebuilds a query result from cached entities.
+     * @param ids The IDs of the rows in the result.
+     * @return The list of entities, or null if any of the entities is no longer
+     * cached.
+     * @throws IOException 
+     */
+    private List<T> fromQueryCache(long[] ids) throws IOException {
+        List<T> out = new ArrayList<T>(ids.length);
+        for ( long id : ids ){
+            T o = getById(id, false);
+            if ( o == null ){
+                return null;
+            }
+            out.add(o);
+        }
+        return out;
+    }
+    
+    
+    /**
+     * Gets the index of a column in {@link #columnNames()}.
+     * @param name The column name.
+     * @return The index or -1 if the table has no such column.
+     */
+    private int columnIndex(String name){
+        String[] cols = columnNames();
+        for ( int i=0; i<cols.length; i++ ){
+            if ( cols[i].equals(name) ){
+                return i;
+            }
+        }
+        return -1;
+    }
     
     /**
      * Gets the generic update SQL statement.
@@ -127,8 +727,8 @@ public abstract class DAO<T> {
         if ( updateStatement == null ){
             StringBuilder sb = new StringBuilder();
             sb.append("UPDATE \"").append(tableName).append("\" set ");
-            for ( Map.Entry<String,ColType> e : colTypes.entrySet() ){
-                sb.append("\"").append(e.getKey()).append("\" = ?,");
+            for ( String col : columnNames() ){
+                sb.append("\"").append(col).append("\" = ?,");
                 
             }
             sb.deleteCharAt(sb.length()-1);
@@ -139,18 +739,18 @@ public abstract class DAO<T> {
     }
     
     /**
-     * Gets the update args for the given map.
+     * Gets the update args for the given row values.
      * @param id
-     * @param m
+     * @param vals The row values, in the order of {@link #columnNames()}.
      * @return 
      */
-    private Object[] updateArgs(long id, Map m){
-        List largs = new ArrayList();
-        for ( Map.Entry<String,ColType> e : colTypes.entrySet() ){
-            largs.add(""+m.get(e.getKey()));
+    private Object[] updateArgs(long id, Object[] vals){
+        Object[] args = new Object[vals.length+1];
+        for ( int i=0; i<vals.length; i++ ){
+            args[i] = bindValue(vals[i]);
         }
-        largs.add(id);
-        return largs.toArray();
+        args[vals.length] = id;
+        return args;
     }
     
     /**
@@ -200,10 +800,10 @@ public abstract class DAO<T> {
     /**
      * Returns update arguments for given wrapper.
      * @param w The wrapper that is being updated.
-     * @param m Map of values from the wrapper's objects.
+     * @param vals The values of the wrapper's object, in the order of {@link #columnNames()}.
      * @return 
      */
-    private Object[] updateArgs(Wrapper w, Map m){
+    private Object[] updateArgs(Wrapper w, Object[] vals){
         if ( w.getObject() instanceof Observable ){
             if ( w.dirty.isEmpty() ){
                 throw new RuntimeException("Cannot create update statement when record is not dirty at all.");
@@ -221,42 +821,47 @@ public abstract class DAO<T> {
             
             List out = new ArrayList();
             for ( String colName : d ){
-                out.add(""+m.get(colName));
+                int i = columnIndex(colName);
+                out.add(i < 0 ? null : bindValue(vals[i]));
             }
             out.add(getId(w.getObject()));
             return out.toArray();
         } else {
-            return updateArgs(getId(w.getObject()), m);
+            return updateArgs(getId(w.getObject()), vals);
         }
     }
     
     /**
-     * Gets generic insert statement for the given map of row data.
-     * @param row
+     * Checks whether the id column should be included in an insert statement 
+     * for the given row values.
+     * @param vals The row values, in the order of {@link #columnNames()}.
      * @return 
      */
-    private String insertStatement(Map row){
-        StringBuilder sb = new StringBuilder();
-        sb.append("INSERT INTO \"").append(tableName).append("\" (");
-        for ( Map.Entry<String,ColType> e : colTypes.entrySet() ){
-            if ( "id".equals(e.getKey()) && row.get("id") == null ){
-                continue;
-            }
-            if ( "id".equals(e.getKey()) && NumberUtil.longValue(row.get("id")) <= 0 ){
+    private boolean insertsId(Object[] vals){
+        int i = columnIndex("id");
+        return i >= 0 && vals[i] != null && NumberUtil.longValue(vals[i]) > 0;
+    }
+    
+    /**
+     * Gets generic insert statement for the given row values.
+     * @param vals The row values, in the order of {@link #columnNames()}.
+     * @return 
+     */
+    private String insertStatement(Object[] vals){
+        boolean withId = insertsId(vals);
+        StringBuilder sb = new StringBuilder();
+        sb.append("INSERT INTO \"").append(tableName).append("\" (");
+        int n = 0;
+        for ( String col : columnNames() ){
+            if ( !withId && "id".equals(col) ){
                 continue;
             }
-            
-            sb.append("\"").append(e.getKey()).append("\",");
+            sb.append("\"").append(col).append("\",");
+            n++;
         }
         sb.deleteCharAt(sb.length()-1);
         sb.append(") VALUES (");
-        for ( Map.Entry<String,ColType> e : colTypes.entrySet() ){
-            if ( "id".equals(e.getKey()) && row.get("id") == null ){
-                continue;
-            }
-            if ( "id".equals(e.getKey()) && NumberUtil.longValue(row.get("id")) <= 0 ){
-                continue;
-            }
+        for ( int i=0; i<n; i++ ){
             sb.append("?,");
         }
         sb.deleteCharAt(sb.length()-1);
@@ -266,25 +871,80 @@ public abstract class DAO<T> {
     }
     
     /**
-     * Gets generic insert args for insert statement for the given map of row data.
-     * @param m Map containing row data to insert. Maps column names to column values.
+     * Gets generic insert args for insert statement for the given row values.
+     * @param vals The row values, in the order of {@link #columnNames()}.
      * @return Object[] array that can be used in Database.execute()
      */
-    private Object[] insertArgs(Map m){
+    private Object[] insertArgs(Object[] vals){
+        boolean withId = insertsId(vals);
+        String[] cols = columnNames();
         List largs = new ArrayList();
-        for ( Map.Entry<String,ColType> e : colTypes.entrySet() ){
-            if ( "id".equals(e.getKey()) && m.get("id") == null ){
+        for ( int i=0; i<cols.length; i++ ){
+            if ( !withId && "id".equals(cols[i]) ){
                 continue;
             }
-            if ( "id".equals(e.getKey()) && NumberUtil.longValue(m.get("id")) <= 0 ){
-                continue;
-            }
-            largs.add(""+m.get(e.getKey()));
+            largs.add(bindValue(vals[i]));
         }
         
         return largs.toArray();
     }
     
+    /**
+     * Converts a row value to a statement argument.  Nulls, numbers, strings and byte 
+     * arrays are bound as they are, so they are stored as SQL NULL, numbers, text and 
+     * blobs respectively.  Booleans are bound as 1 or 0, and any other values as their 
+     * string representation.
+     * @param value The row value, e.g. as returned by {@link #bind} or {@link #map}.
+     * @return The argument.
+     */
+    static Object bindValue(Object value){
+        if ( value == null || value instanceof String || value instanceof Number || value instanceof byte[] ){
+            return value;
+        }
+        if ( value instanceof Boolean ){
+            return Integer.valueOf(((Boolean)value).booleanValue() ? 1 : 0);
+        }
+        return String.valueOf(value);
+    }
+    
+    /**
+     * Gets the values of an entity object in the order of {@link #columnNames()}.  This 
+     * uses {@link #bind} if the DAO supports it, and {@link #map} otherwise.
+     * @param object The entity object.
+     * @param vals Array to receive the values.  Must be the same length as {@link #columnNames()}.
+     * @return The Map that the values were mapped into, or null if {@link #bind} was used.
+     */
+    private Map rowValues(T object, Object[] vals){
+        String[] cols = columnNames();
+        if ( bindSupported ){
+            if ( bind(object, cols, vals) ){
+                return null;
+            }
+            bindSupported = false;
+        }
+        Map m = new HashMap();
+        map(object, m);
+        for ( int i=0; i<cols.length; i++ ){
+            vals[i] = m.get(cols[i]);
+        }
+        return m;
+    }
+    
+    /**
+     * Assigns the ID of a newly inserted entity object.
+     * @param object The entity object.
+     * @param m The Map returned by {@link #rowValues}.
+     * @param id The new ID.
+     */
+    private void assignId(T object, Map m, long id){
+        if ( m == null ){
+            setId(object, id);
+        } else {
+            m.put("id", id);
+            unmap(object, m);
+        }
+    }
+    
     
     
     
@@ -388,19 +1048,15 @@ public abstract class DAO<T> {
      */
     public List<T> getAll() throws IOException {
         List<T> out = new ArrayList<T>();
-        List<Long> removes = new ArrayList<Long>();
-        for ( Map.Entry<Long,Wrapper> e : cache.entrySet()){
-            T o = e.getValue().getObject();
-            if ( o != null ){
-                out.add(o);
-            } else {
-                removes.add(e.getKey());
-            }
-            
-        }
-        if ( !removes.isEmpty()){
-            for ( Long l : removes ){
-                cache.remove(l);
+        synchronized ( cache ){
+            Iterator<Wrapper> it = cache.values().iterator();
+            while ( it.hasNext() ){
+                T o = it.next().getObject();
+                if ( o != null ){
+                    out.add(o);
+                } else {
+                    it.remove();
+                }
             }
         }
         
@@ -424,11 +1080,33 @@ public abstract class DAO<T> {
      * @throws IOException 
      */
     public final List<T> fetch(Map<String,String> query) throws IOException {
+        String[] vals = new String[query.size()];
+        return fetchAll(selectWhere(query, vals), vals);
+        
+    }
+    
+    /**
+     * Builds a query for the rows of this table that match a field=>value query.
+     * @param query The query.
+     * @param vals Array to receive the query params.  Must be the same size as the query.
+     * @return The SQL query.
+     */
+    private String selectWhere(Map<String,String> query, String[] vals){
         StringBuilder sb = new StringBuilder();
         sb.append("select * from \"").append(tableName).append("\" where ");
+        appendWhere(sb, query, vals);
+        return sb.toString();
+    }
+    
+    /**
+     * Appends the conditions of a field=>value query to an SQL where clause.
+     * @param sb Buffer to which the conditions are appended.
+     * @param query The query.
+     * @param vals Array to receive the query params.  Must be the same size as the query.
+     */
+    static void appendWhere(StringBuilder sb, Map<String,String> query, String[] vals){
         int len = query.size();
         int i=0;
-        String[] vals = new String[len];
         for ( Object key : query.keySet()){
             String strKey = (String)key;
             vals[i] = (""+query.get(strKey));
@@ -437,8 +1115,6 @@ public abstract class DAO<T> {
                 sb.append("AND ");
             }
         }
-        return fetchAll(sb.toString(), vals);
-        
     }
     
     /**
@@ -460,12 +1136,16 @@ public abstract class DAO<T> {
     
     /**
      * Fetches a single entity from the underlying table that matches a given query.
+     * Unlike {@link #fetch(java.util.Map)}, this doesn't load the entity's relations, since
+     * it is typically called once per row (e.g. by the {@link Importer}), where loading them 
+     * would cost extra queries per row.  Use {@link #loadRelations(java.util.List)} to load them.
      * @param query
      * @return An entity object, or null if none was found.
      * @throws IOException 
      */
     public final T fetchOne(Map<String,String> query) throws IOException {
-        List<T> res = fetch(query);
+        String[] vals = new String[query.size()];
+        List<T> res = load(selectWhere(query, vals), vals);
         if ( res.isEmpty() ){
             return null;
         } else {
@@ -475,6 +1155,7 @@ public abstract class DAO<T> {
     
     /**
      * Fetchs a single entity from the underlying table that matches a given query.
+     * Relations aren't loaded.
      * @param query
      * @return An entity object or null if none was found.
      * @throws IOException 
@@ -487,6 +1168,207 @@ public abstract class DAO<T> {
         return fetchOne(q);
     }
     
+    /**
+     * Declares the columns of this table that can be searched with {@link #search(java.lang.String, int)}.  
+     * This creates an FTS5 full-text index (an external-content table named <code>&lt;table&gt;_fts</code>) 
+     * over the columns, and triggers that keep it up to date as rows are written, unless they 
+     * already exist.  A new index is built from the existing rows.
+     * 
+     * <p>The index is created with the columns of the first declaration.  To change the 
+     * columns, drop the <code>&lt;table&gt;_fts</code> table in a schema update.</p>
+     * @param columns The text columns to index.
+     * @throws IOException If the index can't be created, e.g. because SQLite was built without FTS5.
+     */
+    public void setFullTextColumns(String[] columns) throws IOException {
+        provider.createFullTextIndex(tableName, columns);
+        fullTextColumns = columns;
+    }
+    
+    /**
+     * Gets the columns of the full-text index.
+     * @return The columns, or null if none were declared.
+     * @see #setFullTextColumns(java.lang.String[]) 
+     */
+    public String[] getFullTextColumns(){
+        return fullTextColumns;
+    }
+    
+    /**
+     * Rebuilds the full-text index from the rows of the table.  This is only needed if rows 
+     * were written without the index's triggers, e.g. with <code>INSERT OR REPLACE</code>, which 
+     * doesn't fire delete triggers.
+     * @throws IOException 
+     * @see Importer#setRebuildFullTextIndex(boolean) 
+     */
+    public void rebuildFullTextIndex() throws IOException {
+        if ( fullTextColumns != null ){
+            provider.rebuildFullTextIndex(tableName);
+        }
+    }
+    
+    /**
+     * Drops the triggers of the full-text index for the duration of a bulk write.
+     * @return True if the table has a full-text index, in which case {@link #resumeFullTextIndex()}
+     * must be called after the write.
+     * @throws IOException 
+     */
+    boolean suspendFullTextIndex() throws IOException {
+        if ( fullTextColumns == null ){
+            return false;
+        }
+        provider.dropFullTextTriggers(tableName);
+        return true;
+    }
+    
+    /**
+     * Recreates the triggers of the full-text index after a bulk write, and rebuilds the index.
+     * @throws IOException 
+     * @see #suspendFullTextIndex() 
+     */
+    void resumeFullTextIndex() throws IOException {
+        provider.createFullTextTriggers(tableName, fullTextColumns);
+        provider.rebuildFullTextIndex(tableName);
+    }
+    
+    /**
+     * Searches the full-text index for entities that contain all of the words in a search string.
+     * The last word also matches as a prefix, so this can be used as the user types.  Results
+     * are ordered by relevance, and are loaded like those of {@link #fetch(java.util.Map)}, so they 
+     * are the same entity objects as any that are already loaded.
+     * @param text The search string, e.g. as entered in a search box.  Words are matched literally;
+     * FTS5 query syntax isn't interpreted.
+     * @param limit The maximum number of results, or 0 for no limit.
+     * @return The matching entities, best match first.
+     * @throws IOException If no full-text columns are declared.
+     * @see #setFullTextColumns(java.lang.String[]) 
+     */
+    public List<T> search(String text, int limit) throws IOException {
+        if ( fullTextColumns == null ){
+            throw new IOException("No full-text columns declared for table "+tableName);
+        }
+        String match = matchQuery(text);
+        if ( match == null ){
+            return new ArrayList<T>();
+        }
+        String fts = DAOProvider.fullTextTable(tableName);
+        StringBuilder sb = new StringBuilder();
+        sb.append("select t.* from \"").append(tableName).append("\" t inner join \"").append(fts)
+                .append("\" f on f.rowid=t.id where f.\"").append(fts).append("\" match ? order by f.rank");
+        if ( limit > 0 ){
+            sb.append(" limit ").append(limit);
+        }
+        return fetchAll(sb.toString(), new String[]{match});
+    }
+    
+    /**
+     * Converts a search string to an FTS5 query that matches all of its words, with the
+     * last word as a prefix.
+     * @param text The search string.
+     * @return The query, or null if the string has no words.
+     */
+    private static String matchQuery(String text){
+        StringBuilder sb = new StringBuilder();
+        int len = text == null ? 0 : text.length();
+        int i = 0;
+        while ( i < len ){
+            while ( i < len && text.charAt(i) <= ' ' ){
+                i++;
+            }
+            if ( i == len ){
+                break;
+            }
+            if ( sb.length() > 0 ){
+                sb.append(' ');
+            }
+            sb.append('"');
+            while ( i < len && text.charAt(i) > ' ' ){
+                char c = text.charAt(i++);
+                if ( c == '"' ){
+                    sb.append('"');
+                }
+                sb.append(c);
+            }
+            sb.append('"');
+        }
+        if ( sb.length() == 0 ){
+            return null;
+        }
+        return sb.append('*').toString();
+    }
+    
+    /**
+     * Fetches all of the rows in the underlying table as a read-only {@link ColumnarResult}.
+     * This doesn't create entity objects and bypasses all caches, so it is much cheaper 
+     * than {@link #fetchAll()} for large scans.
+     * @return The rows of the table.
+     * @throws IOException 
+     */
+    public final ColumnarResult fetchColumnar() throws IOException {
+        return fetchColumnar("select * from \""+tableName+"\"", new String[0]);
+    }
+    
+    /**
+     * Fetches the rows of the underlying table that match a given query as a read-only
+     * {@link ColumnarResult}.
+     * @param query A field=>value mapping the constitutes a query.
+     * @return The matching rows.
+     * @throws IOException 
+     * @see #fetchColumnar() 
+     */
+    public final ColumnarResult fetchColumnar(Map<String,String> query) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("select * from \"").append(tableName).append("\" where ");
+        String[] vals = new String[query.size()];
+        appendWhere(sb, query, vals);
+        return fetchColumnar(sb.toString(), vals);
+    }
+    
+    /**
+     * Fetches rows using a specified SQL query as a read-only {@link ColumnarResult}.
+     * Only result columns that are columns of this table are included, and they are 
+     * typed according to the table's schema.
+     * @param sqlQuery The SQL query
+     * @param params The SQL query params
+     * @return The matching rows.
+     * @throws IOException 
+     * @see #fetchColumnar() 
+     */
+    protected ColumnarResult fetchColumnar(String sqlQuery, String[] params) throws IOException {
+        Cursor c = null;
+        try {
+            c = provider.executeRead(tableName, sqlQuery, params);
+            CursorRowReader reader = new CursorRowReader(c);
+            int len = reader.getColumnCount();
+            List<String> names = new ArrayList<String>(len);
+            List<ColType> types = new ArrayList<ColType>(len);
+            int[] idx = new int[len];
+            for ( int i=0; i<len; i++ ){
+                String name = reader.getColumnName(i);
+                ColType type = colTypes.get(name);
+                if ( type != null && !names.contains(name) ){
+                    idx[names.size()] = i;
+                    names.add(name);
+                    types.add(type);
+                }
+            }
+            ColumnarResult out = new ColumnarResult(
+                    names.toArray(new String[names.size()]), 
+                    types.toArray(new ColType[types.size()])
+            );
+            while ( c.next() ){
+                reader.setRow(c.getRow());
+                out.addRow(reader, idx);
+            }
+            out.trim();
+            hydrated(out.getRowCount());
+            return out;
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+        }
+    }
+    
     /**
      * Fills a map with the data of the current row of database Cursor
      * @param c The database cursor from a query.
@@ -537,10 +1419,58 @@ public abstract class DAO<T> {
             }
     }
     
+    /**
+     * Gets an entity from the cache, or from the provider's second-level {@link RowCache} if
+     * one is set, without querying the database.
+     * @param id The ID of the entity.
+     * @return The entity, or null if it isn't cached.
+     * @throws IOException 
+     * @see #getById(long, boolean) 
+     */
+    private T getCached(long id) throws IOException {
+        //T obj = index.get(id);
+        Wrapper w = cache.get(id);
+        if ( w != null ){
+            T obj = w.getObject();
+            if ( obj != null ){
+                servedFromCache(1);
+                return obj;
+            } else {
+                cache.remove(id);
+            }
+        }
+        RowCache rc = provider.getRowCache();
+        if ( rc != null && hydrateSupported ){
+            ArrayRowReader row = rc.getRow(tableName, id);
+            if ( row != null ){
+                T object = newObject();
+                if ( hydrateObject(object, row) ){
+                    register(id, object);
+                    servedFromCache(1);
+                    return object;
+                }
+                Map m = new HashMap();
+                row.fillMap(m);
+                initObject(id, object, m);
+                servedFromCache(1);
+                return object;
+            }
+        } else if ( rc != null ){
+            Map m = new HashMap();
+            if ( rc.get(tableName, id, m) ){
+                T object = newObject();
+                initObject(id, object, m);
+                servedFromCache(1);
+                return object;
+            }
+        }
+        return null;
+    }
+    
     /**
      * Gets an entity by ID. If the refresh parameter is false, then this will
-     * only check the cache.  If it is true, then this will reload the entity
-     * from the database, and update it's data.
+     * only check the cache (and the provider's second-level {@link RowCache}, if one is set).  
+     * If it is true, then this will reload the entity from the database, and update it's data.
      * @param id The ID of the entity to load.
      * @param refresh True to refresh from the database.  False to just load from cache.
      * @return
@@ -548,25 +1478,51 @@ public abstract class DAO<T> {
      */
     public T getById(long id, boolean refresh) throws IOException {
         if ( !refresh ){
-            //T obj = index.get(id);
             Wrapper w = cache.get(id);
-            if ( w == null ){
-                return null;
-            }
-            T obj = w.getObject();
+            T obj = getCached(id);
             if ( obj != null ){
                 return obj;
-            } else {
-                cache.remove(id);
-                
+            }
+            if ( w == null ){
+                return null;
             }
         }
         Cursor c = null;
+        int start = readStart();
+        int committed = commits;
         try {
-            c = db.executeQuery(selectByIdStatement(), selectByIdArgs(id));
+            c = provider.executeRead(tableName, selectByIdStatement(), selectByIdArgs(id));
             Map m = new HashMap();
             if ( c.next() ){
+                if ( stale(start) ){
+                    hydrated(1);
+                    return loadStale(id, c, committed);
+                }
+                CursorRowReader reader = new CursorRowReader(c);
+                RowCache rc = provider.getRowCache();
+                if ( rc != null && !hasAllColumns(reader) ){
+                    rc = null;
+                }
+                if ( hydrateSupported ){
+                    reader.setRow(c.getRow());
+                    RowReader row = reader;
+                    if ( rc != null ){
+                        Object[] vals = readValues(reader);
+                        rc.put(tableName, id, columnNames(), vals);
+                        row = new ArrayRowReader(columnNames(), vals);
+                    }
+                    T object = newObject();
+                    if ( hydrateObject(object, row) ){
+                        hydrated(1);
+                        register(id, object);
+                        return object;
+                    }
+                }
                 fillMap(c, m);
+                if ( rc != null ){
+                    cacheRow(id, m);
+                }
+                hydrated(1);
                 
                 T object = newObject();
                 Wrapper w = initObject(id, object,  m);
@@ -597,23 +1553,111 @@ public abstract class DAO<T> {
      * @throws IOException 
      */
     protected List<T> fetchAll(String sqlQuery, String[] params) throws IOException{
+        List<T> out = load(sqlQuery, params);
+        loadRelations(out);
+        return out;
+    }
+    
+    /**
+     * Loads entities with an SQL query, without loading their relations.
+     * @param sqlQuery The SQL query
+     * @param params The SQL query params
+     * @return List of entity objects.
+     * @throws IOException 
+     * @see #fetchAll(java.lang.String, java.lang.String[]) 
+     */
+    private List<T> load(String sqlQuery, String[] params) throws IOException{
+        String key = null;
+        Map<String,long[]> qc = queryCache;
+        if ( qc != null ){
+            key = queryKey(sqlQuery, params);
+            long[] ids = qc.get(key);
+            if ( ids != null ){
+                List<T> cached = fromQueryCache(ids);
+                if ( cached != null ){
+                    synchronized ( queryCacheStats ){
+                        queryCacheHits++;
+                    }
+                    return cached;
+                }
+                qc.remove(key);
+            }
+            synchronized ( queryCacheStats ){
+                queryCacheMisses++;
+            }
+        }
         Cursor c = null;
         List<T> out = new ArrayList<T>();
+        List<Long> ids = key == null ? null : new ArrayList<Long>();
+        int start = readStart();
+        int committed = commits;
         try {
-            c = db.executeQuery(sqlQuery, params);
+            c = provider.executeRead(tableName, sqlQuery, params);
+            CursorRowReader reader = new CursorRowReader(c);
+            int idIndex = -1;
+            RowCache rc = provider.getRowCache();
+            if ( rc != null && !hasAllColumns(reader) ){
+                rc = null;
+            }
+            ArrayRowReader cached = null;
+            if ( hydrateSupported ){
+                idIndex = reader.getColumnIndex("id");
+            }
             
             while ( c.next() ){
+                if ( idIndex >= 0 && hydrateSupported ){
+                    reader.setRow(c.getRow());
+                    long id = reader.getLong(idIndex);
+                    if ( stale(start) ){
+                        if ( ids != null ){
+                            ids.add(id);
+                        }
+                        out.add(loadStale(id, c, committed));
+                        continue;
+                    }
+                    RowReader row = reader;
+                    if ( rc != null ){
+                        // The row cache needs a copy of the values anyway, so
+                        // hydrate from the copy rather than reading the cursor twice.
+                        Object[] vals = readValues(reader);
+                        rc.put(tableName, id, columnNames(), vals);
+                        if ( cached == null ){
+                            cached = new ArrayRowReader(columnNames(), vals);
+                        } else {
+                            cached.setValues(vals);
+                        }
+                        row = cached;
+                    }
+                    T object = hydrateRow(id, row);
+                    if ( object != null ){
+                        if ( ids != null ){
+                            ids.add(id);
+                        }
+                        out.add(object);
+                        continue;
+                    }
+                }
                 Map m = new HashMap();
                 fillMap(c, m);
                 Wrapper w = null;
                 if ( m.containsKey("id") ){
                     long id = (Long)m.get("id");
+                    if ( ids != null ){
+                        ids.add(id);
+                    }
+                    if ( stale(start) ){
+                        out.add(loadStale(id, c, committed));
+                        continue;
+                    }
+                    if ( rc != null ){
+                        cacheRow(id, m);
+                    }
                     w = cache.get(id);
                     if ( w != null ){
                         T existing = w.getObject();
                         if ( existing != null ){
                             //w = cache.get(existing);
-                            unmap(existing, m);
+                            unmapRow(existing, m);
                         } else {
                             w = null;
                             cache.remove(id);
@@ -632,56 +1676,439 @@ public abstract class DAO<T> {
                 out.add(w.getObject());
             }
         } finally {
-            if (c != null ){
-                c.close();
+            if (c != null ){
+                c.close();
+            }
+        }
+        hydrated(out.size());
+        if ( ids != null && ids.size() == out.size() && !stale(start) ){
+            long[] idArr = new long[ids.size()];
+            int i = 0;
+            for ( Long id : ids ){
+                idArr[i++] = id;
+            }
+            qc.put(key, idArr);
+        }
+        return out;
+    }
+    
+    /**
+     * Declares a many-to-one relation.  Each row of this table references a row of another 
+     * table by its ID in a foreign key column.  When entities are fetched, the referenced entities
+     * of the whole result set are loaded together, and each is attached to its entity with
+     * {@link #attach}.
+     * @param name The name of the relation, passed to {@link #attach}.
+     * @param column The foreign key column of this table.
+     * @param table The referenced table.  It must have a DAO registered with the provider.
+     * @see #loadRelations(java.util.List) 
+     */
+    public void addManyToOne(String name, String column, String table){
+        addRelation(name, table, column, false);
+    }
+    
+    /**
+     * Declares a one-to-many relation.  The rows of another table reference the rows of this
+     * table by ID in a foreign key column.  When entities are fetched, the referencing entities 
+     * of the whole result set are loaded together, and a List of them is attached to each entity 
+     * with {@link #attach}.
+     * @param name The name of the relation, passed to {@link #attach}.
+     * @param table The referencing table.  It must have a DAO registered with the provider.
+     * @param column The foreign key column of the referencing table.
+     * @see #loadRelations(java.util.List) 
+     */
+    public void addOneToMany(String name, String table, String column){
+        addRelation(name, table, column, true);
+    }
+    
+    private void addRelation(String name, String table, String column, boolean toMany){
+        removeRelation(name);
+        Relation r = new Relation();
+        r.name = name;
+        r.table = table;
+        r.column = column;
+        r.toMany = toMany;
+        relations.add(r);
+    }
+    
+    /**
+     * Removes a relation.
+     * @param name The name of the relation.
+     */
+    public void removeRelation(String name){
+        for ( int i=0; i<relations.size(); i++ ){
+            if ( relations.get(i).name.equals(name) ){
+                relations.remove(i);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Loads the related entities of a set of entities, and attaches them with {@link #attach}.
+     * This runs one query per relation, for up to {@link #MAX_SQL_VARIABLES} entities.  Referenced
+     * entities that are already cached aren't loaded again.  The related entities' own relations 
+     * are not loaded.
+     * 
+     * <p>This is called by {@link #fetchAll(java.lang.String, java.lang.String[])}, and 
+     * hence by all of the fetch methods except {@link #fetchOne(java.util.Map)}.</p>
+     * @param objects The entities.
+     * @throws IOException 
+     */
+    public void loadRelations(List<T> objects) throws IOException {
+        if ( relations.isEmpty() || objects.isEmpty() ){
+            return;
+        }
+        for ( Relation r : relations ){
+            DAO target = provider.get(r.table);
+            if ( target == null ){
+                throw new IOException("No DAO found for table "+r.table+" of relation "+r.name);
+            }
+            if ( r.toMany ){
+                loadOneToMany(r, target, objects);
+            } else {
+                loadManyToOne(r, target, objects);
+            }
+        }
+    }
+    
+    private void loadManyToOne(Relation r, DAO target, List<T> objects) throws IOException {
+        int col = columnIndex(r.column);
+        if ( col < 0 ){
+            throw new IOException("Column "+r.column+" of relation "+r.name+" not found in table "+tableName);
+        }
+        int len = objects.size();
+        Object[] vals = new Object[columnNames().length];
+        Long[] keys = new Long[len];
+        Map<Long,Object> related = new HashMap<Long,Object>();
+        List<Long> missing = new ArrayList<Long>();
+        for ( int i=0; i<len; i++ ){
+            rowValues(objects.get(i), vals);
+            if ( vals[col] == null ){
+                continue;
+            }
+            Long key = NumberUtil.longValue(vals[col]);
+            keys[i] = key;
+            if ( !related.containsKey(key) ){
+                Object o = target.getCached(key);
+                related.put(key, o);
+                if ( o == null ){
+                    missing.add(key);
+                }
+            }
+        }
+        int offset = 0;
+        while ( offset < missing.size() ){
+            int n = Math.min(MAX_SQL_VARIABLES, missing.size() - offset);
+            String[] params = new String[n];
+            for ( int i=0; i<n; i++ ){
+                params[i] = ""+missing.get(offset+i);
+            }
+            for ( Object o : target.load(inQuery(r.table, "id", n), params) ){
+                related.put(target.getId(o), o);
+            }
+            offset += n;
+        }
+        for ( int i=0; i<len; i++ ){
+            attach(objects.get(i), r.name, keys[i] == null ? null : related.get(keys[i]));
+        }
+    }
+    
+    private void loadOneToMany(Relation r, DAO target, List<T> objects) throws IOException {
+        int col = target.columnIndex(r.column);
+        if ( col < 0 ){
+            throw new IOException("Column "+r.column+" of relation "+r.name+" not found in table "+r.table);
+        }
+        Map<Long,List> related = new HashMap<Long,List>();
+        List<Long> keys = new ArrayList<Long>();
+        for ( T object : objects ){
+            Long key = getId(object);
+            if ( !related.containsKey(key) ){
+                related.put(key, new ArrayList());
+                keys.add(key);
+            }
+        }
+        Object[] vals = new Object[target.columnNames().length];
+        int offset = 0;
+        while ( offset < keys.size() ){
+            int n = Math.min(MAX_SQL_VARIABLES, keys.size() - offset);
+            String[] params = new String[n];
+            for ( int i=0; i<n; i++ ){
+                params[i] = ""+keys.get(offset+i);
+            }
+            for ( Object o : target.load(inQuery(r.table, r.column, n), params) ){
+                target.rowValues(o, vals);
+                if ( vals[col] != null ){
+                    List l = related.get(NumberUtil.longValue(vals[col]));
+                    if ( l != null ){
+                        l.add(o);
+                    }
+                }
+            }
+            offset += n;
+        }
+        for ( T object : objects ){
+            attach(object, r.name, related.get(getId(object)));
+        }
+    }
+    
+    /**
+     * Builds a query for the rows of a table whose column value is one of a set of params.
+     * @param table The table name.
+     * @param column The column name.
+     * @param params The number of params.
+     * @return 
+     */
+    private static String inQuery(String table, String column, int params){
+        StringBuilder sb = new StringBuilder();
+        sb.append("select * from \"").append(table).append("\" where \"").append(column).append("\" in (");
+        for ( int i=0; i<params; i++ ){
+            sb.append("?,");
+        }
+        sb.setCharAt(sb.length()-1, ')');
+        return sb.toString();
+    }
+    
+    /**
+     * Attaches the related entities of a relation to an entity.  The default implementation 
+     * puts them into entities that are Maps (e.g. those of the generic DAO), with the relation 
+     * name as the key, and ignores other entities.  DAOs with custom entity classes should 
+     * override this to set the corresponding field.
+     * 
+     * <p>Related entities are loaded in bulk, so entities shouldn't resolve foreign keys one by 
+     * one with {@link #getById(long, boolean)} in {@link #unmap}.</p>
+     * @param obj The entity.
+     * @param relation The name of the relation.
+     * @param value The referenced entity (or null) for a many-to-one relation, or the List 
+     * of referencing entities for a one-to-many relation.
+     * @see #addManyToOne(java.lang.String, java.lang.String, java.lang.String) 
+     * @see #addOneToMany(java.lang.String, java.lang.String, java.lang.String) 
+     */
+    protected void attach(T obj, String relation, Object value){
+        if ( obj instanceof Map ){
+            ((Map)obj).put(relation, value);
+        }
+    }
+    
+    /**
+     * Inserts an entity into the database.  This will fail if the entity is already
+     * inserted.
+     * @param object The entity object to insert.
+     * @throws IOException 
+     * @see #save
+     * @see #update
+     */
+    public void insert(T object) throws IOException {
+        long id = getId(object);
+        Wrapper w = cache.get(id);
+        if ( w != null ){
+            throw new IOException("Cannot insert this object because it is already inserted");
+        }
+        w = new Wrapper();
+        w.setObject(object);
+        Object[] vals = new Object[columnNames().length];
+        Map m = rowValues(object, vals);
+        //Log.p("Just set object "+object+" so we have "+w.getObject());
+
+        // Hold the write lock until the ID is read, so that another thread's insert 
+        // can't change last_insert_rowid() in between.
+        provider.lockWrites();
+        Cursor c = null;
+        try {
+            provider.execute(tableName, insertStatement(vals), insertArgs(vals));
+            c = provider.executeQuery(tableName, "select last_insert_rowid()", null);
+            if ( c.next() ){
+                id = c.getRow().getLong(0);
+                assignId(object, m, id);
+                //index.put(w.id, object);
+                cache.put(id, w);
+                rowWritten(DAOChangeEvent.Type.INSERT, id);
+                w.dirty.clear();
+                w.dirtyFlag = false;
+
+
+            } else {
+                throw new IOException("Failed to get the insert ID");
+            }
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+            provider.unlockWrites();
+        }
+            
+    }
+    
+    /**
+     * Inserts a list of new entities into the database.  This is much faster than 
+     * calling {@link #insert} for each entity, as rows are inserted with multi-row 
+     * <code>INSERT ... VALUES (...),(...)</code> statements inside a single transaction,
+     * and the IDs of the new rows are inferred from the rowid range of each statement 
+     * rather than queried one at a time.  
+     * 
+     * <p>Entities that already have an ID are inserted individually with {@link #insert}.
+     * The inserted entities are assigned their IDs via {@link #unmap}, and are added to the 
+     * cache.</p>
+     * @param objects The entity objects to insert.
+     * @throws IOException If any of the entities is already inserted, or an insert fails.
+     * In the latter case, none of the entities are inserted.
+     */
+    public void insertAll(List<T> objects) throws IOException {
+        if ( objects.isEmpty() ){
+            return;
+        }
+        String[] columns = columnNames();
+        int idIndex = columnIndex("id");
+        int numCols = idIndex < 0 ? columns.length : columns.length-1;
+        int[] cols = new int[numCols];
+        int n = 0;
+        for ( int i=0; i<columns.length; i++ ){
+            if ( i != idIndex ){
+                cols[n++] = i;
+            }
+        }
+        int rowsPerStatement = numCols == 0 ? 1 : Math.max(1, MAX_SQL_VARIABLES / numCols);
+        List<T> batch = new ArrayList<T>(Math.min(rowsPerStatement, objects.size()));
+        List<Object[]> batchRows = new ArrayList<Object[]>(Math.min(rowsPerStatement, objects.size()));
+        List<Map> batchMaps = new ArrayList<Map>(Math.min(rowsPerStatement, objects.size()));
+        List<Long> inserted = new ArrayList<Long>(objects.size());
+        provider.beginTransaction();
+        try {
+            for ( T object : objects ){
+                long id = getId(object);
+                if ( cache.get(id) != null ){
+                    throw new IOException("Cannot insert this object because it is already inserted");
+                }
+                Object[] vals = new Object[columns.length];
+                Map m = rowValues(object, vals);
+                if ( numCols == 0 || insertsId(vals) ){
+                    insert(object);
+                    inserted.add(getId(object));
+                    continue;
+                }
+                batch.add(object);
+                batchRows.add(vals);
+                batchMaps.add(m);
+                if ( batch.size() == rowsPerStatement ){
+                    insertBatch(cols, batch, batchRows, batchMaps, inserted);
+                }
+            }
+            if ( !batch.isEmpty() ){
+                insertBatch(cols, batch, batchRows, batchMaps, inserted);
+            }
+            provider.commitTransaction();
+        } catch ( IOException ex ){
+            rollbackInsertAll(inserted);
+            throw ex;
+        } catch ( RuntimeException ex ){
+            rollbackInsertAll(inserted);
+            throw ex;
+        }
+    }
+    
+    /**
+     * Rolls back a failed {@link #insertAll} and evicts the entities that had
+     * already been added to the cache.
+     * @param inserted The IDs of the entities that had been inserted.
+     * @throws IOException 
+     */
+    private void rollbackInsertAll(List<Long> inserted) throws IOException {
+        try {
+            provider.rollbackTransaction();
+        } finally {
+            for ( Long id : inserted ){
+                evict(id);
             }
         }
-        return out;
     }
     
     /**
-     * Inserts an entity into the database.  This will fail if the entity is already
-     * inserted.
-     * @param object The entity object to insert.
+     * Inserts a batch of new entities with a single multi-row insert statement, and 
+     * assigns their IDs.  The batch lists are cleared afterwards.
+     * @param cols The indexes (in {@link #columnNames()}) of the columns to insert.  
+     * Does not include the id column.
+     * @param batch The entities to insert.
+     * @param batchRows The values of the entities, in the order of {@link #columnNames()}.
+     * @param batchMaps The Maps returned by {@link #rowValues} for the entities.
+     * @param inserted List to which the IDs of the inserted rows are added.
      * @throws IOException 
-     * @see #save
-     * @see #update
      */
-    public void insert(T object) throws IOException {
-        long id = getId(object);
-        Wrapper w = cache.get(id);
-        if ( w != null ){
-            throw new IOException("Cannot insert this object because it is already inserted");
+    private void insertBatch(int[] cols, List<T> batch, List<Object[]> batchRows, List<Map> batchMaps, List<Long> inserted) throws IOException {
+        int n = batch.size();
+        int numCols = cols.length;
+        String[] columns = columnNames();
+        String[] names = new String[numCols];
+        for ( int i=0; i<numCols; i++ ){
+            names[i] = columns[cols[i]];
         }
-        w = new Wrapper();
-        w.setObject(object);
-        Map m = new HashMap();
-        map(object, m);
-        //Log.p("Just set object "+object+" so we have "+w.getObject());
-
-        db.execute(insertStatement(m), insertArgs(m));
+        Object[] args = new Object[n * numCols];
+        int a = 0;
+        for ( Object[] vals : batchRows ){
+            for ( int col : cols ){
+                args[a++] = bindValue(vals[col]);
+            }
+        }
+        provider.execute(tableName, insertRowsStatement("INSERT", names, n), args);
+        
+        // A single insert statement assigns consecutive rowids to its rows, so the
+        // IDs can be inferred from the last one.
+        long lastId;
         Cursor c = null;
         try {
-            c = db.executeQuery("select last_insert_rowid()");
-            if ( c.next() ){
-                id = c.getRow().getLong(0);
-                m.put("id", id);
-                unmap(object, m);
-                //index.put(w.id, object);
-                cache.put(id, w);
-                w.dirty.clear();
-                w.dirtyFlag = false;
-
-
-            } else {
+            c = provider.executeQuery(tableName, "select last_insert_rowid(), changes()", null);
+            if ( !c.next() ){
                 throw new IOException("Failed to get the insert ID");
             }
+            Row row = c.getRow();
+            lastId = row.getLong(0);
+            if ( row.getInteger(1) != n ){
+                throw new IOException("Expected "+n+" rows to be inserted, but "+row.getInteger(1)+" were inserted");
+            }
         } finally {
             if ( c != null ){
                 c.close();
             }
         }
-            
+        long id = lastId - n + 1;
+        for ( int i=0; i<n; i++ ){
+            T object = batch.get(i);
+            assignId(object, batchMaps.get(i), id);
+            Wrapper w = new Wrapper();
+            w.setObject(object);
+            cache.put(id, w);
+            inserted.add(id);
+            rowWritten(DAOChangeEvent.Type.INSERT, id);
+            id++;
+        }
+        batch.clear();
+        batchRows.clear();
+        batchMaps.clear();
+    }
+    
+    /**
+     * Builds a multi-row insert statement for this table.
+     * @param verb The statement verb.  E.g. "INSERT" or "INSERT OR REPLACE".
+     * @param columns The names of the columns to insert.
+     * @param rows The number of rows to insert.
+     * @return 
+     */
+    String insertRowsStatement(String verb, String[] columns, int rows){
+        StringBuilder sb = new StringBuilder();
+        sb.append(verb).append(" INTO \"").append(tableName).append("\" (");
+        for ( String col : columns ){
+            sb.append("\"").append(col).append("\",");
+        }
+        sb.setCharAt(sb.length()-1, ')');
+        sb.append(" VALUES ");
+        for ( int i=0; i<rows; i++ ){
+            sb.append("(");
+            for ( int j=0; j<columns.length; j++ ){
+                sb.append("?,");
+            }
+            sb.setCharAt(sb.length()-1, ')');
+            sb.append(",");
+        }
+        sb.deleteCharAt(sb.length()-1);
+        return sb.toString();
     }
     
     /**
@@ -696,9 +2123,10 @@ public abstract class DAO<T> {
         if ( w == null ){
             throw new IOException("Cannot update this record because it hasn't been loaded yet.");
         } 
-        Map m = new HashMap();
-        map(object, m);
-        db.execute(updateStatement(w), updateArgs(w, m));
+        Object[] vals = new Object[columnNames().length];
+        rowValues(object, vals);
+        provider.execute(tableName, updateStatement(w), updateArgs(w, vals));
+        rowWritten(DAOChangeEvent.Type.UPDATE, id);
         w.dirty.clear();
         w.dirtyFlag = false;
     }
@@ -716,7 +2144,9 @@ public abstract class DAO<T> {
         long id = getId(object);
         Wrapper w = cache.get(id);
         if ( w == null ){
-            getById(id, true);
+            if ( getById(id, false) == null ){
+                getById(id, true);
+            }
             w = cache.get(id);
             if ( w == null ){
                 insert(object);
@@ -729,25 +2159,173 @@ public abstract class DAO<T> {
         }
     }
     
-    /*
-    public void removeFromCache(T object){
-        Wrapper w = cache.get(object);
-        index.remove(w.id);
-        cache.remove(object);
-        if ( object instanceof Observable  ){
-            ((Observable)object).deleteObserver(w);
+    /**
+     * Deletes an entity from the database, and removes it from the cache.
+     * @param object The entity to delete.
+     * @throws IOException 
+     */
+    public void delete(T object) throws IOException {
+        deleteById(getId(object));
+    }
+    
+    /**
+     * Deletes the rows with the given IDs from the database, and removes the 
+     * corresponding entities from the cache.  Large sets of IDs are deleted in chunks
+     * inside a single transaction.
+     * @param ids The IDs of the rows to delete.
+     * @throws IOException 
+     */
+    public void deleteById(long... ids) throws IOException {
+        if ( ids.length == 0 ){
+            return;
+        }
+        provider.beginTransaction();
+        try {
+            int offset = 0;
+            while ( offset < ids.length ){
+                int len = Math.min(MAX_SQL_VARIABLES, ids.length - offset);
+                StringBuilder sb = new StringBuilder();
+                sb.append("DELETE FROM \"").append(tableName).append("\" WHERE id IN (");
+                Object[] args = new Object[len];
+                for ( int i=0; i<len; i++ ){
+                    sb.append("?,");
+                    args[i] = ""+ids[offset+i];
+                }
+                sb.setCharAt(sb.length()-1, ')');
+                provider.execute(tableName, sb.toString(), args);
+                for ( int i=0; i<len; i++ ){
+                    rowDeleted(ids[offset+i]);
+                }
+                offset += len;
+            }
+            provider.commitTransaction();
+        } catch ( IOException ex ){
+            provider.rollbackTransaction();
+            throw ex;
+        } catch ( RuntimeException ex ){
+            provider.rollbackTransaction();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Deletes all rows of the underlying table that match a given query, and removes the
+     * corresponding entities from the cache.
+     * @param query A field=>value mapping that constitutes a query.
+     * @return The number of rows deleted.
+     * @throws IOException 
+     */
+    public int deleteWhere(Map<String,String> query) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("select id from \"").append(tableName).append("\" where ");
+        String[] vals = new String[query.size()];
+        appendWhere(sb, query, vals);
+        long[] ids = selectIds(sb.toString(), vals);
+        deleteById(ids);
+        return ids.length;
+    }
+    
+    /**
+     * Deletes all rows of the underlying table that match a given query.  This is 
+     * a wrapper for {@link #deleteWhere(java.util.Map)} that uses a String[] array to
+     * pass the query instead of a Map.
+     * @param query Query parameters.  Odd indices contain column names, Even indices contain column values.
+     * @return The number of rows deleted.
+     * @throws IOException 
+     */
+    public final int deleteWhere(String[] query) throws IOException {
+        Map<String,String> q = new HashMap<String,String>();
+        for ( int i=0; i<query.length; i+=2){
+            q.put(query[i], query[i+1]);
+        }
+        return deleteWhere(q);
+    }
+    
+    /**
+     * Runs a query whose first column is a row ID, and returns the IDs.
+     * @param sqlQuery The SQL query.
+     * @param params The SQL query params.
+     * @return The IDs.
+     * @throws IOException 
+     */
+    long[] selectIds(String sqlQuery, String[] params) throws IOException {
+        Cursor c = null;
+        long[] ids = new long[16];
+        int len = 0;
+        try {
+            c = provider.executeQuery(tableName, sqlQuery, params);
+            while ( c.next() ){
+                if ( len == ids.length ){
+                    long[] tmp = new long[len * 2];
+                    System.arraycopy(ids, 0, tmp, 0, len);
+                    ids = tmp;
+                }
+                ids[len++] = c.getRow().getLong(0);
+            }
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+        }
+        long[] out = new long[len];
+        System.arraycopy(ids, 0, out, 0, len);
+        return out;
+    }
+    
+    /**
+     * Updates the caches and records a change event after a row has been deleted.
+     * @param id The ID of the deleted row.
+     */
+    void rowDeleted(long id){
+        evict(id);
+        rowWritten(DAOChangeEvent.Type.DELETE, id);
+    }
+    
+    /**
+     * Updates the caches and records a change event after a row has been restored
+     * from a snapshot.
+     * @param id The ID of the restored row.
+     */
+    void rowRestored(long id){
+        evict(id);
+        rowWritten(DAOChangeEvent.Type.INSERT, id);
+    }
+    
+    /**
+     * Removes the entity with the given ID from the cache, and stops observing it.
+     * @param id The ID of the entity.
+     */
+    private void evict(long id){
+        Wrapper w = cache.remove(id);
+        if ( w != null ){
+            Object o = w.getObject();
+            if ( o instanceof Observable ){
+                ((Observable)o).deleteObserver(w);
+            }
         }
     }
-    */
     
-    /*
+    /**
+     * Removes an entity from the cache.  The entity is not deleted from the database, 
+     * but subsequent fetches will produce a new entity object for its row.
+     * @param object The entity to remove from the cache.
+     */
+    public void removeFromCache(T object){
+        evict(getId(object));
+    }
+    
+    /**
+     * Removes all entities from the cache.
+     */
     public void clearCache(){
-        List<T> o = new ArrayList<T>();
-        o.addAll(cache.keySet());
-        for ( T t : o ){
-            removeFromCache(t);
+        List<Long> ids;
+        synchronized ( cache ){
+            ids = new ArrayList<Long>(cache.keySet());
         }
-    }*/
+        for ( Long id : ids ){
+            evict(id);
+        }
+    }
     
     /**
      * Checks to see if the entity object is dirty and should be saved.
@@ -788,6 +2366,199 @@ public abstract class DAO<T> {
      */
     public abstract void map(T obj, Map values);
     
+    /**
+     * Copies the values of a row directly into an entity object, without going through a Map.  
+     * DAOs may override this as a faster alternative to {@link #unmap} when entities are 
+     * loaded from the database.  The default implementation returns false, in which case
+     * the row is decoded into a Map and passed to {@link #unmap} instead.  
+     * 
+     * <p>DAOs generated by the data-access-processor annotation processor implement this.</p>
+     * @param obj The entity object to which the values should be copied.
+     * @param row The row.  Columns should be located with {@link RowReader#ordinals(java.lang.String[])}.
+     * @return True if the values were copied.  False if this DAO doesn't support hydration, 
+     * in which case {@link #unmap} will be used for this and all subsequent rows.
+     * @throws IOException 
+     */
+    protected boolean hydrate(T obj, RowReader row) throws IOException {
+        return false;
+    }
+    
+    /**
+     * Copies the values of an entity object directly into an array of statement values, 
+     * without going through a Map.  DAOs may override this as a faster alternative to 
+     * {@link #map} when entities are inserted or updated.  The default implementation 
+     * returns false, in which case {@link #map} is used instead.
+     * @param obj The entity object from which the values should be copied.
+     * @param columns The column names of the table.  The same array is passed on each call.
+     * @param values Array to receive the values.  values[i] is the value for the column columns[i].
+     * @return True if the values were copied.  False if this DAO doesn't support binding,
+     * in which case {@link #map} will be used for this and all subsequent entities.
+     */
+    protected boolean bind(T obj, String[] columns, Object[] values){
+        return false;
+    }
+    
+    /**
+     * Sets the ID of an entity object after it has been inserted.  This is only used 
+     * when the entity's values were obtained with {@link #bind}.  The default implementation 
+     * uses {@link #map} and {@link #unmap}.
+     * @param obj The entity object.
+     * @param id The ID.
+     */
+    protected void setId(T obj, long id){
+        Map m = new HashMap();
+        map(obj, m);
+        m.put("id", id);
+        unmap(obj, m);
+    }
+    
+    /**
+     * Gets the index of each of a set of names in an array of column names.  This is
+     * a helper for implementations of {@link #hydrate} and {@link #bind}.
+     * @param columns The column names.
+     * @param names The names to look for.
+     * @return Array with the index in columns of each of the names, or -1 for names
+     * that aren't found.
+     */
+    protected static int[] columnIndexes(String[] columns, String[] names){
+        int[] out = new int[names.length];
+        for ( int i=0; i<names.length; i++ ){
+            out[i] = -1;
+            for ( int j=0; j<columns.length; j++ ){
+                if ( names[i].equals(columns[j]) ){
+                    out[i] = j;
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+    
+    /**
+     * Gets the write count at the start of a load, to be checked with {@link #stale(int)}.  If 
+     * the load may not see another thread's open transaction (because it runs on a reader 
+     * connection), it is considered stale from the start.
+     * @return 
+     */
+    private int readStart(){
+        int w = writes;
+        return provider.readerMayBeStale() ? w - 1 : w;
+    }
+    
+    /**
+     * Checks whether rows of this table may have been written since a load started, in which 
+     * case the loaded rows may be older than the cached entities and caches, and must not 
+     * replace them.
+     * @param start The value returned by {@link #readStart()}.
+     * @return 
+     */
+    private boolean stale(int start){
+        return writes != start;
+    }
+    
+    /**
+     * Loads the current row of a cursor that may be older than the cached data.  If the 
+     * entity is cached, it is returned as is.  Otherwise a new entity is loaded from the row.
+     * It is cached if the row is known to be current, i.e. no writes to this table have been
+     * committed since the load started, and the row hasn't been written in another thread's 
+     * open transaction.  Otherwise it isn't cached, so it won't be the same object as
+     * entities of the row loaded later.
+     * @param id The ID of the row.
+     * @param c The cursor.
+     * @param committed The value of {@link #commits} when the load started.
+     * @return The entity.
+     * @throws IOException 
+     */
+    private T loadStale(long id, Cursor c, int committed) throws IOException {
+        Wrapper w = cache.get(id);
+        T object = w == null ? null : w.getObject();
+        if ( object != null ){
+            return object;
+        }
+        object = newObject();
+        boolean hydrated = false;
+        if ( hydrateSupported ){
+            CursorRowReader reader = new CursorRowReader(c);
+            reader.setRow(c.getRow());
+            hydrated = hydrateObject(object, reader);
+        }
+        if ( !hydrated ){
+            Map m = new HashMap();
+            fillMap(c, m);
+            unmapRow(object, m);
+        }
+        synchronized ( transactionWrites ){
+            if ( commits != committed || transactionBulkWrite || transactionWrites.contains(id) ){
+                return object;
+            }
+            w = cache.get(id);
+            T existing = w == null ? null : w.getObject();
+            if ( existing != null ){
+                return existing;
+            }
+            register(id, object);
+        }
+        return object;
+    }
+    
+    /**
+     * Loads a row into the cached entity object with the given ID, or a new entity 
+     * object, using {@link #hydrate}.
+     * @param id The ID of the row.
+     * @param row The row.
+     * @return The entity object, or null if this DAO doesn't support hydration.
+     * @throws IOException 
+     */
+    private T hydrateRow(long id, RowReader row) throws IOException {
+        Wrapper w = cache.get(id);
+        T object = w == null ? null : w.getObject();
+        if ( object != null ){
+            return hydrateObject(object, row) ? object : null;
+        }
+        object = newObject();
+        if ( !hydrateObject(object, row) ){
+            return null;
+        }
+        register(id, object);
+        return object;
+    }
+    
+    /**
+     * Calls {@link #hydrate}, and reports the time taken to the provider's metrics.
+     * @param object The entity object.
+     * @param row The row.
+     * @return The result of {@link #hydrate}.
+     * @throws IOException 
+     */
+    private boolean hydrateObject(T object, RowReader row) throws IOException {
+        DAOMetrics metrics = provider.getMetrics();
+        long start = metrics == null ? 0 : metrics.now();
+        if ( !hydrate(object, row) ){
+            hydrateSupported = false;
+            return false;
+        }
+        if ( metrics != null ){
+            metrics.unmapped(tableName, metrics.now() - start);
+        }
+        return true;
+    }
+    
+    /**
+     * Adds a freshly loaded entity object to the cache.
+     * @param id The ID of the object.
+     * @param object The entity object.
+     * @return The resulting wrapper.
+     */
+    private Wrapper register(long id, T object){
+        Wrapper w = new Wrapper();
+        w.setObject(object);
+        if ( object instanceof Observable ){
+            ((Observable)object).addObserver(w);
+        }
+        cache.put(id, w);
+        return w;
+    }
+    
     /**
      * Initializes a wrapper object with the given id, entity object, and values.
      * @param id The ID of the object.
@@ -802,7 +2573,7 @@ public abstract class DAO<T> {
         if ( object instanceof Observable ){
             ((Observable)object).addObserver(w);
         }
-        unmap(object, m);
+        unmapRow(object, m);
         w.dirty.clear();
         w.dirtyFlag = false;
         //index.put(id, object);
@@ -810,6 +2581,45 @@ public abstract class DAO<T> {
         return w;
     }
     
+    /**
+     * Copies values from a decoded row into an entity object with {@link #unmap}, 
+     * and reports the time taken to the provider's metrics.
+     * @param object The entity object.
+     * @param m The decoded row.
+     */
+    private void unmapRow(T object, Map m){
+        DAOMetrics metrics = provider.getMetrics();
+        if ( metrics == null ){
+            unmap(object, m);
+        } else {
+            long start = metrics.now();
+            unmap(object, m);
+            metrics.unmapped(tableName, metrics.now() - start);
+        }
+    }
+    
+    /**
+     * Reports rows decoded from the database to the provider's metrics.
+     * @param rows The number of rows.
+     */
+    private void hydrated(int rows){
+        DAOMetrics metrics = provider.getMetrics();
+        if ( metrics != null && rows > 0 ){
+            metrics.rowsHydrated(tableName, rows);
+        }
+    }
+    
+    /**
+     * Reports entities served from cache to the provider's metrics.
+     * @param rows The number of entities.
+     */
+    private void servedFromCache(int rows){
+        DAOMetrics metrics = provider.getMetrics();
+        if ( metrics != null ){
+            metrics.rowsFromCache(tableName, rows);
+        }
+    }
+    
     /**
      * Updates the dirty flag of the given entity object.
      * @param object The entity object to apply the flag to.
@@ -900,5 +2710,79 @@ public abstract class DAO<T> {
         importJSON(is, selector, null);
     }
     
+    /**
+     * Exports the rows of this table that match a query as a JSON array of objects.
+     * @param os The stream to write the JSON to.
+     * @param query A field=>value mapping that the exported rows must match, or null to export all rows.
+     * @return The number of rows exported.
+     * @throws IOException 
+     * @see Exporter
+     */
+    public final int exportJSON(OutputStream os, Map<String,String> query) throws IOException {
+        return new Exporter<T>(this).exportJSON(os, query);
+    }
+    
+    public final int exportJSON(OutputStream os) throws IOException {
+        return exportJSON(os, null);
+    }
+    
+    /**
+     * Exports the rows of this table that match a query as newline-delimited JSON.
+     * @param os The stream to write the NDJSON to.
+     * @param query A field=>value mapping that the exported rows must match, or null to export all rows.
+     * @return The number of rows exported.
+     * @throws IOException 
+     * @see Exporter
+     */
+    public final int exportNDJSON(OutputStream os, Map<String,String> query) throws IOException {
+        return new Exporter<T>(this).exportNDJSON(os, query);
+    }
+    
+    public final int exportNDJSON(OutputStream os) throws IOException {
+        return exportNDJSON(os, null);
+    }
+    
+    /**
+     * Writes a binary snapshot of this table.
+     * @param os The stream to write the snapshot to.
+     * @return The number of rows written.
+     * @throws IOException 
+     * @see SnapshotWriter
+     */
+    public final int exportSnapshot(OutputStream os) throws IOException {
+        return new SnapshotWriter(this).write(os);
+    }
+    
+    /**
+     * Restores a binary snapshot that was written by {@link #exportSnapshot(java.io.OutputStream)}.
+     * Rows with the same ID as a row in the snapshot are replaced.  The snapshot must have been 
+     * written from this table.
+     * @param is The stream to read the snapshot from.
+     * @return The number of rows restored.
+     * @throws IOException If the snapshot is malformed, or is of another table.
+     * @see SnapshotReader
+     */
+    public final int restoreSnapshot(InputStream is) throws IOException {
+        return new SnapshotReader(this).read(is);
+    }
+    
+    public final void importCSV(InputStream is, Map columnMap, String[] keyCols) throws IOException{
+        Importer<T> i = new Importer<T>(this, keyCols, columnMap );
+        i.importCSV(is);
+    }
+    
+    public final void importCSV(InputStream is) throws IOException{
+        importCSV(is, null, null);
+    }
+    
+    public final void importNDJSON(InputStream is, Map columnMap, String[] keyCols) throws IOException{
+        Importer<T> i = new Importer<T>(this, keyCols, columnMap );
+        i.importNDJSON(is);
+    }
+    
+    public final void importNDJSON(InputStream is) throws IOException{
+        importNDJSON(is, null, null);
+    }
+    
     
 }
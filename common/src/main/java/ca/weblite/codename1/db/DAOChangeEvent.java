@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An event describing a set of changes made to a single table through a {@link DAO}.  
+ * Changes are coalesced, so a single event may describe many inserted, updated and
+ * deleted rows.  E.g. importing 10000 rows with an {@link Importer} will produce a single
+ * event containing the IDs of all of the imported rows.
+ * 
+ * @see DAO#addChangeListener(ca.weblite.codename1.db.DAOChangeListener) 
+ */
+public class DAOChangeEvent {
+    
+    /**
+     * The type of a single row change.
+     */
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+    
+    private final DAO source;
+    private final Set<Long> inserted = new HashSet<Long>();
+    private final Set<Long> updated = new HashSet<Long>();
+    private final Set<Long> deleted = new HashSet<Long>();
+    
+    /**
+     * Creates a new empty change event.
+     * @param source The DAO whose table was changed.
+     */
+    DAOChangeEvent(DAO source){
+        this.source = source;
+    }
+    
+    /**
+     * Merges a single row change into this event.  
+     * @param type The type of change.
+     * @param id The ID of the row that was changed.
+     */
+    void add(Type type, long id){
+        switch ( type ){
+            case INSERT:
+                if ( deleted.remove(id) ){
+                    updated.add(id);
+                } else {
+                    inserted.add(id);
+                }
+                break;
+            case UPDATE:
+                if ( !inserted.contains(id) ){
+                    updated.add(id);
+                }
+                break;
+            case DELETE:
+                updated.remove(id);
+                if ( !inserted.remove(id) ){
+                    deleted.add(id);
+                }
+                break;
+            default:
+        }
+    }
+    
+    /**
+     * Merges the changes of another event into this event, as if they were made after 
+     * the changes of this event.
+     * @param evt The event to merge.
+     */
+    void addAll(DAOChangeEvent evt){
+        for ( Long id : evt.inserted ){
+            add(Type.INSERT, id);
+        }
+        for ( Long id : evt.updated ){
+            add(Type.UPDATE, id);
+        }
+        for ( Long id : evt.deleted ){
+            add(Type.DELETE, id);
+        }
+    }
+    
+    /**
+     * Gets the DAO whose table was changed.
+     * @return 
+     */
+    public DAO getSource(){
+        return source;
+    }
+    
+    /**
+     * Gets the name of the table that was changed.
+     * @return 
+     */
+    public String getTableName(){
+        return source.getTableName();
+    }
+    
+    /**
+     * Gets the IDs of rows that were inserted.
+     * @return 
+     */
+    public Set<Long> getInsertedIds(){
+        return Collections.unmodifiableSet(inserted);
+    }
+    
+    /**
+     * Gets the IDs of rows that were updated.
+     * @return 
+     */
+    public Set<Long> getUpdatedIds(){
+        return Collections.unmodifiableSet(updated);
+    }
+    
+    /**
+     * Gets the IDs of rows that were deleted.
+     * @return 
+     */
+    public Set<Long> getDeletedIds(){
+        return Collections.unmodifiableSet(deleted);
+    }
+    
+    /**
+     * Checks whether this event contains any changes.
+     * @return 
+     */
+    public boolean isEmpty(){
+        return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "DAOChangeEvent{table="+getTableName()+", inserted="+inserted.size()
+                +", updated="+updated.size()+", deleted="+deleted.size()+"}";
+    }
+}
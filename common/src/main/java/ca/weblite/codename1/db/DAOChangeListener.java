@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+/**
+ * Listener that is notified of changes made to a table through a {@link DAO}.
+ * @see DAO#addChangeListener(ca.weblite.codename1.db.DAOChangeListener) 
+ */
+public interface DAOChangeListener {
+    
+    /**
+     * Called after rows of the table have been inserted, updated or deleted.  If a 
+     * Codename One Display is running, this is called on the EDT.
+     * @param evt The coalesced set of changes.
+     */
+    public void tableChanged(DAOChangeEvent evt);
+}
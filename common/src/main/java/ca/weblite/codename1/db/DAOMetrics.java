@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+/**
+ * Instrumentation interface for recording the activity of the DAOs in a {@link DAOProvider}.
+ * Set an implementation with {@link DAOProvider#setMetrics(ca.weblite.codename1.db.DAOMetrics)}.
+ * 
+ * <p>Methods of this interface are called on the thread that performs the database operation,
+ * and may be called very frequently, so implementations should be cheap and thread-safe. 
+ * {@link SimpleDAOMetrics} is a default implementation that keeps counters and latency 
+ * histograms in memory.</p>
+ * 
+ * <p>Durations are differences between values returned by {@link #now()}, so their unit is 
+ * defined by the implementation.</p>
+ */
+public interface DAOMetrics {
+    
+    /**
+     * Gets the current time, used to measure durations.
+     * @return The current time in the implementation's time unit.
+     */
+    public long now();
+    
+    /**
+     * Called after an SQL statement issued by a DAO has completed.  For queries, this is called
+     * when the cursor is closed, so the elapsed time includes reading the rows.
+     * @param table The table of the DAO that issued the statement.
+     * @param sql The SQL of the statement, with ? placeholders for the params.  This 
+     * identifies the shape of the statement.
+     * @param rows The number of rows read by a query, or -1 for statements that are not queries.
+     * @param elapsed The time taken by the statement.
+     */
+    public void statementExecuted(String table, String sql, int rows, long elapsed);
+    
+    /**
+     * Called when rows have been decoded from the database into entity objects.
+     * @param table The table name.
+     * @param rows The number of rows.
+     */
+    public void rowsHydrated(String table, int rows);
+    
+    /**
+     * Called when entity objects have been served from a cache without decoding rows
+     * from the database.
+     * @param table The table name.
+     * @param rows The number of entities.
+     */
+    public void rowsFromCache(String table, int rows);
+    
+    /**
+     * Called after {@link DAO#unmap} has copied a row into an entity object.
+     * @param table The table name.
+     * @param elapsed The time taken by unmap.
+     */
+    public void unmapped(String table, long elapsed);
+    
+    /**
+     * Called after an {@link Importer} has imported a set of rows.
+     * @param table The table name.
+     * @param rows The number of rows imported.
+     * @param elapsed The time taken by the import.
+     */
+    public void imported(String table, int rows, long elapsed);
+    
+    /**
+     * Called after the schema of a table has been loaded.
+     * @param table The table name.
+     * @param elapsed The time taken to load the schema.
+     */
+    public void schemaLoaded(String table, long elapsed);
+}
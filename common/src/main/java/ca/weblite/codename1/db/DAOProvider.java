@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +70,81 @@ public class DAOProvider {
      */
     private final String configFile;
     
+    /**
+     * Optional second-level cache of decoded rows.  Null if no second-level
+     * cache is used.
+     */
+    private RowCache rowCache;
+    
+    /**
+     * Optional metrics recorder.  Null if metrics are disabled.
+     */
+    private DAOMetrics metrics;
+    
+    /**
+     * Optional slow query log.  Null if slow queries are not logged.
+     */
+    private SlowQueryLog slowQueryLog;
+    
+    /**
+     * The tuning profile set with {@link #setProfile}.  Null if none has been set.
+     */
+    private TuningProfile profile;
+    
+    /**
+     * Read-only connections to the database, which queries are routed to when they
+     * don't need to see an open transaction.
+     * @see #addReader(com.codename1.db.Database) 
+     */
+    private Database[] readers = new Database[0];
+    
+    /**
+     * The number of open cursors of each reader.
+     */
+    private int[] readerCursors = new int[0];
+    
+    /**
+     * The thread that opened the current transaction.  Null if no transaction is open.
+     */
+    private Thread transactionThread;
+    
+    /**
+     * The thread that holds the write lock.  Null if no thread holds it.
+     * @see #lockWrites() 
+     */
+    private Thread writeThread;
+    
+    /**
+     * The nesting depth of {@link #lockWrites()} calls of the thread that holds the write lock.
+     */
+    private int writeDepth = 0;
+    
+    /**
+     * The nesting depth of {@link #beginBatch()} calls.
+     */
+    private int batchDepth = 0;
+    
+    /**
+     * The nesting depth of {@link #beginTransaction()} calls.
+     */
+    private int transactionDepth = 0;
+    
+    /**
+     * Flag to indicate that a nested transaction was rolled back, so the outermost
+     * transaction must be rolled back too.
+     */
+    private boolean rollbackOnly = false;
+    
+    /**
+     * DAOs with change events waiting for the current batch to end.
+     */
+    private final List<DAO> pendingChanges = new ArrayList<DAO>();
+    
+    /**
+     * DAOs that have written rows in the current transaction.
+     */
+    private final List<DAO> transactionWriters = new ArrayList<DAO>();
+    
     /**
      * Sets the schema version of this DAOProvider.
      * @param version 
@@ -245,6 +321,15 @@ public class DAOProvider {
      * @throws IOException 
      */
     void loadSchema(String tableName, DAO dao) throws IOException{
+        DAOMetrics m = metrics;
+        long start = m == null ? 0 : m.now();
+        loadSchemaImpl(tableName, dao);
+        if ( m != null ){
+            m.schemaLoaded(tableName, m.now() - start);
+        }
+    }
+    
+    private void loadSchemaImpl(String tableName, DAO dao) throws IOException{
         Map dbSchema = getDatabaseSchema(db, configFile);
         Map tables = (Map)dbSchema.get("tables");
         if ( tables == null ){
@@ -481,6 +566,10 @@ public class DAOProvider {
      */
     private static class GenericDAO extends DAO<Map> {
         
+        /**
+         * Initial capacity of entity maps, so that a full row fits without rehashing.
+         */
+        private int capacity = -1;
         
         public GenericDAO(String tableName, DAOProvider provider) throws IOException {
             super(tableName, provider);
@@ -488,7 +577,37 @@ public class DAOProvider {
 
         @Override
         public Map newObject() {
-            return new KeyableHashMap();
+            if ( capacity < 0 ){
+                capacity = columnNames().length * 4 / 3 + 1;
+            }
+            return new KeyableHashMap(capacity);
+        }
+        
+        /**
+         * Decodes rows straight into the entity map, rather than into a temporary
+         * map that is then copied with {@link #unmap}.
+         */
+        @Override
+        protected boolean hydrate(Map obj, RowReader row) throws IOException {
+            readValues(row, obj);
+            return true;
+        }
+        
+        /**
+         * Binds the entity map's values directly, rather than copying them into a
+         * temporary map with {@link #map}.
+         */
+        @Override
+        protected boolean bind(Map obj, String[] columns, Object[] values) {
+            for ( int i=0; i<columns.length; i++ ){
+                values[i] = obj.get(columns[i]);
+            }
+            return true;
+        }
+
+        @Override
+        protected void setId(Map obj, long id) {
+            obj.put("id", id);
         }
 
         @Override
@@ -520,6 +639,15 @@ public class DAOProvider {
      */
     private static class KeyableHashMap extends HashMap{
         private final Object hashObject = new Object();
+        
+        KeyableHashMap(){
+            
+        }
+        
+        KeyableHashMap(int initialCapacity){
+            super(initialCapacity);
+        }
+        
         @Override
         public int hashCode() {
             return hashObject.hashCode();
@@ -537,4 +665,730 @@ public class DAOProvider {
     public Database getDatabase(){
         return db;
     }
+    
+    /**
+     * Begins a batch of writes.  Change events of all DAOs in this provider are held
+     * until the matching call to {@link #endBatch()}, and are then delivered as a single 
+     * coalesced event per table.  Batches may be nested.
+     * @see DAO#addChangeListener(ca.weblite.codename1.db.DAOChangeListener) 
+     */
+    public synchronized void beginBatch(){
+        batchDepth++;
+    }
+    
+    /**
+     * Ends a batch of writes that was started with {@link #beginBatch()}.  When the 
+     * outermost batch ends, the coalesced change events are scheduled for delivery.
+     */
+    public void endBatch(){
+        DAO[] toFire;
+        synchronized ( this ){
+            if ( batchDepth <= 0 ){
+                throw new IllegalStateException("endBatch() called without matching beginBatch()");
+            }
+            if ( --batchDepth > 0 ){
+                return;
+            }
+            toFire = pendingChanges.toArray(new DAO[pendingChanges.size()]);
+            pendingChanges.clear();
+        }
+        for ( DAO dao : toFire ){
+            dao.scheduleChanges();
+        }
+    }
+    
+    /**
+     * Registers a DAO as having pending change events if a batch is currently open.
+     * @param dao The DAO with pending changes.
+     * @return True if a batch is open, and the changes will be delivered when it ends.
+     * False if the DAO should deliver the changes itself.
+     */
+    synchronized boolean changesPending(DAO dao){
+        if ( batchDepth == 0 ){
+            return false;
+        }
+        if ( !pendingChanges.contains(dao) ){
+            pendingChanges.add(dao);
+        }
+        return true;
+    }
+    
+    /**
+     * Begins a database transaction.  Transactions may be nested, in which case only the
+     * outermost transaction is committed to the database.  A transaction is also a 
+     * {@link #beginBatch() batch}, so change events are delivered after it is committed.
+     * 
+     * <p>A transaction belongs to the thread that began it.  If another thread holds a 
+     * transaction, this waits until that transaction ends, as do writes of the DAOs on 
+     * threads other than the one that holds the transaction.</p>
+     * @throws IOException 
+     */
+    public void beginTransaction() throws IOException {
+        synchronized ( this ){
+            lockWrites();
+            try {
+                if ( transactionDepth == 0 ){
+                    db.beginTransaction();
+                    rollbackOnly = false;
+                    transactionThread = Thread.currentThread();
+                }
+            } catch ( IOException ex ){
+                unlockWrites();
+                throw ex;
+            } catch ( RuntimeException ex ){
+                unlockWrites();
+                throw ex;
+            }
+            transactionDepth++;
+        }
+        beginBatch();
+    }
+    
+    /**
+     * Commits a transaction that was started with {@link #beginTransaction()}.  
+     * @throws IOException If the commit failed, or if a nested transaction was rolled back,
+     * in which case the whole transaction is rolled back.
+     */
+    public void commitTransaction() throws IOException {
+        boolean rolledBack = false;
+        synchronized ( this ){
+            if ( transactionDepth <= 0 ){
+                throw new IllegalStateException("commitTransaction() called without matching beginTransaction()");
+            }
+            if ( transactionDepth == 1 ){
+                if ( rollbackOnly ){
+                    rolledBack = true;
+                    transactionDepth = 0;
+                    transactionThread = null;
+                    try {
+                        rollback();
+                    } finally {
+                        unlockWrites();
+                        endBatch();
+                    }
+                } else {
+                    // If the commit fails, the transaction stays open so that
+                    // the caller can roll it back.
+                    db.commitTransaction();
+                    transactionDepth = 0;
+                    transactionThread = null;
+                    unlockWrites();
+                    endTransactionWrites(false);
+                }
+            } else {
+                transactionDepth--;
+                unlockWrites();
+            }
+        }
+        if ( !rolledBack ){
+            endBatch();
+        } else {
+            throw new IOException("Transaction was rolled back because a nested transaction was rolled back.");
+        }
+    }
+    
+    /**
+     * Rolls back a transaction that was started with {@link #beginTransaction()}.  If this
+     * is a nested transaction, the outermost transaction will be rolled back when it ends.
+     * The change events of the transaction are discarded, the row and query caches of all registered DAOs 
+     * are invalidated, and the entities that were inserted or updated in the transaction are 
+     * removed from the entity caches, so they are loaded again with their committed values.
+     * @throws IOException 
+     */
+    public void rollbackTransaction() throws IOException {
+        synchronized ( this ){
+            if ( transactionDepth <= 0 ){
+                throw new IllegalStateException("rollbackTransaction() called without matching beginTransaction()");
+            }
+            try {
+                if ( --transactionDepth == 0 ){
+                    rollback();
+                } else {
+                    rollbackOnly = true;
+                }
+            } finally {
+                unlockWrites();
+                endBatch();
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a transaction is currently open.
+     * @return 
+     */
+    public synchronized boolean isInTransaction(){
+        return transactionDepth > 0;
+    }
+    
+    private void rollback() throws IOException {
+        rollbackOnly = false;
+        transactionThread = null;
+        try {
+            db.rollbackTransaction();
+        } finally {
+            endTransactionWrites(true);
+            for ( DAO dao : daos.values() ){
+                dao.invalidateCaches();
+            }
+        }
+    }
+    
+    /**
+     * Acquires the write lock for the current thread, waiting until the thread that holds it 
+     * releases it.  The lock is reentrant, and is held by a thread for as long as it has a 
+     * transaction open, so that writes of other threads don't become part of the transaction, 
+     * and statements that depend on the connection state of a previous statement (e.g. 
+     * <code>last_insert_rowid()</code>) aren't interleaved with other threads' writes.
+     * Each call must be matched by a call to {@link #unlockWrites()}.
+     * @throws IOException If the thread is interrupted while waiting.
+     */
+    synchronized void lockWrites() throws IOException {
+        Thread current = Thread.currentThread();
+        while ( writeThread != null && writeThread != current ){
+            try {
+                wait();
+            } catch ( InterruptedException ex ){
+                throw new IOException("Interrupted while waiting for a transaction on another thread to end");
+            }
+        }
+        writeThread = current;
+        writeDepth++;
+    }
+    
+    /**
+     * Releases the write lock that was acquired with {@link #lockWrites()}.
+     */
+    synchronized void unlockWrites(){
+        if ( writeThread != Thread.currentThread() ){
+            throw new IllegalStateException("unlockWrites() called by a thread that doesn't hold the write lock");
+        }
+        if ( --writeDepth == 0 ){
+            writeThread = null;
+            notifyAll();
+        }
+    }
+    
+    /**
+     * Called by a DAO when it writes a row, so that the row can be evicted from its entity 
+     * cache if the current transaction is rolled back.
+     * @param dao The DAO.
+     * @return True if a transaction is open, in which case the DAO should record the row.
+     */
+    synchronized boolean transactionWritten(DAO dao){
+        if ( transactionDepth == 0 ){
+            return false;
+        }
+        if ( !transactionWriters.contains(dao) ){
+            transactionWriters.add(dao);
+        }
+        return true;
+    }
+    
+    /**
+     * Notifies the DAOs that wrote rows in the current transaction that it has ended.
+     * @param rolledBack True if the transaction was rolled back.
+     */
+    private void endTransactionWrites(boolean rolledBack){
+        for ( DAO dao : transactionWriters ){
+            dao.transactionEnded(rolledBack);
+        }
+        transactionWriters.clear();
+    }
+    
+    /**
+     * Sets the tuning profile of the database, and applies it.  This would usually be 
+     * called right after the provider is created, before any DAOs are used.
+     * @param profile The profile.  E.g. {@link TuningProfile#DEFAULT}.
+     * @throws IOException 
+     * @see #applyProfile(ca.weblite.codename1.db.TuningProfile) 
+     */
+    public void setProfile(TuningProfile profile) throws IOException {
+        this.profile = profile;
+        if ( profile != null ){
+            applyProfile(profile);
+        }
+    }
+    
+    /**
+     * Gets the tuning profile that was set with {@link #setProfile}.
+     * @return The profile, or null if none has been set.
+     */
+    public TuningProfile getProfile(){
+        return profile;
+    }
+    
+    /**
+     * Applies the PRAGMAs of a tuning profile to the database, without changing the 
+     * provider's {@link #getProfile() profile}.  This can be used to switch profiles around 
+     * heavy work.  The previous values of the PRAGMAs are returned as a profile, which can be 
+     * applied afterwards to switch back.
+     * 
+     * <p>PRAGMAs that fail (e.g. <code>journal_mode</code> can't be changed inside a transaction)
+     * are logged and skipped.</p>
+     * @param profile The profile to apply.
+     * @return A profile with the previous values of the PRAGMAs.
+     * @throws IOException 
+     */
+    public TuningProfile applyProfile(TuningProfile profile) throws IOException {
+        Map<String,String> previous = new LinkedHashMap<String,String>();
+        for ( Map.Entry<String,String> e : profile.getPragmas().entrySet() ){
+            String name = e.getKey();
+            try {
+                String old = pragma(db, name, null);
+                if ( old == null || !old.equalsIgnoreCase(e.getValue()) ){
+                    pragma(db, name, e.getValue());
+                }
+                if ( old != null ){
+                    previous.put(name, old);
+                }
+            } catch ( IOException ex ){
+                Log.p("Failed to apply PRAGMA "+name+"="+e.getValue()+" of profile "+profile.getName()+": "+ex.getMessage());
+            }
+        }
+        return new TuningProfile(profile.getName()+"_previous", previous);
+    }
+    
+    /**
+     * Queries or sets a PRAGMA.  PRAGMAs are run as queries, since most of them return 
+     * their (new) value.
+     * @param db The database connection.
+     * @param name The PRAGMA name.
+     * @param value The value to set, or null to query the current value.
+     * @return The value returned by the PRAGMA, or null if it returns nothing.
+     * @throws IOException 
+     */
+    private static String pragma(Database db, String name, String value) throws IOException {
+        Cursor c = db.executeQuery("PRAGMA "+name+(value == null ? "" : "="+value));
+        try {
+            return c.next() ? c.getRow().getString(0) : null;
+        } finally {
+            c.close();
+        }
+    }
+    
+    /**
+     * Adds a read-only connection to the database.  While readers are available, queries 
+     * issued by the DAOs to load entities (e.g. {@link DAO#fetch(java.util.Map)} and 
+     * {@link DAO#getById(long, boolean)}) are run on the reader with the fewest open cursors,
+     * so they aren't blocked by a long running write transaction (e.g. an import) on another 
+     * thread.  Queries on the thread that holds the current transaction, and all writes, 
+     * still go to the main connection, so that they see the transaction's changes.
+     * 
+     * <p>The reader must be a separate connection to the same database file, and the database
+     * must be in WAL mode (e.g. with {@link TuningProfile#DEFAULT}), otherwise readers and 
+     * the writer block each other.  The reader is made read-only with <code>PRAGMA query_only</code>.</p>
+     * @param reader The reader connection.
+     * @throws IOException 
+     * @see #openReaders(java.lang.String, int) 
+     */
+    public void addReader(Database reader) throws IOException {
+        if ( profile != null ){
+            Map<String,String> pragmas = new LinkedHashMap<String,String>(profile.getPragmas());
+            // The journal mode is a property of the database file, and is set by the writer.
+            pragmas.remove("journal_mode");
+            for ( Map.Entry<String,String> e : pragmas.entrySet() ){
+                try {
+                    pragma(reader, e.getKey(), e.getValue());
+                } catch ( IOException ex ){
+                    Log.p("Failed to apply PRAGMA "+e.getKey()+" to reader: "+ex.getMessage());
+                }
+            }
+        }
+        pragma(reader, "query_only", "1");
+        synchronized ( this ){
+            int len = readers.length;
+            Database[] r = new Database[len+1];
+            System.arraycopy(readers, 0, r, 0, len);
+            r[len] = reader;
+            int[] counts = new int[len+1];
+            System.arraycopy(readerCursors, 0, counts, 0, len);
+            readers = r;
+            readerCursors = counts;
+        }
+    }
+    
+    /**
+     * Switches the database to WAL mode, and opens a number of read-only connections to it 
+     * with {@link Database#openOrCreate(java.lang.String)}.
+     * @param databaseName The name of the database, as passed to {@link Database#openOrCreate(java.lang.String)}
+     * to open the main connection.
+     * @param count The number of readers to open.  2 is usually enough to keep the UI responsive 
+     * during background writes.
+     * @throws IOException 
+     * @see #addReader(com.codename1.db.Database) 
+     */
+    public void openReaders(String databaseName, int count) throws IOException {
+        String mode = pragma(db, "journal_mode", "WAL");
+        if ( !"wal".equalsIgnoreCase(mode) ){
+            throw new IOException("Failed to switch database to WAL mode.  Journal mode is "+mode);
+        }
+        for ( int i=0; i<count; i++ ){
+            addReader(Database.openOrCreate(databaseName));
+        }
+    }
+    
+    /**
+     * Gets the number of read-only connections.
+     * @return 
+     */
+    public synchronized int getReaderCount(){
+        return readers.length;
+    }
+    
+    /**
+     * Closes the read-only connections.  Subsequent queries go to the main connection.  
+     * Cursors that are open on the readers remain usable until they are closed.
+     * @throws IOException 
+     */
+    public void closeReaders() throws IOException {
+        Database[] r;
+        synchronized ( this ){
+            r = readers;
+            readers = new Database[0];
+            readerCursors = new int[0];
+        }
+        for ( Database d : r ){
+            d.close();
+        }
+    }
+    
+    /**
+     * Checks whether queries made by the current thread with {@link #executeRead} go to 
+     * a reader while another thread has a write transaction open.  Such queries may not see
+     * the transaction's changes, which are already reflected in the DAOs' entity objects.
+     * @return 
+     */
+    synchronized boolean readerMayBeStale(){
+        return readers.length > 0 && transactionThread != null && transactionThread != Thread.currentThread();
+    }
+    
+    /**
+     * Gets the name of the full-text index table of a table.
+     * @param table The table name.
+     * @return 
+     */
+    static String fullTextTable(String table){
+        return table+"_fts";
+    }
+    
+    /**
+     * Creates an external-content FTS5 index over columns of a table, and the triggers that
+     * keep it up to date, unless they already exist.  If the index is new, or any of the 
+     * triggers were missing (e.g. because the app was killed during an import that had 
+     * suspended them), the index is built from the existing rows.
+     * @param table The table name.
+     * @param columns The indexed columns.
+     * @throws IOException If the index can't be created, e.g. because SQLite was built without FTS5.
+     * @see DAO#setFullTextColumns(java.lang.String[]) 
+     */
+    void createFullTextIndex(String table, String[] columns) throws IOException {
+        String fts = fullTextTable(table);
+        boolean exists;
+        Cursor c = db.executeQuery("select name from sqlite_master where type='table' and name=?", new String[]{fts});
+        try {
+            exists = c.next();
+        } finally {
+            c.close();
+        }
+        if ( exists ){
+            c = db.executeQuery("select count(*) from sqlite_master where type='trigger' and name in (?,?,?)", 
+                    new String[]{fts+"_ai", fts+"_ad", fts+"_au"});
+            try {
+                exists = c.next() && c.getRow().getInteger(0) == 3;
+            } finally {
+                c.close();
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE VIRTUAL TABLE IF NOT EXISTS \"").append(fts).append("\" USING fts5(");
+        for ( String col : columns ){
+            sb.append("\"").append(col).append("\", ");
+        }
+        sb.append("content='").append(table).append("', content_rowid='id')");
+        execute(table, sb.toString(), null);
+        createFullTextTriggers(table, columns);
+        if ( !exists ){
+            rebuildFullTextIndex(table);
+        }
+    }
+    
+    /**
+     * Creates the triggers that keep the full-text index of a table up to date, unless 
+     * they already exist.
+     * @param table The table name.
+     * @param columns The indexed columns.
+     * @throws IOException 
+     */
+    void createFullTextTriggers(String table, String[] columns) throws IOException {
+        String fts = fullTextTable(table);
+        StringBuilder cols = new StringBuilder();
+        StringBuilder newVals = new StringBuilder();
+        StringBuilder oldVals = new StringBuilder();
+        for ( String col : columns ){
+            cols.append(", \"").append(col).append("\"");
+            newVals.append(", new.\"").append(col).append("\"");
+            oldVals.append(", old.\"").append(col).append("\"");
+        }
+        String insert = "INSERT INTO \""+fts+"\"(rowid"+cols+") VALUES (new.id"+newVals+");";
+        String delete = "INSERT INTO \""+fts+"\"(\""+fts+"\", rowid"+cols+") VALUES ('delete', old.id"+oldVals+");";
+        execute(table, "CREATE TRIGGER IF NOT EXISTS \""+fts+"_ai\" AFTER INSERT ON \""+table+"\" BEGIN "+insert+" END", null);
+        execute(table, "CREATE TRIGGER IF NOT EXISTS \""+fts+"_ad\" AFTER DELETE ON \""+table+"\" BEGIN "+delete+" END", null);
+        execute(table, "CREATE TRIGGER IF NOT EXISTS \""+fts+"_au\" AFTER UPDATE ON \""+table+"\" BEGIN "+delete+" "+insert+" END", null);
+    }
+    
+    /**
+     * Drops the triggers that keep the full-text index of a table up to date, e.g. for 
+     * the duration of a bulk import.  The index must be rebuilt afterwards.
+     * @param table The table name.
+     * @throws IOException 
+     */
+    void dropFullTextTriggers(String table) throws IOException {
+        String fts = fullTextTable(table);
+        execute(table, "DROP TRIGGER IF EXISTS \""+fts+"_ai\"", null);
+        execute(table, "DROP TRIGGER IF EXISTS \""+fts+"_ad\"", null);
+        execute(table, "DROP TRIGGER IF EXISTS \""+fts+"_au\"", null);
+    }
+    
+    /**
+     * Rebuilds the full-text index of a table from the table's rows.
+     * @param table The table name.
+     * @throws IOException 
+     */
+    void rebuildFullTextIndex(String table) throws IOException {
+        String fts = fullTextTable(table);
+        execute(table, "INSERT INTO \""+fts+"\"(\""+fts+"\") VALUES ('rebuild')", null);
+    }
+    
+    /**
+     * Sets the metrics recorder for the DAOs of this provider.  When set, the SQL statements
+     * issued by the DAOs (with their latencies), rows hydrated vs served from cache, unmap times,
+     * import throughput and schema load times are reported to it.
+     * @param metrics The metrics recorder, or null to disable metrics.
+     * @see SimpleDAOMetrics
+     */
+    public void setMetrics(DAOMetrics metrics){
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Gets the metrics recorder for the DAOs of this provider.
+     * @return The metrics recorder, or null if metrics are disabled.
+     */
+    public DAOMetrics getMetrics(){
+        return metrics;
+    }
+    
+    /**
+     * Executes an update statement on behalf of a DAO.
+     * @param table The table of the DAO.
+     * @param sql The SQL statement.
+     * @param args The statement params, or null if there are none.
+     * @throws IOException 
+     */
+    void execute(String table, String sql, Object[] args) throws IOException {
+        DAOMetrics m = metrics;
+        SlowQueryLog log = slowQueryLog;
+        long metricsStart = m == null ? 0 : m.now();
+        long start = log == null ? 0 : System.currentTimeMillis();
+        lockWrites();
+        try {
+            if ( args == null ){
+                db.execute(sql);
+            } else {
+                db.execute(sql, args);
+            }
+        } finally {
+            unlockWrites();
+        }
+        if ( m != null ){
+            m.statementExecuted(table, sql, -1, m.now() - metricsStart);
+        }
+        if ( log != null ){
+            statementCompleted(db, log, table, sql, args, -1, System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Executes a query on behalf of a DAO.
+     * @param table The table of the DAO.
+     * @param sql The SQL query.
+     * @param params The query params, or null if there are none.
+     * @return The cursor.
+     * @throws IOException 
+     */
+    Cursor executeQuery(String table, String sql, String[] params) throws IOException {
+        return executeQuery(db, table, sql, params);
+    }
+    
+    private Cursor executeQuery(Database db, String table, String sql, String[] params) throws IOException {
+        DAOMetrics m = metrics;
+        SlowQueryLog log = slowQueryLog;
+        long metricsStart = m == null ? 0 : m.now();
+        long start = log == null ? 0 : System.currentTimeMillis();
+        Cursor c = params == null ? db.executeQuery(sql) : db.executeQuery(sql, params);
+        if ( m != null || log != null ){
+            c = new MeteredCursor(c, this, db, m, log, table, sql, params, metricsStart, start);
+        }
+        return c;
+    }
+    
+    /**
+     * Executes a query that only reads entity data on behalf of a DAO.  The query runs
+     * on a reader connection if one is available, and the current thread doesn't hold
+     * the transaction.  Otherwise it runs on the main connection.
+     * @param table The table of the DAO.
+     * @param sql The SQL query.
+     * @param params The query params, or null if there are none.
+     * @return The cursor.
+     * @throws IOException 
+     * @see #addReader(com.codename1.db.Database) 
+     */
+    Cursor executeRead(String table, String sql, String[] params) throws IOException {
+        Database reader = null;
+        int index = -1;
+        synchronized ( this ){
+            if ( readers.length > 0 && (transactionThread == null || transactionThread != Thread.currentThread()) ){
+                for ( int i=0; i<readers.length; i++ ){
+                    if ( index < 0 || readerCursors[i] < readerCursors[index] ){
+                        index = i;
+                    }
+                }
+                reader = readers[index];
+                readerCursors[index]++;
+            }
+        }
+        if ( reader == null ){
+            return executeQuery(table, sql, params);
+        }
+        try {
+            return new ReaderCursor(executeQuery(reader, table, sql, params), this, reader);
+        } catch ( IOException ex ){
+            releaseReader(reader);
+            throw ex;
+        } catch ( RuntimeException ex ){
+            releaseReader(reader);
+            throw ex;
+        }
+    }
+    
+    /**
+     * Called when a cursor of a reader is closed.
+     * @param reader The reader.
+     */
+    synchronized void releaseReader(Database reader){
+        for ( int i=0; i<readers.length; i++ ){
+            if ( readers[i] == reader ){
+                readerCursors[i]--;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Sets the slow query log for the DAOs of this provider.  When set, statements issued by 
+     * the DAOs that exceed the log's threshold are recorded, and the query plan of each distinct
+     * statement is captured once.
+     * @param log The slow query log, or null to disable slow query logging.
+     */
+    public void setSlowQueryLog(SlowQueryLog log){
+        this.slowQueryLog = log;
+    }
+    
+    /**
+     * Gets the slow query log for the DAOs of this provider.
+     * @return The slow query log, or null if slow queries are not logged.
+     */
+    public SlowQueryLog getSlowQueryLog(){
+        return slowQueryLog;
+    }
+    
+    /**
+     * Records a completed statement in the slow query log, and captures its query plan
+     * if this is the first time it has been seen.
+     * @param database The connection that executed the statement.  The plan is captured
+     * on the same connection, so that it reflects that connection's schema and settings.
+     * @param log The slow query log.
+     * @param table The table of the DAO that issued the statement.
+     * @param sql The SQL of the statement.
+     * @param params The statement params.
+     * @param rows The number of rows read, or -1 if the statement is not a query.
+     * @param elapsed The elapsed time in milliseconds.
+     */
+    void statementCompleted(Database database, SlowQueryLog log, String table, String sql, Object[] params, int rows, long elapsed){
+        log.record(table, sql, params, rows, elapsed);
+        if ( log.needsPlan(sql) ){
+            String plan;
+            try {
+                plan = explain(database, sql, params);
+            } catch ( Throwable t ){
+                // Not all statements can be explained (e.g. PRAGMAs). Record the failure
+                // so that we don't try again.
+                plan = "EXPLAIN failed: "+t.getMessage();
+            }
+            log.addPlan(table, sql, plan);
+        }
+    }
+    
+    /**
+     * Gets the query plan for a statement.  On the main connection, this holds the write
+     * lock, so that it isn't interleaved with a transaction of another thread.
+     * @param database The connection to explain the statement on.
+     * @param sql The SQL of the statement.
+     * @param params The statement params.
+     * @return The query plan, with one line per step.
+     * @throws IOException 
+     */
+    private String explain(Database database, String sql, Object[] params) throws IOException {
+        boolean main = database == db;
+        if ( main ){
+            lockWrites();
+        }
+        try {
+            Cursor c;
+            if ( params == null ){
+                c = database.executeQuery("EXPLAIN QUERY PLAN "+sql);
+            } else {
+                String[] strParams = new String[params.length];
+                for ( int i=0; i<params.length; i++ ){
+                    strParams[i] = params[i] == null ? null : params[i].toString();
+                }
+                c = database.executeQuery("EXPLAIN QUERY PLAN "+sql, strParams);
+            }
+            StringBuilder sb = new StringBuilder();
+            try {
+                int detailCol = c.getColumnCount()-1;
+                while ( c.next() ){
+                    sb.append(c.getRow().getString(detailCol)).append("\n");
+                }
+            } finally {
+                c.close();
+            }
+            return sb.toString();
+        } finally {
+            if ( main ){
+                unlockWrites();
+            }
+        }
+    }
+    
+    /**
+     * Sets the second-level row cache used by the DAOs of this provider.  The 
+     * second-level cache retains decoded row data (not entity objects) so that
+     * {@link DAO#getById(long)} can be served without querying the database after
+     * the entity objects themselves have been garbage collected.  The same cache
+     * may be shared by several providers that operate on the same database.
+     * @param cache The cache to use, or null to disable second-level caching.
+     */
+    public void setRowCache(RowCache cache){
+        this.rowCache = cache;
+    }
+    
+    /**
+     * Gets the second-level row cache used by the DAOs of this provider.
+     * @return The row cache, or null if second-level caching is disabled.
+     */
+    public RowCache getRowCache(){
+        return rowCache;
+    }
 }
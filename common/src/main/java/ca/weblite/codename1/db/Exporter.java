@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.DAO.ColType;
+import com.codename1.db.Cursor;
+import com.codename1.util.Base64;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An exporter for writing the rows of a table as JSON or newline-delimited JSON.  Rows are 
+ * read straight from the database cursor and written as they are read, without creating
+ * entity objects or touching the DAO's caches, so memory use doesn't depend on the size of
+ * the table.
+ * 
+ * <p>Values are written according to the column types of the table.  Integer and real columns
+ * are written as JSON numbers, string columns as JSON strings, and blobs as base64 encoded
+ * JSON strings, which {@link Importer} decodes again when it imports them into BLOB columns.</p>
+ * @param <T> The type of the entity object.
+ */
+public class Exporter<T> {
+    
+    private final DAO<T> dao;
+    
+    /**
+     * Maps column names in the DAO to the keys they are exported as.
+     */
+    private final Map<String,String> columnMap = new HashMap<String,String>();
+    
+    /**
+     * Creates an exporter for the given DAO.
+     * @param dao The DAO whose records are exported.
+     */
+    public Exporter(DAO<T> dao){
+        this(dao, null);
+    }
+    
+    /**
+     * Creates an exporter for the given DAO with the specified column map.
+     * @param dao The DAO whose records are exported.
+     * @param columnMap A map of column names in the DAO to the keys they are exported as.  Columns
+     * that aren't in the map are exported with their own names.
+     */
+    public Exporter(DAO<T> dao, Map columnMap){
+        this.dao = dao;
+        if ( columnMap != null ){
+            this.columnMap.putAll(columnMap);
+        }
+    }
+    
+    /**
+     * Gets a reference to the column map.
+     * @return The column map for this exporter.  This maps column names in the DAO to the keys
+     * they are exported as.
+     */
+    public Map<String,String> getColumnMap(){
+        return columnMap;
+    }
+    
+    /**
+     * Exports rows as a JSON array of objects.  This can be imported again with 
+     * {@link Importer#importJSON(java.io.InputStream, java.lang.String)} using the selector "root".
+     * @param os The stream to write UTF-8 encoded JSON to.  It is flushed but not closed.
+     * @param query A field=>value mapping that the exported rows must match, or null to export all rows.
+     * @return The number of rows exported.
+     * @throws IOException 
+     */
+    public int exportJSON(OutputStream os, Map<String,String> query) throws IOException {
+        return export(os, query, false);
+    }
+    
+    /**
+     * Exports rows as newline-delimited JSON, with one object per line.  This can be imported 
+     * again with {@link Importer#importNDJSON(java.io.InputStream)}.
+     * @param os The stream to write UTF-8 encoded NDJSON to.  It is flushed but not closed.
+     * @param query A field=>value mapping that the exported rows must match, or null to export all rows.
+     * @return The number of rows exported.
+     * @throws IOException 
+     */
+    public int exportNDJSON(OutputStream os, Map<String,String> query) throws IOException {
+        return export(os, query, true);
+    }
+    
+    private int export(OutputStream os, Map<String,String> query, boolean lines) throws IOException {
+        String table = dao.getTableName();
+        StringBuilder sb = new StringBuilder();
+        sb.append("select * from \"").append(table).append("\"");
+        String[] vals = null;
+        if ( query != null && !query.isEmpty() ){
+            sb.append(" where ");
+            vals = new String[query.size()];
+            DAO.appendWhere(sb, query, vals);
+        }
+        
+        JSONWriter out = new JSONWriter(new OutputStreamWriter(os, "UTF-8"));
+        int rows = 0;
+        Cursor c = null;
+        try {
+            c = dao.getProvider().executeRead(table, sb.toString(), vals);
+            CursorRowReader reader = new CursorRowReader(c);
+            
+            // Work out the exported columns, and their keys, once for all rows.
+            int len = reader.getColumnCount();
+            List<String> names = new ArrayList<String>(len);
+            int[] idx = new int[len];
+            ColType[] types = new ColType[len];
+            int n = 0;
+            for ( int i=0; i<len; i++ ){
+                String name = reader.getColumnName(i);
+                ColType type = dao.colTypes.get(name);
+                if ( type != null && !names.contains(name) ){
+                    idx[n] = i;
+                    types[n] = type;
+                    n++;
+                    names.add(name);
+                }
+            }
+            String[] keys = new String[n];
+            for ( int i=0; i<n; i++ ){
+                String name = names.get(i);
+                keys[i] = columnMap.containsKey(name) ? columnMap.get(name) : name;
+            }
+            
+            if ( !lines ){
+                out.raw('[');
+            }
+            while ( c.next() ){
+                reader.setRow(c.getRow());
+                if ( rows > 0 && !lines ){
+                    out.raw(',');
+                }
+                writeRow(out, reader, idx, types, keys);
+                if ( lines ){
+                    out.raw('\n');
+                }
+                rows++;
+            }
+            if ( !lines ){
+                out.raw(']');
+            }
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+        }
+        out.flush();
+        return rows;
+    }
+    
+    /**
+     * Writes the current row as a JSON object.
+     * @param out The writer.
+     * @param row The current row.
+     * @param idx The ordinals in the row of the exported columns.
+     * @param types The types of the exported columns.
+     * @param keys The keys of the exported columns.
+     * @throws IOException 
+     */
+    private static void writeRow(JSONWriter out, RowReader row, int[] idx, ColType[] types, String[] keys) throws IOException {
+        out.raw('{');
+        for ( int i=0; i<keys.length; i++ ){
+            if ( i > 0 ){
+                out.raw(',');
+            }
+            out.string(keys[i]);
+            out.raw(':');
+            int col = idx[i];
+            if ( types[i] == ColType.BLOB ){
+                // Blobs can't be read as strings on all platforms (e.g. Android), so 
+                // they are checked for null by reading them.
+                byte[] b = row.getBlob(col);
+                if ( b == null ){
+                    out.raw("null");
+                } else {
+                    out.string(Base64.encodeNoNewline(b));
+                }
+                continue;
+            }
+            if ( row.isNull(col) ){
+                out.raw("null");
+                continue;
+            }
+            switch ( types[i] ){
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                    out.number(row.getLong(col));
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    out.number(row.getDouble(col));
+                    break;
+                default:
+                    out.string(row.getString(col));
+            }
+        }
+        out.raw('}');
+    }
+}
@@ -16,7 +16,11 @@
 
 package ca.weblite.codename1.db;
 
+import com.codename1.db.Cursor;
+import com.codename1.io.CharArrayReader;
 import com.codename1.io.JSONParser;
+import com.codename1.io.Log;
+import com.codename1.util.Base64;
 import com.codename1.util.StringUtil;
 import java.io.IOException;
 import java.io.InputStream;
@@ -25,12 +29,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 /**
  * An importer for importing sets of data into a table.  This can be used to import
- * JSON data, or lists of Maps.
+ * JSON, NDJSON, or CSV data, or lists of Maps.  String values of BLOB columns are decoded
+ * from base64, so data exported with an {@link Exporter} can be imported again.
  * @author shannah
  * @param <T> The type of the entity object.
  */
@@ -54,6 +60,41 @@ public class Importer<T> {
      */
     final List<String> keyCols = new ArrayList<String>();
     
+    /**
+     * The default number of rows written per transaction.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    /**
+     * The default capacity of the queue between the parser and writer in pipelined imports.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+    
+    /**
+     * The name of the bookkeeping table in which import checkpoints are stored.
+     */
+    public static final String CHECKPOINT_TABLE = "dao_import_checkpoint";
+    
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private boolean pipelined;
+    
+    /**
+     * The ID of the feed for checkpointed imports, or null if checkpoints are disabled.
+     */
+    private String checkpoint;
+    
+    private boolean skipUnchanged;
+    private String contentHashColumn;
+    private boolean mirror;
+    private TuningProfile profile;
+    private boolean rebuildFullTextIndex;
+    
+    /**
+     * Counts of the rows written by the last import.
+     */
+    private int inserted, updated, unchanged, deleted;
+    
     /**
      * Creates an importer for the given DAO.
      * @param dao The DAO into which the importer will import records.
@@ -125,6 +166,360 @@ public class Importer<T> {
         return Collections.unmodifiableList(keyCols);
     }
     
+    /**
+     * Sets the number of rows that are written per transaction.  Writing rows in
+     * transactions is much faster than committing each row individually.  If an import
+     * fails, the rows of the current batch are rolled back, but earlier batches remain
+     * committed.
+     * @param batchSize The number of rows per transaction, or 0 to commit each row 
+     * individually (in its own transaction with its checkpoint, if 
+     * {@link #setCheckpoint(java.lang.String) checkpoints} are enabled).  Default is 
+     * {@link #DEFAULT_BATCH_SIZE}.
+     */
+    public void setBatchSize(int batchSize){
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Gets the number of rows that are written per transaction.
+     * @return 
+     * @see #setBatchSize(int) 
+     */
+    public int getBatchSize(){
+        return batchSize;
+    }
+    
+    /**
+     * Enables pipelined JSON imports.  When enabled, {@link #importJSON} streams the
+     * JSON on a separate thread, which extracts the rows at the selector, applies the 
+     * column map and {@link #prepareRowForImport}, and passes the rows through a bounded 
+     * queue to the calling thread, which writes them to the database.  This overlaps parsing 
+     * with database I/O, and avoids holding the whole document in memory.
+     * 
+     * <p>In pipelined imports, {@link #prepareRowForImport} is called on the parser 
+     * thread, so it must not access the DAO, and it is called before existing records are 
+     * looked up, so the row doesn't contain the id of the existing record yet.  Values 
+     * are passed through as strings.</p>
+     * @param pipelined True to enable pipelined imports.
+     * @see #setQueueSize(int) 
+     */
+    public void setPipelined(boolean pipelined){
+        this.pipelined = pipelined;
+    }
+    
+    /**
+     * Checks whether pipelined JSON imports are enabled.
+     * @return 
+     * @see #setPipelined(boolean) 
+     */
+    public boolean isPipelined(){
+        return pipelined;
+    }
+    
+    /**
+     * Sets the capacity of the queue between the parser thread and the writer in 
+     * pipelined imports.  The parser blocks when the queue is full.
+     * @param queueSize The maximum number of rows in the queue.  Default is {@link #DEFAULT_QUEUE_SIZE}.
+     */
+    public void setQueueSize(int queueSize){
+        this.queueSize = queueSize;
+    }
+    
+    /**
+     * Enables checkpointed imports.  When enabled, the number of rows that have been 
+     * committed is stored in the {@link #CHECKPOINT_TABLE} table, keyed by feed ID, selector 
+     * and table name, in the same transaction as each batch of rows.  If the import fails 
+     * or the app is killed, re-running the import with the same feed skips the rows that 
+     * were already committed.  The checkpoint is removed when the import completes.
+     * 
+     * <p>The feed must deliver the same rows in the same order each time it is imported 
+     * with a given feed ID, since rows are skipped by their position.  Use a new feed ID
+     * (e.g. including the version or timestamp of the feed) when the feed changes.</p>
+     * @param feedId The ID of the feed, or null to disable checkpoints.
+     * @see #clearCheckpoint(java.lang.String) 
+     */
+    public void setCheckpoint(String feedId){
+        this.checkpoint = feedId;
+    }
+    
+    /**
+     * Gets the ID of the feed for checkpointed imports.
+     * @return The feed ID, or null if checkpoints are disabled.
+     */
+    public String getCheckpoint(){
+        return checkpoint;
+    }
+    
+    /**
+     * Enables change detection.  When enabled, each incoming row that matches an existing
+     * record is compared with the stored values of the record, and if none of the 
+     * columns in the row have changed, the record is not saved.  The {@link #beforeImport}
+     * and {@link #afterImport} triggers are not called for unchanged rows.
+     * @param skipUnchanged True to skip unchanged rows.
+     * @see #setContentHashColumn(java.lang.String) 
+     * @see #getUnchangedCount() 
+     */
+    public void setSkipUnchanged(boolean skipUnchanged){
+        this.skipUnchanged = skipUnchanged;
+    }
+    
+    /**
+     * Checks whether change detection is enabled.
+     * @return 
+     * @see #setSkipUnchanged(boolean) 
+     */
+    public boolean isSkipUnchanged(){
+        return skipUnchanged;
+    }
+    
+    /**
+     * Sets a column in which a hash of the content of each imported row is stored.  
+     * When set, change detection compares the hash of the incoming row with the stored hash, 
+     * rather than comparing each column, and the hash is stored with each inserted 
+     * or updated record.  This implies {@link #setSkipUnchanged(boolean)}.
+     * 
+     * <p>The column should be a VARCHAR column, since the hash is a 64 bit value.  Records 
+     * that were imported before the column was set have no hash, so they are updated the 
+     * first time they are imported.</p>
+     * @param column The name of the hash column, or null to compare each column.
+     */
+    public void setContentHashColumn(String column){
+        this.contentHashColumn = column;
+    }
+    
+    /**
+     * Gets the column in which content hashes are stored.
+     * @return The column, or null if content hashes are not used.
+     */
+    public String getContentHashColumn(){
+        return contentHashColumn;
+    }
+    
+    /**
+     * Enables mirror mode.  In mirror mode, records of the table that are not in the
+     * import set are deleted at the end of the import, so that the table mirrors the 
+     * import set.  The IDs of the imported records are recorded in a temporary table 
+     * during the import, and the missing records are deleted with a single set-based 
+     * DELETE, in the same transaction as the last batch of rows.  Deleted entities are 
+     * removed from the DAO's cache.
+     * 
+     * <p>Nothing is deleted if the import fails.  If {@link #setCheckpoint(java.lang.String) checkpoints} 
+     * are enabled, the IDs are recorded in a regular table rather than a temporary table,
+     * so that rows imported before an interruption are still counted as seen when the 
+     * import is resumed.</p>
+     * @param mirror True to delete records that are not in the import set.
+     */
+    public void setMirror(boolean mirror){
+        this.mirror = mirror;
+    }
+    
+    /**
+     * Checks whether mirror mode is enabled.
+     * @return 
+     * @see #setMirror(boolean) 
+     */
+    public boolean isMirror(){
+        return mirror;
+    }
+    
+    /**
+     * Sets a tuning profile to apply to the database for the duration of each import.  
+     * The previous PRAGMA values are restored when the import finishes.
+     * @param profile The profile, e.g. {@link TuningProfile#BULK_IMPORT}, or null to import 
+     * with the database's current settings (the default).
+     */
+    public void setProfile(TuningProfile profile){
+        this.profile = profile;
+    }
+    
+    /**
+     * Gets the tuning profile that is applied for the duration of each import.
+     * @return The profile, or null if none is applied.
+     */
+    public TuningProfile getProfile(){
+        return profile;
+    }
+    
+    /**
+     * Sets whether the table's full-text index is rebuilt after each import, instead of being 
+     * updated by its triggers row by row.  This is much faster for imports that write a large
+     * part of the table.  It has no effect if the DAO has no 
+     * {@link DAO#setFullTextColumns(java.lang.String[]) full-text columns}.
+     * @param rebuild True to drop the index's triggers for the duration of the import, and 
+     * rebuild the index afterwards.
+     */
+    public void setRebuildFullTextIndex(boolean rebuild){
+        this.rebuildFullTextIndex = rebuild;
+    }
+    
+    /**
+     * Checks whether the table's full-text index is rebuilt after each import.
+     * @return 
+     * @see #setRebuildFullTextIndex(boolean) 
+     */
+    public boolean isRebuildFullTextIndex(){
+        return rebuildFullTextIndex;
+    }
+    
+    /**
+     * Gets the number of records that were deleted by the last import because they were 
+     * not in the import set.
+     * @return 
+     * @see #setMirror(boolean) 
+     */
+    public int getDeletedCount(){
+        return deleted;
+    }
+    
+    /**
+     * Gets the number of new records that were inserted by the last import.
+     * @return 
+     */
+    public int getInsertedCount(){
+        return inserted;
+    }
+    
+    /**
+     * Gets the number of existing records that were updated by the last import.
+     * @return 
+     */
+    public int getUpdatedCount(){
+        return updated;
+    }
+    
+    /**
+     * Gets the number of existing records that were skipped by the last import because
+     * they had not changed.
+     * @return 
+     * @see #setSkipUnchanged(boolean) 
+     */
+    public int getUnchangedCount(){
+        return unchanged;
+    }
+    
+    /**
+     * Removes the checkpoint of an interrupted import, so that the next import of the 
+     * feed starts from the first row.
+     * @param selector The selector of the import, or null for imports of a List, CSV, or NDJSON.
+     * @throws IOException 
+     */
+    public void clearCheckpoint(String selector) throws IOException {
+        if ( checkpoint == null ){
+            return;
+        }
+        createCheckpointTable();
+        deleteCheckpoint(selector);
+    }
+    
+    /**
+     * Gets the number of rows committed by an interrupted import of the checkpoint feed.
+     * @param selector The selector of the import, or null for imports of a List, CSV, or NDJSON.
+     * @return The number of rows to skip.
+     * @throws IOException 
+     */
+    private long readCheckpoint(String selector) throws IOException {
+        if ( checkpoint == null ){
+            return 0;
+        }
+        createCheckpointTable();
+        Cursor c = null;
+        try {
+            c = dao.getProvider().executeQuery(CHECKPOINT_TABLE, 
+                    "SELECT last_row FROM \""+CHECKPOINT_TABLE+"\" WHERE feed=? AND selector=? AND table_name=?", 
+                    new String[]{checkpoint, selector == null ? "" : selector, dao.getTableName()});
+            if ( c.next() ){
+                return c.getRow().getLong(0);
+            }
+            return 0;
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+        }
+    }
+    
+    private void createCheckpointTable() throws IOException {
+        dao.getProvider().execute(CHECKPOINT_TABLE, 
+                "CREATE TABLE IF NOT EXISTS \""+CHECKPOINT_TABLE+"\" ("
+                + "feed VARCHAR NOT NULL, selector VARCHAR NOT NULL, table_name VARCHAR NOT NULL, "
+                + "last_row INTEGER NOT NULL, PRIMARY KEY (feed, selector, table_name))", 
+                null);
+    }
+    
+    private void writeCheckpoint(String selector, long lastRow) throws IOException {
+        dao.getProvider().execute(CHECKPOINT_TABLE, 
+                "INSERT OR REPLACE INTO \""+CHECKPOINT_TABLE+"\" (feed, selector, table_name, last_row) VALUES (?,?,?,?)", 
+                new Object[]{checkpoint, selector == null ? "" : selector, dao.getTableName(), ""+lastRow});
+    }
+    
+    /**
+     * Gets the name of the table in which the IDs of imported records are recorded in mirror mode.
+     * @return 
+     */
+    private String seenTable(){
+        return "dao_import_seen_"+dao.getTableName();
+    }
+    
+    /**
+     * Prepares the table in which the IDs of imported records are recorded in mirror mode.
+     * @param resumed True if the import is resuming from a checkpoint, in which case the IDs
+     * recorded by the interrupted import are kept.
+     * @throws IOException 
+     */
+    private void createSeenTable(boolean resumed) throws IOException {
+        DAOProvider provider = dao.getProvider();
+        provider.execute(dao.getTableName(), 
+                "CREATE "+(checkpoint == null ? "TEMP " : "")+"TABLE IF NOT EXISTS \""+seenTable()+"\" (id INTEGER PRIMARY KEY)", 
+                null);
+        if ( !resumed ){
+            provider.execute(dao.getTableName(), "DELETE FROM \""+seenTable()+"\"", null);
+        }
+    }
+    
+    /**
+     * Records that a record was in the import set, in mirror mode.
+     * @param id The ID of the record.
+     * @throws IOException 
+     */
+    private void seen(long id) throws IOException {
+        dao.getProvider().execute(dao.getTableName(), 
+                "INSERT OR IGNORE INTO \""+seenTable()+"\" (id) VALUES (?)", 
+                new Object[]{""+id});
+    }
+    
+    /**
+     * Deletes the records that were not in the import set, in mirror mode, and
+     * drops the table of seen IDs.
+     * @throws IOException 
+     */
+    private void deleteUnseen() throws IOException {
+        String table = dao.getTableName();
+        String where = " WHERE id NOT IN (SELECT id FROM \""+seenTable()+"\")";
+        long[] ids = dao.selectIds("SELECT id FROM \""+table+"\""+where, null);
+        if ( ids.length > 0 ){
+            dao.getProvider().execute(table, "DELETE FROM \""+table+"\""+where, null);
+            for ( long id : ids ){
+                dao.rowDeleted(id);
+            }
+        }
+        deleted = ids.length;
+        dao.getProvider().execute(table, "DROP TABLE \""+seenTable()+"\"", null);
+    }
+    
+    private void deleteCheckpoint(String selector) throws IOException {
+        dao.getProvider().execute(CHECKPOINT_TABLE, 
+                "DELETE FROM \""+CHECKPOINT_TABLE+"\" WHERE feed=? AND selector=? AND table_name=?", 
+                new Object[]{checkpoint, selector == null ? "" : selector, dao.getTableName()});
+    }
+    
+    /**
+     * Gets the capacity of the queue used in pipelined imports.
+     * @return 
+     */
+    public int getQueueSize(){
+        return queueSize;
+    }
+    
     
     
     /**
@@ -165,7 +560,7 @@ public class Importer<T> {
             throw new IOException("Failed to find rows to import.");
         }
         
-       importSet(rows);
+       importRows(rows, selector);
         
     }
     
@@ -175,41 +570,498 @@ public class Importer<T> {
      * @throws IOException 
      */
     public void importSet(List rows) throws IOException{
-         for ( Object o : rows ){
-            Map row = (Map)o;
-            Map convertedRow = new HashMap(row.size());
-            for ( Object key : row.keySet()){
-                if ( columnMap != null && columnMap.containsKey(key)){
-                    convertedRow.put(columnMap.get(key), row.get(key));
-                } else {
-                    convertedRow.put(key, row.get(key));
+        importRows(rows, null);
+    }
+    
+    /**
+     * Imports a set of rows into the DAO.
+     * @param rows List of Maps to be imported.
+     * @param selector The selector that the rows were found at, for checkpoints.
+     * @throws IOException 
+     */
+    private void importRows(List rows, String selector) throws IOException{
+        final Iterator it = rows.iterator();
+        importRows(new RowSource(){
+            public Map next() throws IOException {
+                return it.hasNext() ? (Map)it.next() : null;
+            }
+        }, selector);
+    }
+    
+    /**
+     * A source of rows to be imported.
+     */
+    private interface RowSource {
+        
+        /**
+         * Gets the next row.
+         * @return The next row, or null if there are no more rows.
+         * @throws IOException 
+         */
+        Map next() throws IOException;
+    }
+    
+    /**
+     * Imports rows from a row source into the DAO.
+     * @param rows The source of the rows to be imported.
+     * @param selector The selector that the rows were found at, for checkpoints.
+     * @throws IOException 
+     */
+    private void importRows(RowSource rows, String selector) throws IOException{
+        DAOProvider provider = dao.getProvider();
+        DAOMetrics metrics = provider.getMetrics();
+        long start = metrics == null ? 0 : metrics.now();
+        long skip = readCheckpoint(selector);
+        inserted = updated = unchanged = deleted = 0;
+        if ( mirror ){
+            createSeenTable(skip > 0);
+        }
+        TuningProfile previous = profile == null ? null : provider.applyProfile(profile);
+        try {
+            boolean suspended = false;
+            provider.beginBatch();
+            BatchWriter writer = new BatchWriter(selector, skip);
+            try {
+                suspended = rebuildFullTextIndex && dao.suspendFullTextIndex();
+                long i = 0;
+                Map row;
+                while ( (row = rows.next()) != null ){
+                    if ( i++ < skip ){
+                        continue;
+                    }
+                    writer.write(convertRow(row), false);
+                }
+                writer.finish();
+                if ( metrics != null ){
+                    metrics.imported(dao.getTableName(), writer.rows, metrics.now() - start);
+                }
+            } finally {
+                writer.abort();
+                // Trigger methods may have written to the table directly.
+                dao.invalidateCaches();
+                try {
+                    provider.endBatch();
+                } finally {
+                    if ( suspended ){
+                        dao.resumeFullTextIndex();
+                    }
                 }
-                
             }
-            
-            Map<String,String> query = new HashMap<String,String>(keyCols.size());
-            for ( String col : keyCols ){
-                query.put(col, ""+convertedRow.get(col));
+        } finally {
+            // Restore the profile even if the import or its cleanup failed.
+            if ( previous != null ){
+                provider.applyProfile(previous);
             }
-            
-            T existing = dao.fetchOne(query);
-            
-            if ( existing == null ){
-                existing = dao.newObject();
+        }
+    }
+    
+    /**
+     * Imports JSON rows with a parser thread and a writer (the calling thread) 
+     * connected by a bounded queue.
+     * @param is InputStream containing JSON data.
+     * @param selector The selector to specify the path to the list of data to be imported.
+     * @throws IOException 
+     * @see #setPipelined(boolean) 
+     */
+    private void importPipelined(InputStream is, String selector) throws IOException {
+        final RowQueue queue = new RowQueue(queueSize);
+        final InputStreamReader reader = new InputStreamReader(is, "UTF-8");
+        final long skip = readCheckpoint(selector);
+        final JSONRowStream stream = new JSONRowStream(selector){
+            long skipped;
+            boolean row(Map row) {
+                if ( skipped < skip ){
+                    skipped++;
+                    return true;
+                }
+                Map convertedRow = convertRow(row);
+                prepareRowForImport(convertedRow);
+                return queue.put(convertedRow);
+            }
+        };
+        Thread parser = new Thread(new Runnable(){
+            public void run() {
+                Throwable error = null;
+                try {
+                    JSONParser.parse(reader, stream);
+                } catch ( Throwable t ){
+                    error = t;
+                } finally {
+                    queue.close(error);
+                }
+            }
+        });
+        
+        DAOProvider provider = dao.getProvider();
+        DAOMetrics metrics = provider.getMetrics();
+        long start = metrics == null ? 0 : metrics.now();
+        inserted = updated = unchanged = deleted = 0;
+        if ( mirror ){
+            createSeenTable(skip > 0);
+        }
+        TuningProfile previous = profile == null ? null : provider.applyProfile(profile);
+        try {
+            boolean suspended = false;
+            provider.beginBatch();
+            BatchWriter writer = new BatchWriter(selector, skip);
+            parser.start();
+            try {
+                suspended = rebuildFullTextIndex && dao.suspendFullTextIndex();
+                Map row;
+                while ( (row = (Map)queue.take()) != null ){
+                    writer.write(row, true);
+                }
+                writer.finish();
+                if ( metrics != null ){
+                    metrics.imported(dao.getTableName(), writer.rows, metrics.now() - start);
+                }
+            } finally {
+                queue.abort();
+                writer.abort();
+                dao.invalidateCaches();
+                try {
+                    provider.endBatch();
+                } finally {
+                    // Don't return while the parser may still be reading the stream.
+                    try {
+                        parser.join();
+                    } catch ( InterruptedException ex ){
+                        Log.e(ex);
+                    }
+                    if ( suspended ){
+                        dao.resumeFullTextIndex();
+                    }
+                }
             }
-            //Map mExisting = new HashMap();
-            //this.map(existing, mExisting);
-            if ( dao.getId(existing) > 0){
-                convertedRow.put("id", dao.getId(existing));
+        } finally {
+            // Restore the profile even if the import or its cleanup failed.
+            if ( previous != null ){
+                provider.applyProfile(previous);
             }
-            //Log.p("converted row "+convertedRow);
+        }
+    }
+    
+    /**
+     * Applies the column map to an import row.
+     * @param row The row from the import set.
+     * @return The converted row, with DAO column names.
+     */
+    private Map convertRow(Map row){
+        Map convertedRow = new HashMap(row.size());
+        for ( Object key : row.keySet()){
+            if ( columnMap != null && columnMap.containsKey(key)){
+                convertedRow.put(columnMap.get(key), row.get(key));
+            } else {
+                convertedRow.put(key, row.get(key));
+            }
+
+        }
+        return convertedRow;
+    }
+    
+    /**
+     * Imports a single row, updating the existing record with the same key columns, or
+     * inserting a new one.
+     * @param convertedRow The row, with the column map already applied.
+     * @param prepared True if {@link #prepareRowForImport} has already been called on the row.
+     * @throws IOException 
+     */
+    private void importRow(Map convertedRow, boolean prepared) throws IOException{
+        Map<String,String> query = new HashMap<String,String>(keyCols.size());
+        for ( String col : keyCols ){
+            query.put(col, ""+convertedRow.get(col));
+        }
+
+        T existing = dao.fetchOne(query);
+
+        if ( existing == null ){
+            existing = dao.newObject();
+        }
+        //Map mExisting = new HashMap();
+        //this.map(existing, mExisting);
+        long id = dao.getId(existing);
+        if ( id > 0){
+            convertedRow.put("id", id);
+        }
+        //Log.p("converted row "+convertedRow);
+        if ( !prepared ){
             this.prepareRowForImport(convertedRow);
-            dao.unmap(existing, convertedRow);
-            this.beforeImport(existing, convertedRow);
-            dao.save(existing);
-            this.afterImport(existing, convertedRow);
-            
-                
+        }
+        decodeBlobs(convertedRow);
+        if ( contentHashColumn != null ){
+            convertedRow.put(contentHashColumn, contentHash(convertedRow));
+        }
+        if ( id > 0 && (skipUnchanged || contentHashColumn != null) && isUnchanged(existing, convertedRow) ){
+            unchanged++;
+            if ( mirror ){
+                seen(id);
+            }
+            return;
+        }
+        dao.unmap(existing, convertedRow);
+        this.beforeImport(existing, convertedRow);
+        dao.save(existing);
+        if ( id > 0 ){
+            updated++;
+        } else {
+            inserted++;
+        }
+        if ( mirror ){
+            seen(dao.getId(existing));
+        }
+        this.afterImport(existing, convertedRow);
+    }
+    
+    /**
+     * Decodes the string values of BLOB columns in a row from base64, as they are 
+     * written by {@link Exporter}.
+     * @param convertedRow The row.
+     * @throws IOException If a value is not valid base64.
+     */
+    private void decodeBlobs(Map convertedRow) throws IOException {
+        for ( Object o : convertedRow.entrySet() ){
+            Map.Entry e = (Map.Entry)o;
+            Object v = e.getValue();
+            if ( v instanceof String && dao.colTypes.get(e.getKey()) == DAO.ColType.BLOB ){
+                byte[] b = null;
+                try {
+                    b = Base64.decode(((String)v).getBytes("UTF-8"));
+                } catch ( RuntimeException ex ){
+                    // Handled below
+                }
+                if ( b == null ){
+                    throw new IOException("The value of BLOB column "+e.getKey()+" is not base64 encoded");
+                }
+                e.setValue(b);
+            }
+        }
+    }
+    
+    /**
+     * Checks whether an incoming row would change an existing record.
+     * @param existing The existing record.
+     * @param convertedRow The incoming row.
+     * @return True if the record has the same values as the row.
+     */
+    private boolean isUnchanged(T existing, Map convertedRow){
+        Map stored = new HashMap();
+        dao.map(existing, stored);
+        if ( contentHashColumn != null ){
+            return sameValue(contentHashColumn, stored.get(contentHashColumn), convertedRow.get(contentHashColumn));
+        }
+        for ( Object key : convertedRow.keySet() ){
+            if ( "id".equals(key) || !dao.colTypes.containsKey(key) ){
+                continue;
+            }
+            if ( !sameValue((String)key, stored.get(key), convertedRow.get(key)) ){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Compares an incoming value with a stored value.  Values from import sets are 
+     * often strings or doubles, whereas stored values have the column type, so values
+     * of integer columns are compared as longs, and values of real columns as doubles.  
+     * Values of other columns are only equal if their string forms are equal.  Booleans 
+     * are equal to 1 and 0.
+     * @param column The column name.
+     * @param a
+     * @param b
+     * @return 
+     */
+    private boolean sameValue(String column, Object a, Object b){
+        if ( a == null || b == null ){
+            return a == b;
+        }
+        if ( a instanceof byte[] || b instanceof byte[] ){
+            return a instanceof byte[] && b instanceof byte[] && Arrays.equals((byte[])a, (byte[])b);
+        }
+        if ( a instanceof Boolean ){
+            a = ((Boolean)a).booleanValue() ? "1" : "0";
+        }
+        if ( b instanceof Boolean ){
+            b = ((Boolean)b).booleanValue() ? "1" : "0";
+        }
+        if ( String.valueOf(a).equals(String.valueOf(b)) ){
+            return true;
+        }
+        DAO.ColType type = dao.colTypes.get(column);
+        if ( type == null ){
+            return false;
+        }
+        try {
+            switch ( type ){
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                    return integerValue(a) == integerValue(b);
+                case FLOAT:
+                case DOUBLE:
+                    return NumberUtil.doubleValue(a) == NumberUtil.doubleValue(b);
+                default:
+                    return false;
+            }
+        } catch ( NumberFormatException ex ){
+            return false;
+        }
+    }
+    
+    /**
+     * Converts a value of an integer column to a long.  Doubles (as produced by the 
+     * JSON parser) must be integral.
+     * @param o The value.
+     * @return 
+     * @throws NumberFormatException If the value isn't an integer.
+     */
+    private static long integerValue(Object o){
+        if ( o instanceof Double || o instanceof Float ){
+            double d = ((Number)o).doubleValue();
+            if ( d != Math.floor(d) || Double.isInfinite(d) ){
+                throw new NumberFormatException("Not an integer: "+o);
+            }
+            return (long)d;
+        } else if ( o instanceof Number ){
+            return ((Number)o).longValue();
+        }
+        return Long.parseLong(String.valueOf(o).trim());
+    }
+    
+    /**
+     * Computes a 64 bit FNV-1a hash of the columns of a row, excluding the id and 
+     * the hash column itself.  Columns are hashed in a fixed order.
+     * @param convertedRow The row.
+     * @return The hash, as a string.
+     */
+    private String contentHash(Map convertedRow){
+        long h = 0xcbf29ce484222325L;
+        for ( String col : dao.columnNames() ){
+            if ( "id".equals(col) || col.equals(contentHashColumn) || !convertedRow.containsKey(col) ){
+                continue;
+            }
+            h = fnv(h, col);
+            Object v = convertedRow.get(col);
+            if ( v instanceof byte[] ){
+                byte[] b = (byte[])v;
+                for ( int i=0; i<b.length; i++ ){
+                    h = (h ^ (b[i] & 0xff)) * 0x100000001b3L;
+                }
+            } else if ( v != null ){
+                h = fnv(h, String.valueOf(v));
+            } else {
+                // Distinguishes null from the empty string.
+                h = (h ^ 0xfe) * 0x100000001b3L;
+            }
+            // Separator, so that values can't run into the next column name.
+            h = (h ^ 0xff) * 0x100000001b3L;
+        }
+        return String.valueOf(h);
+    }
+    
+    private static long fnv(long h, String s){
+        int len = s.length();
+        for ( int i=0; i<len; i++ ){
+            char c = s.charAt(i);
+            h = (h ^ (c & 0xff)) * 0x100000001b3L;
+            h = (h ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return h;
+    }
+    
+    /**
+     * Writes imported rows, committing a transaction every {@link #getBatchSize()} rows.
+     * If checkpoints are enabled, the checkpoint is updated in the same transaction.
+     */
+    private class BatchWriter {
+        
+        /**
+         * The selector of the import, for checkpoints.
+         */
+        final String selector;
+        
+        /**
+         * The number of rows that were skipped because they were committed by an earlier import.
+         */
+        final long skipped;
+        
+        /**
+         * The number of rows written.
+         */
+        int rows;
+        
+        BatchWriter(String selector, long skipped){
+            this.selector = selector;
+            this.skipped = skipped;
+        }
+        
+        /**
+         * The number of rows written in the current transaction.
+         */
+        int pending;
+        
+        /**
+         * Whether a transaction is open.
+         */
+        boolean open;
+        
+        void write(Map convertedRow, boolean prepared) throws IOException {
+            DAOProvider provider = dao.getProvider();
+            // Without batches, a checkpointed row still needs a transaction, so that
+            // the row and its checkpoint are committed together.
+            if ( (batchSize > 0 || checkpoint != null) && !open ){
+                provider.beginTransaction();
+                open = true;
+            }
+            importRow(convertedRow, prepared);
+            rows++;
+            if ( open && ++pending >= Math.max(batchSize, 1) ){
+                if ( checkpoint != null ){
+                    writeCheckpoint(selector, skipped + rows);
+                }
+                commit();
+            }
+        }
+        
+        private void commit() throws IOException {
+            dao.getProvider().commitTransaction();
+            open = false;
+            pending = 0;
+        }
+        
+        /**
+         * Commits the last batch.
+         * @throws IOException 
+         */
+        void finish() throws IOException {
+            if ( mirror ){
+                if ( !open ){
+                    dao.getProvider().beginTransaction();
+                    open = true;
+                }
+                deleteUnseen();
+            }
+            if ( checkpoint != null ){
+                deleteCheckpoint(selector);
+            }
+            if ( open ){
+                commit();
+            }
+        }
+        
+        /**
+         * Rolls back the current batch if the import failed.  Does nothing after {@link #finish()}.
+         */
+        void abort(){
+            if ( open ){
+                open = false;
+                pending = 0;
+                try {
+                    dao.getProvider().rollbackTransaction();
+                } catch ( IOException ex ){
+                    Log.e(ex);
+                }
+            }
         }
     }
     
@@ -245,17 +1097,103 @@ public class Importer<T> {
     
     /**
      * Imports JSON data from an input stream into the database.
-     * @param is InputStream containing JSON data.
+     * @param is InputStream containing JSON data.  If the import is {@link #setPipelined(boolean) pipelined},
+     * the stream is read on a separate thread.
      * @param selector The selector to specify the path to the list of data to be imported.
      * @throws IOException 
      */
     public final void importJSON(InputStream is, String selector) throws IOException{
+        if ( pipelined ){
+            importPipelined(is, selector);
+            return;
+        }
         JSONParser parser = new JSONParser();
         Map data = parser.parseJSON(new InputStreamReader(is, "UTF-8"));
         importSet(data, selector);
         
     }
     
+    /**
+     * Imports comma-separated values from an input stream into the database.  The first
+     * record is a header containing the column names, and each subsequent record is 
+     * imported as a row.  The stream is read incrementally, so the whole file is never
+     * held in memory.
+     * @param is InputStream containing UTF-8 encoded CSV data, as specified by RFC 4180.
+     * @throws IOException 
+     * @see #importCSV(java.io.InputStream, char) 
+     */
+    public final void importCSV(InputStream is) throws IOException {
+        importCSV(is, ',');
+    }
+    
+    /**
+     * Imports delimited values from an input stream into the database.  The first
+     * record is a header containing the column names, and each subsequent record is 
+     * imported as a row.  Empty fields are imported as null, unless they are quoted, in
+     * which case they are imported as empty strings.
+     * @param is InputStream containing UTF-8 encoded CSV data.
+     * @param delimiter The field delimiter.  E.g. ',' or '\t'.
+     * @throws IOException 
+     */
+    public final void importCSV(InputStream is, final char delimiter) throws IOException {
+        final TextReader reader = new TextReader(new InputStreamReader(is, "UTF-8"));
+        final String[] header = reader.readRecord(delimiter);
+        if ( header == null ){
+            throw new IOException("CSV import is missing the header record.");
+        }
+        importRows(new RowSource(){
+            int count = 1;
+            public Map next() throws IOException {
+                String[] record = reader.readRecord(delimiter);
+                count++;
+                // Skip blank lines
+                while ( record != null && record.length == 1 && record[0] == null ){
+                    record = reader.readRecord(delimiter);
+                    count++;
+                }
+                if ( record == null ){
+                    return null;
+                }
+                if ( record.length > header.length ){
+                    throw new IOException("CSV record "+count+" has "+record.length+" fields, but the header only has "+header.length);
+                }
+                Map row = new HashMap(header.length);
+                for ( int i=0; i<record.length; i++ ){
+                    row.put(header[i], record[i]);
+                }
+                return row;
+            }
+        }, null);
+    }
+    
+    /**
+     * Imports newline-delimited JSON from an input stream into the database.  Each
+     * non-blank line contains a single JSON object, which is imported as a row.  The stream 
+     * is read and parsed one line at a time, so the whole file is never held in memory.
+     * @param is InputStream containing UTF-8 encoded NDJSON data.
+     * @throws IOException 
+     */
+    public final void importNDJSON(InputStream is) throws IOException {
+        final TextReader reader = new TextReader(new InputStreamReader(is, "UTF-8"));
+        final JSONParser parser = new JSONParser();
+        importRows(new RowSource(){
+            public Map next() throws IOException {
+                int len;
+                while ( (len = reader.readLine()) >= 0 ){
+                    char[] line = reader.getLine();
+                    int start = 0;
+                    while ( start < len && line[start] <= ' ' ){
+                        start++;
+                    }
+                    if ( start < len ){
+                        return parser.parseJSON(new CharArrayReader(line, start, len-start));
+                    }
+                }
+                return null;
+            }
+        }, null);
+    }
+    
    
     
 }
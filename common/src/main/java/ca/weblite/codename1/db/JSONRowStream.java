@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import com.codename1.io.JSONParseCallback;
+import com.codename1.util.StringUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A streaming JSON callback that extracts the rows at a selector path, and passes
+ * them to {@link #row(java.util.Map)} one at a time, so that a large JSON document 
+ * never has to be held in memory.  The selector has the same format as in 
+ * {@link Importer#importSet(java.util.Map, java.lang.String)}: e.g. "tables/data" 
+ * selects the list at key "data" of the map at key "tables" of the root map.
+ * 
+ * <p>Rows are expected to be flat maps.  Values nested inside a row are ignored.
+ * Values are passed through as the strings reported by the parser, with the JSON 
+ * literal null converted to null.  The string "null" is kept as a string.</p>
+ */
+abstract class JSONRowStream implements JSONParseCallback {
+    
+    /**
+     * The selector path.
+     */
+    private final List<String> path;
+    
+    /**
+     * The names of the blocks and arrays enclosing the current parse position.
+     * The root block is not included.
+     */
+    private final List<String> stack = new ArrayList<String>();
+    
+    /**
+     * Whether each of the entries in stack is an array.
+     */
+    private final List<Boolean> arrays = new ArrayList<Boolean>();
+    
+    /**
+     * Whether the parser is inside the root block.
+     */
+    private boolean inRoot;
+    
+    /**
+     * The row that is currently being read, or null if the parser isn't inside a row.
+     */
+    private Map row;
+    
+    /**
+     * Depth of nesting within the current row, for values that are ignored.
+     */
+    private int rowDepth;
+    
+    /**
+     * The last value reported with {@link #stringToken(java.lang.String)}.  The parser
+     * reports quoted values with stringToken() before passing them to 
+     * {@link #keyValue(java.lang.String, java.lang.String)}, which is how the string 
+     * "null" is told apart from the literal null.
+     */
+    private String lastString;
+    
+    private boolean alive = true;
+    
+    JSONRowStream(String selector){
+        path = StringUtil.tokenize(selector, "/");
+    }
+    
+    /**
+     * Called for each row that is read.
+     * @param row The row.
+     * @return False to stop parsing.
+     */
+    abstract boolean row(Map row);
+    
+    /**
+     * Checks whether the parse position is directly inside the selected list.
+     */
+    private boolean inRows(){
+        int len = path.size();
+        if ( stack.size() != len || !arrays.get(len-1).booleanValue() ){
+            return false;
+        }
+        for ( int i=0; i<len; i++ ){
+            if ( !path.get(i).equals(stack.get(i)) ){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void push(String name, boolean array){
+        if ( row != null ){
+            rowDepth++;
+        } else if ( !inRoot ){
+            inRoot = true;
+        } else if ( !array && inRows() ){
+            row = new HashMap();
+            rowDepth = 0;
+        } else {
+            stack.add(name);
+            arrays.add(array ? Boolean.TRUE : Boolean.FALSE);
+        }
+    }
+    
+    private void pop(){
+        if ( row != null ){
+            if ( rowDepth > 0 ){
+                rowDepth--;
+            } else {
+                Map r = row;
+                row = null;
+                if ( !row(r) ){
+                    alive = false;
+                }
+            }
+        } else if ( !stack.isEmpty() ){
+            stack.remove(stack.size()-1);
+            arrays.remove(arrays.size()-1);
+        } else {
+            inRoot = false;
+        }
+    }
+
+    public void startBlock(String blockName) {
+        push(blockName, false);
+    }
+
+    public void endBlock(String blockName) {
+        pop();
+    }
+
+    public void startArray(String arrayName) {
+        push(arrayName, true);
+    }
+
+    public void endArray(String arrayName) {
+        pop();
+    }
+
+    public void stringToken(String tok) {
+        lastString = tok;
+    }
+
+    public void numericToken(double tok) {
+        lastString = null;
+    }
+
+    public void longToken(long tok) {
+        lastString = null;
+    }
+
+    public void booleanToken(boolean tok) {
+        lastString = null;
+    }
+
+    public void keyValue(String key, String value) {
+        boolean quoted = lastString != null && lastString.equals(value);
+        lastString = null;
+        if ( row != null && rowDepth == 0 && key != null ){
+            row.put(key, "null".equals(value) && !quoted ? null : value);
+        }
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes JSON text to a Writer through a reusable buffer.  This only handles the
+ * low level details (escaping and buffering), so the caller is responsible for writing
+ * well formed JSON.
+ */
+class JSONWriter {
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private final Writer writer;
+    private final char[] buf = new char[8192];
+    private int len;
+    
+    JSONWriter(Writer writer){
+        this.writer = writer;
+    }
+    
+    /**
+     * Writes a character without escaping it.
+     * @param c
+     * @throws IOException 
+     */
+    void raw(char c) throws IOException {
+        if ( len == buf.length ){
+            flushBuffer();
+        }
+        buf[len++] = c;
+    }
+    
+    /**
+     * Writes a string without escaping it.
+     * @param s
+     * @throws IOException 
+     */
+    void raw(String s) throws IOException {
+        int n = s.length();
+        if ( n > buf.length - len ){
+            flushBuffer();
+            if ( n > buf.length ){
+                writer.write(s);
+                return;
+            }
+        }
+        s.getChars(0, n, buf, len);
+        len += n;
+    }
+    
+    /**
+     * Writes a string as a quoted and escaped JSON string, or null.
+     * @param s
+     * @throws IOException 
+     */
+    void string(String s) throws IOException {
+        if ( s == null ){
+            raw("null");
+            return;
+        }
+        raw('"');
+        int n = s.length();
+        for ( int i=0; i<n; i++ ){
+            char c = s.charAt(i);
+            switch ( c ){
+                case '"':
+                    raw('\\');
+                    raw('"');
+                    break;
+                case '\\':
+                    raw('\\');
+                    raw('\\');
+                    break;
+                case '\n':
+                    raw('\\');
+                    raw('n');
+                    break;
+                case '\r':
+                    raw('\\');
+                    raw('r');
+                    break;
+                case '\t':
+                    raw('\\');
+                    raw('t');
+                    break;
+                default:
+                    if ( c < 0x20 || c == 0x2028 || c == 0x2029 ){
+                        raw("\\u");
+                        raw(HEX[(c >> 12) & 0xf]);
+                        raw(HEX[(c >> 8) & 0xf]);
+                        raw(HEX[(c >> 4) & 0xf]);
+                        raw(HEX[c & 0xf]);
+                    } else {
+                        raw(c);
+                    }
+            }
+        }
+        raw('"');
+    }
+    
+    /**
+     * Writes an integer value.
+     * @param v
+     * @throws IOException 
+     */
+    void number(long v) throws IOException {
+        raw(Long.toString(v));
+    }
+    
+    /**
+     * Writes a real value.  NaN and infinite values, which JSON can't represent, are written as null.
+     * @param v
+     * @throws IOException 
+     */
+    void number(double v) throws IOException {
+        if ( Double.isNaN(v) || Double.isInfinite(v) ){
+            raw("null");
+        } else {
+            raw(Double.toString(v));
+        }
+    }
+    
+    private void flushBuffer() throws IOException {
+        if ( len > 0 ){
+            writer.write(buf, 0, len);
+            len = 0;
+        }
+    }
+    
+    /**
+     * Writes the buffered text, and flushes the underlying Writer.
+     * @throws IOException 
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Database;
+import com.codename1.db.Row;
+import java.io.IOException;
+
+/**
+ * A Cursor wrapper that counts the rows read from a query, and reports the query
+ * to the provider's {@link DAOMetrics} and {@link SlowQueryLog} when it is closed.
+ */
+class MeteredCursor implements Cursor {
+    private final Cursor c;
+    private final DAOProvider provider;
+    private final Database db;
+    private final DAOMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+    private final String table;
+    private final String sql;
+    private final String[] params;
+    private final long metricsStart;
+    private final long start;
+    private int rows;
+    private boolean closed;
+    
+    MeteredCursor(Cursor c, DAOProvider provider, Database db, DAOMetrics metrics, SlowQueryLog slowQueryLog, 
+            String table, String sql, String[] params, long metricsStart, long start){
+        this.c = c;
+        this.provider = provider;
+        this.db = db;
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+        this.table = table;
+        this.sql = sql;
+        this.params = params;
+        this.metricsStart = metricsStart;
+        this.start = start;
+    }
+
+    public boolean first() throws IOException {
+        return c.first();
+    }
+
+    public boolean last() throws IOException {
+        return c.last();
+    }
+
+    public boolean next() throws IOException {
+        if ( c.next() ){
+            rows++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean prev() throws IOException {
+        return c.prev();
+    }
+
+    public int getColumnIndex(String columnName) throws IOException {
+        return c.getColumnIndex(columnName);
+    }
+
+    public String getColumnName(int columnIndex) throws IOException {
+        return c.getColumnName(columnIndex);
+    }
+
+    public int getColumnCount() throws IOException {
+        return c.getColumnCount();
+    }
+
+    public int getPosition() throws IOException {
+        return c.getPosition();
+    }
+
+    public boolean position(int row) throws IOException {
+        return c.position(row);
+    }
+
+    public void close() throws IOException {
+        c.close();
+        if ( !closed ){
+            closed = true;
+            if ( metrics != null ){
+                metrics.statementExecuted(table, sql, rows, metrics.now() - metricsStart);
+            }
+            if ( slowQueryLog != null ){
+                provider.statementCompleted(db, slowQueryLog, table, sql, params, rows, System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    public Row getRow() throws IOException {
+        return c.getRow();
+    }
+}
@@ -7,10 +7,11 @@
 package ca.weblite.codename1.db;
 
 /**
- *
+ * Utility methods for converting the loosely typed values found in row Maps (which may
+ * be boxed numbers of any type, or strings) into primitives.  Used by generated DAOs.
  * @author shannah
  */
-class NumberUtil {
+public class NumberUtil {
     public static int intValue(Object o){
         if ( o == null ){
             return 0;
@@ -68,4 +69,18 @@ class NumberUtil {
         }
     }
     
+    public static boolean booleanValue(Object o){
+        if ( o == null ){
+            return false;
+        }
+        if ( o instanceof Boolean ){
+            return ((Boolean)o).booleanValue();
+        } else if ( o instanceof String ){
+            String s = (String)o;
+            return "true".equalsIgnoreCase(s) || (!"false".equalsIgnoreCase(s) && s.length() > 0 && doubleValue(s) != 0);
+        } else {
+            return doubleValue(o) != 0;
+        }
+    }
+    
 }
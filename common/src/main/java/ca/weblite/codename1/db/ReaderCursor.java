@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Database;
+import com.codename1.db.Row;
+import java.io.IOException;
+
+/**
+ * A Cursor wrapper for queries run on a reader connection, which returns the reader
+ * to the provider's pool when it is closed.
+ */
+class ReaderCursor implements Cursor {
+    private final Cursor c;
+    private final DAOProvider provider;
+    private final Database reader;
+    private boolean closed;
+    
+    ReaderCursor(Cursor c, DAOProvider provider, Database reader){
+        this.c = c;
+        this.provider = provider;
+        this.reader = reader;
+    }
+
+    public boolean first() throws IOException {
+        return c.first();
+    }
+
+    public boolean last() throws IOException {
+        return c.last();
+    }
+
+    public boolean next() throws IOException {
+        return c.next();
+    }
+
+    public boolean prev() throws IOException {
+        return c.prev();
+    }
+
+    public int getColumnIndex(String columnName) throws IOException {
+        return c.getColumnIndex(columnName);
+    }
+
+    public String getColumnName(int columnIndex) throws IOException {
+        return c.getColumnName(columnIndex);
+    }
+
+    public int getColumnCount() throws IOException {
+        return c.getColumnCount();
+    }
+
+    public int getPosition() throws IOException {
+        return c.getPosition();
+    }
+
+    public boolean position(int row) throws IOException {
+        return c.position(row);
+    }
+
+    public void close() throws IOException {
+        if ( closed ){
+            return;
+        }
+        closed = true;
+        try {
+            c.close();
+        } finally {
+            provider.releaseReader(reader);
+        }
+    }
+
+    public Row getRow() throws IOException {
+        return c.getRow();
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A second-level cache of decoded table rows.  Unlike the entity cache in {@link DAO},
+ * which only holds soft/weak references to live entity objects, this cache holds hard
+ * references to compact copies of the row data (one value array per row), so that rows
+ * can be re-hydrated into new entity objects without going back to the database.
+ *
+ * <p>The cache has a byte budget.  When the estimated size of the cached rows exceeds the
+ * budget, the least recently used rows are evicted.</p>
+ *
+ * <p>A single RowCache may be shared by multiple {@link DAOProvider} objects, as long as
+ * they all operate on the same database.  Rows are keyed on table name and ID.</p>
+ *
+ * @see DAOProvider#setRowCache(ca.weblite.codename1.db.RowCache)
+ */
+public class RowCache {
+
+    /**
+     * Default byte budget used by {@link #RowCache()}.
+     */
+    public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    /**
+     * A single cached row.  Entries form a doubly linked list in LRU order.
+     */
+    private static class Entry {
+        String table;
+        long id;
+
+        /**
+         * The column names.  This array is shared with the DAO that stored the row.
+         */
+        String[] columns;
+        Object[] values;
+        int size;
+        Entry prev;
+        Entry next;
+    }
+
+    /**
+     * Maps table names to the rows cached for that table.
+     */
+    private final Map<String,Map<Long,Entry>> tables = new HashMap<String,Map<Long,Entry>>();
+
+    /**
+     * The most recently used entry.
+     */
+    private Entry head;
+
+    /**
+     * The least recently used entry.
+     */
+    private Entry tail;
+
+    private long maxBytes;
+    private long bytes;
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    /**
+     * Creates a new cache with the default byte budget.
+     */
+    public RowCache(){
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a new cache with the given byte budget.
+     * @param maxBytes The maximum (estimated) number of bytes of row data to retain.
+     */
+    public RowCache(long maxBytes){
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Sets the byte budget for this cache.  If the cache is currently larger than
+     * the new budget, rows will be evicted immediately.
+     * @param maxBytes
+     */
+    public synchronized void setMaxBytes(long maxBytes){
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    /**
+     * Gets the byte budget for this cache.
+     * @return
+     */
+    public synchronized long getMaxBytes(){
+        return maxBytes;
+    }
+
+    /**
+     * Gets the estimated number of bytes currently held by this cache.
+     * @return
+     */
+    public synchronized long getSize(){
+        return bytes;
+    }
+
+    /**
+     * Gets the number of lookups that were served from the cache.
+     * @return
+     */
+    public synchronized int getHits(){
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that were not found in the cache.
+     * @return
+     */
+    public synchronized int getMisses(){
+        return misses;
+    }
+
+    /**
+     * Gets the number of rows that have been evicted to stay within the byte budget.
+     * @return
+     */
+    public synchronized int getEvictions(){
+        return evictions;
+    }
+
+    /**
+     * Looks up a row in the cache and copies its values into the provided map.
+     * @param table The table name.
+     * @param id The ID of the row.
+     * @param out Map that will receive the column values of the row.
+     * @return True if the row was found in the cache.  False otherwise.
+     */
+    public synchronized boolean get(String table, long id, Map out){
+        Map<Long,Entry> rows = tables.get(table);
+        Entry e = rows == null ? null : rows.get(id);
+        if ( e == null ){
+            misses++;
+            return false;
+        }
+        hits++;
+        moveToHead(e);
+        String[] columns = e.columns;
+        Object[] values = e.values;
+        int len = columns.length;
+        for ( int i=0; i<len; i++ ){
+            out.put(columns[i], copy(values[i]));
+        }
+        return true;
+    }
+    
+    /**
+     * Looks up a row in the cache, and returns a reader over a copy of its values.
+     * This avoids building a Map for DAOs that support 
+     * {@link DAO#hydrate(java.lang.Object, ca.weblite.codename1.db.RowReader)}.
+     * @param table The table name.
+     * @param id The ID of the row.
+     * @return A reader over the row, or null if the row isn't in the cache.
+     */
+    synchronized ArrayRowReader getRow(String table, long id){
+        Map<Long,Entry> rows = tables.get(table);
+        Entry e = rows == null ? null : rows.get(id);
+        if ( e == null ){
+            misses++;
+            return null;
+        }
+        hits++;
+        moveToHead(e);
+        int len = e.values.length;
+        Object[] values = new Object[len];
+        for ( int i=0; i<len; i++ ){
+            values[i] = copy(e.values[i]);
+        }
+        return new ArrayRowReader(e.columns, values);
+    }
+    
+    /**
+     * Copies blob values.  Blobs are mutable so each entity gets its own copy.
+     * @param v A column value.
+     * @return 
+     */
+    private static Object copy(Object v){
+        if ( v instanceof byte[] ){
+            byte[] b = (byte[])v;
+            byte[] copy = new byte[b.length];
+            System.arraycopy(b, 0, copy, 0, b.length);
+            return copy;
+        }
+        return v;
+    }
+
+    /**
+     * Adds a row to the cache, replacing any existing row with the same ID.
+     * @param table The table name.
+     * @param id The ID of the row.
+     * @param columns The column names of the table.  This array is retained by the cache,
+     * so it should not be modified after it is passed here.
+     * @param row Map of column values for the row.
+     */
+    public synchronized void put(String table, long id, String[] columns, Map row){
+        if ( maxBytes <= 0 ){
+            return;
+        }
+        int len = columns.length;
+        Object[] values = new Object[len];
+        for ( int i=0; i<len; i++ ){
+            values[i] = row.get(columns[i]);
+        }
+        store(table, id, columns, values);
+    }
+    
+    /**
+     * Adds a row to the cache, replacing any existing row with the same ID.
+     * @param table The table name.
+     * @param id The ID of the row.
+     * @param columns The column names of the table.  This array is retained by the cache,
+     * so it should not be modified after it is passed here.
+     * @param values The column values for the row.  values[i] is the value of the column 
+     * columns[i].  This array is also retained by the cache.
+     */
+    public synchronized void put(String table, long id, String[] columns, Object[] values){
+        if ( maxBytes <= 0 ){
+            return;
+        }
+        store(table, id, columns, values);
+    }
+    
+    private void store(String table, long id, String[] columns, Object[] values){
+        int len = columns.length;
+        int size = 64 + 16 * len;
+        for ( int i=0; i<len; i++ ){
+            size += sizeOf(values[i]);
+        }
+        if ( size > maxBytes ){
+            remove(table, id);
+            return;
+        }
+        Map<Long,Entry> rows = tables.get(table);
+        if ( rows == null ){
+            rows = new HashMap<Long,Entry>();
+            tables.put(table, rows);
+        }
+        Entry e = rows.get(id);
+        if ( e == null ){
+            e = new Entry();
+            e.table = table;
+            e.id = id;
+            rows.put(id, e);
+        } else {
+            bytes -= e.size;
+            unlink(e);
+        }
+        e.columns = columns;
+        e.values = values;
+        e.size = size;
+        bytes += size;
+        linkAtHead(e);
+        trim();
+    }
+
+    /**
+     * Removes a single row from the cache.
+     * @param table The table name.
+     * @param id The ID of the row to remove.
+     */
+    public synchronized void invalidate(String table, long id){
+        remove(table, id);
+    }
+
+    /**
+     * Removes all rows of the given table from the cache.
+     * @param table The table name.
+     */
+    public synchronized void invalidate(String table){
+        Map<Long,Entry> rows = tables.remove(table);
+        if ( rows == null ){
+            return;
+        }
+        for ( Entry e : rows.values() ){
+            bytes -= e.size;
+            unlink(e);
+        }
+    }
+
+    /**
+     * Removes all rows from the cache.
+     */
+    public synchronized void clear(){
+        tables.clear();
+        head = null;
+        tail = null;
+        bytes = 0;
+    }
+
+    private void remove(String table, long id){
+        Map<Long,Entry> rows = tables.get(table);
+        if ( rows == null ){
+            return;
+        }
+        Entry e = rows.remove(id);
+        if ( e != null ){
+            bytes -= e.size;
+            unlink(e);
+            if ( rows.isEmpty() ){
+                tables.remove(table);
+            }
+        }
+    }
+
+    /**
+     * Evicts least recently used rows until the cache is within its byte budget.
+     */
+    private void trim(){
+        while ( bytes > maxBytes && tail != null ){
+            evictions++;
+            remove(tail.table, tail.id);
+        }
+    }
+
+    private void moveToHead(Entry e){
+        if ( e != head ){
+            unlink(e);
+            linkAtHead(e);
+        }
+    }
+
+    private void linkAtHead(Entry e){
+        e.prev = null;
+        e.next = head;
+        if ( head != null ){
+            head.prev = e;
+        }
+        head = e;
+        if ( tail == null ){
+            tail = e;
+        }
+    }
+
+    private void unlink(Entry e){
+        if ( e.prev != null ){
+            e.prev.next = e.next;
+        } else if ( head == e ){
+            head = e.next;
+        }
+        if ( e.next != null ){
+            e.next.prev = e.prev;
+        } else if ( tail == e ){
+            tail = e.prev;
+        }
+        e.prev = null;
+        e.next = null;
+    }
+
+    /**
+     * Estimates the number of bytes retained by a single column value.
+     * @param v
+     * @return
+     */
+    private static int sizeOf(Object v){
+        if ( v == null ){
+            return 0;
+        } else if ( v instanceof String ){
+            return 40 + 2 * ((String)v).length();
+        } else if ( v instanceof byte[] ){
+            return 16 + ((byte[])v).length;
+        }
+        return 16;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import java.io.IOException;
+
+/**
+ * A bounded blocking queue that hands rows from a producer thread to a consumer
+ * thread.  {@link #put(java.lang.Object)} blocks while the queue is full, which 
+ * provides backpressure, so the producer can't get arbitrarily far ahead of the consumer.
+ */
+class RowQueue {
+    
+    private final Object[] items;
+    private int head;
+    private int count;
+    
+    /**
+     * Set by the producer when there are no more rows.
+     */
+    private boolean closed;
+    
+    /**
+     * Set by the consumer when it stops taking rows.
+     */
+    private boolean aborted;
+    
+    /**
+     * Error that caused the producer to stop.
+     */
+    private Throwable error;
+    
+    RowQueue(int capacity){
+        items = new Object[Math.max(1, capacity)];
+    }
+    
+    /**
+     * Adds a row to the queue, waiting for space if the queue is full.
+     * @param row The row.
+     * @return False if the consumer has aborted, in which case the producer should stop.
+     */
+    synchronized boolean put(Object row){
+        while ( count == items.length && !aborted ){
+            try {
+                wait();
+            } catch ( InterruptedException ex ){
+                aborted = true;
+            }
+        }
+        if ( aborted ){
+            return false;
+        }
+        items[(head + count) % items.length] = row;
+        count++;
+        notifyAll();
+        return true;
+    }
+    
+    /**
+     * Takes the next row from the queue, waiting for one if the queue is empty.
+     * @return The next row, or null if the producer has closed the queue and all
+     * rows have been taken.
+     * @throws IOException If the producer failed.
+     */
+    synchronized Object take() throws IOException {
+        while ( count == 0 && !closed ){
+            try {
+                wait();
+            } catch ( InterruptedException ex ){
+                throw new IOException("Interrupted while waiting for rows");
+            }
+        }
+        if ( error != null ){
+            if ( error instanceof IOException ){
+                throw (IOException)error;
+            }
+            throw new IOException("Failed to read rows: "+error.getMessage());
+        }
+        if ( count == 0 ){
+            return null;
+        }
+        Object row = items[head];
+        items[head] = null;
+        head = (head + 1) % items.length;
+        count--;
+        notifyAll();
+        return row;
+    }
+    
+    /**
+     * Called by the producer when there are no more rows.
+     * @param error The error that stopped the producer, or null if it completed normally.
+     */
+    synchronized void close(Throwable error){
+        closed = true;
+        this.error = error;
+        notifyAll();
+    }
+    
+    /**
+     * Called by the consumer when it stops taking rows.  Any rows in the queue are discarded,
+     * and the producer is woken up.
+     */
+    synchronized void abort(){
+        aborted = true;
+        for ( int i=0; i<items.length; i++ ){
+            items[i] = null;
+        }
+        count = 0;
+        notifyAll();
+    }
+    
+    synchronized boolean isAborted(){
+        return aborted;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import java.io.IOException;
+
+/**
+ * Typed, ordinal-based access to the columns of a single row.  This is passed to 
+ * {@link DAO#hydrate(java.lang.Object, ca.weblite.codename1.db.RowReader)} so that 
+ * DAOs can copy column values directly into their entity objects, without first boxing
+ * them into a Map.
+ * 
+ * <p>Column ordinals are stable for the lifetime of the reader, so they only need to be
+ * looked up once.  {@link #ordinals(java.lang.String[])} caches the lookup for the last
+ * array of names that it was passed.</p>
+ */
+public abstract class RowReader {
+    
+    private String[] lastNames;
+    private int[] lastOrdinals;
+    
+    /**
+     * Gets the number of columns in the row.
+     * @return 
+     */
+    public abstract int getColumnCount();
+    
+    /**
+     * Gets the name of the column at the given ordinal.
+     * @param index The column ordinal.
+     * @return 
+     */
+    public abstract String getColumnName(int index);
+    
+    /**
+     * Gets the ordinal of the column with the given name.
+     * @param name The column name.
+     * @return The ordinal, or -1 if the row has no such column.
+     */
+    public int getColumnIndex(String name){
+        int len = getColumnCount();
+        for ( int i=0; i<len; i++ ){
+            if ( name.equals(getColumnName(i)) ){
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the ordinals of the columns with the given names.  The result is cached, so 
+     * callers should pass the same (unmodified) array each time.
+     * @param names The column names.
+     * @return Array with the ordinal of each of the names, or -1 for names that
+     * the row has no column for.
+     */
+    public int[] ordinals(String[] names){
+        if ( names != lastNames ){
+            String[] columns = new String[getColumnCount()];
+            for ( int i=0; i<columns.length; i++ ){
+                columns[i] = getColumnName(i);
+            }
+            lastOrdinals = DAO.columnIndexes(columns, names);
+            lastNames = names;
+        }
+        return lastOrdinals;
+    }
+    
+    /**
+     * Checks if the value of a column is null.  This reads the value as a string, which 
+     * fails for blobs on some platforms (e.g. Android), so check BLOB columns by 
+     * reading them with {@link #getBlob(int)} instead.
+     * @param index The column ordinal.
+     * @return
+     * @throws IOException 
+     */
+    public abstract boolean isNull(int index) throws IOException;
+    
+    public abstract long getLong(int index) throws IOException;
+    
+    public abstract int getInt(int index) throws IOException;
+    
+    public abstract short getShort(int index) throws IOException;
+    
+    public abstract double getDouble(int index) throws IOException;
+    
+    public abstract float getFloat(int index) throws IOException;
+    
+    public abstract String getString(int index) throws IOException;
+    
+    public abstract byte[] getBlob(int index) throws IOException;
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DAOMetrics} implementation that keeps counters per table, and counts and latency
+ * histograms per statement shape, in memory.  It is cheap enough to leave enabled in production.
+ * Use {@link #snapshot()} to obtain the current values as a structure of Maps, Lists and 
+ * numbers, which can be serialized (e.g. to JSON) and sent to a telemetry service.
+ * 
+ * <p>Durations are measured in milliseconds with {@link System#currentTimeMillis()}.  Subclasses
+ * may override {@link #now()} to use a finer clock on platforms that have one, in which case
+ * they must also override {@link #getUnitsPerSecond()}.  E.g. on Java SE:</p>
+ * 
+ * <pre>
+ * new SimpleDAOMetrics(){
+ *     public long now(){
+ *         return System.nanoTime();
+ *     }
+ *     public long getUnitsPerSecond(){
+ *         return 1000000000L;
+ *     }
+ * };
+ * </pre>
+ * 
+ * <p>Statements are grouped by shape, which is their SQL with lists of <code>?</code> placeholders
+ * normalized, so that e.g. deletes of different numbers of IDs count as one shape.  See 
+ * {@link #statementShape(java.lang.String)}.</p>
+ */
+public class SimpleDAOMetrics implements DAOMetrics {
+    
+    /**
+     * Number of buckets in the latency histograms.  Durations are converted to microseconds,
+     * so that histograms don't depend on the unit of {@link #now()}.  Bucket 0 counts durations 
+     * under 1 microsecond, and bucket i counts durations in the range [2^(i-1), 2^i) microseconds.  
+     * The last bucket also counts all longer durations.
+     */
+    public static final int HISTOGRAM_BUCKETS = 24;
+    
+    /**
+     * The default maximum number of distinct statement shapes that are tracked.
+     */
+    public static final int DEFAULT_MAX_SHAPES = 256;
+    
+    /**
+     * Shape key under which statements are counted once the maximum number of shapes
+     * has been reached.
+     */
+    public static final String OTHER_SHAPE = "(other)";
+    
+    private static class TableStats {
+        long statements;
+        long rowsRead;
+        long rowsHydrated;
+        long rowsFromCache;
+        long unmapCount;
+        long unmapTime;
+        long rowsImported;
+        long importTime;
+        long schemaLoadTime;
+    }
+    
+    private static class ShapeStats {
+        String table;
+        String sql;
+        long count;
+        long totalTime;
+        long maxTime;
+        long rows;
+        final long[] histogram = new long[HISTOGRAM_BUCKETS];
+    }
+    
+    private final Map<String,TableStats> tables = new HashMap<String,TableStats>();
+    private final Map<String,ShapeStats> shapes = new HashMap<String,ShapeStats>();
+    private int maxShapes = DEFAULT_MAX_SHAPES;
+    
+    /**
+     * Sets the maximum number of distinct statement shapes that are tracked.  Statements
+     * of additional shapes are counted under {@link #OTHER_SHAPE}.
+     * @param max 
+     */
+    public synchronized void setMaxShapes(int max){
+        maxShapes = max;
+    }
+    
+    public long now() {
+        return System.currentTimeMillis();
+    }
+    
+    /**
+     * Gets the number of units of {@link #now()} per second.  Used to convert durations
+     * to rates and to the microseconds of the latency histograms.
+     * @return 1000, since {@link #now()} returns milliseconds.
+     */
+    public long getUnitsPerSecond() {
+        return 1000;
+    }
+    
+    /**
+     * Gets the shape of an SQL statement, which identifies the statement regardless of the 
+     * number of params in its lists of placeholders.  Parenthesized lists of <code>?</code> 
+     * placeholders are replaced by <code>(?,...)</code>, and repetitions of such lists (e.g.
+     * the rows of a multi-row <code>INSERT ... VALUES (?,?),(?,?)</code>) are collapsed into one.
+     * @param sql The SQL statement.
+     * @return The shape.  E.g. <code>DELETE FROM "people" WHERE id IN (?,...)</code>.
+     */
+    public static String statementShape(String sql){
+        if ( sql == null || sql.indexOf('?') < 0 ){
+            return sql;
+        }
+        int len = sql.length();
+        StringBuilder sb = new StringBuilder(len);
+        int i = 0;
+        while ( i < len ){
+            int end = sql.charAt(i) == '(' ? paramListEnd(sql, i) : -1;
+            if ( end < 0 ){
+                sb.append(sql.charAt(i++));
+                continue;
+            }
+            sb.append("(?,...)");
+            i = end;
+            // Skip repetitions of the list
+            while ( true ){
+                int j = skipSpaces(sql, i);
+                if ( j >= len || sql.charAt(j) != ',' ){
+                    break;
+                }
+                j = skipSpaces(sql, j+1);
+                if ( j >= len || sql.charAt(j) != '(' ){
+                    break;
+                }
+                end = paramListEnd(sql, j);
+                if ( end < 0 ){
+                    break;
+                }
+                i = end;
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Finds the end of a parenthesized list of <code>?</code> placeholders.
+     * @param sql The SQL statement.
+     * @param start The index of the opening parenthesis.
+     * @return The index after the closing parenthesis, or -1 if the parentheses don't 
+     * enclose a list of placeholders.
+     */
+    private static int paramListEnd(String sql, int start){
+        int len = sql.length();
+        boolean found = false;
+        for ( int i=start+1; i<len; i++ ){
+            char ch = sql.charAt(i);
+            if ( ch == ')' ){
+                return found ? i+1 : -1;
+            } else if ( ch == '?' ){
+                found = true;
+            } else if ( ch != ',' && ch != ' ' ){
+                return -1;
+            }
+        }
+        return -1;
+    }
+    
+    private static int skipSpaces(String sql, int i){
+        int len = sql.length();
+        while ( i < len && sql.charAt(i) == ' ' ){
+            i++;
+        }
+        return i;
+    }
+    
+    private TableStats table(String name){
+        TableStats t = tables.get(name);
+        if ( t == null ){
+            t = new TableStats();
+            tables.put(name, t);
+        }
+        return t;
+    }
+    
+    private int bucket(long elapsed){
+        long unitsPerSecond = getUnitsPerSecond();
+        if ( unitsPerSecond >= 1000000 ){
+            elapsed /= unitsPerSecond / 1000000;
+        } else {
+            elapsed *= 1000000 / unitsPerSecond;
+        }
+        int b = 0;
+        while ( elapsed > 0 && b < HISTOGRAM_BUCKETS-1 ){
+            elapsed >>= 1;
+            b++;
+        }
+        return b;
+    }
+    
+    public synchronized void statementExecuted(String table, String sql, int rows, long elapsed) {
+        TableStats t = table(table);
+        t.statements++;
+        if ( rows > 0 ){
+            t.rowsRead += rows;
+        }
+        sql = statementShape(sql);
+        ShapeStats s = shapes.get(sql);
+        if ( s == null ){
+            if ( shapes.size() >= maxShapes ){
+                sql = OTHER_SHAPE;
+                s = shapes.get(sql);
+            }
+            if ( s == null ){
+                s = new ShapeStats();
+                s.table = table;
+                s.sql = sql;
+                shapes.put(sql, s);
+            }
+        }
+        s.count++;
+        s.totalTime += elapsed;
+        if ( elapsed > s.maxTime ){
+            s.maxTime = elapsed;
+        }
+        if ( rows > 0 ){
+            s.rows += rows;
+        }
+        s.histogram[bucket(elapsed)]++;
+    }
+
+    public synchronized void rowsHydrated(String table, int rows) {
+        table(table).rowsHydrated += rows;
+    }
+
+    public synchronized void rowsFromCache(String table, int rows) {
+        table(table).rowsFromCache += rows;
+    }
+
+    public synchronized void unmapped(String table, long elapsed) {
+        TableStats t = table(table);
+        t.unmapCount++;
+        t.unmapTime += elapsed;
+    }
+
+    public synchronized void imported(String table, int rows, long elapsed) {
+        TableStats t = table(table);
+        t.rowsImported += rows;
+        t.importTime += elapsed;
+    }
+
+    public synchronized void schemaLoaded(String table, long elapsed) {
+        table(table).schemaLoadTime += elapsed;
+    }
+    
+    /**
+     * Clears all counters and histograms.
+     */
+    public synchronized void reset(){
+        tables.clear();
+        shapes.clear();
+    }
+    
+    /**
+     * Gets a snapshot of the current metrics.  The result is a Map with three keys:
+     * <ul>
+     *  <li>"unitsPerSecond" : The number of units of the durations per second.  See 
+     *  {@link #getUnitsPerSecond()}.</li>
+     *  <li>"tables" : A Map from table name to a Map of counters: statements, rowsRead, 
+     *  rowsHydrated, rowsFromCache, cacheHitRatio, unmapCount, unmapTime, rowsImported, 
+     *  importTime, importRowsPerSecond and schemaLoadTime.</li>
+     *  <li>"statements" : A List of Maps, one per statement shape, with the keys table, sql
+     *  (the shape), count, totalTime, maxTime, rows and histogram (a List of bucket counts, 
+     *  see {@link #HISTOGRAM_BUCKETS}).</li>
+     * </ul>
+     * The snapshot is a copy, so it is not affected by subsequent activity.
+     * @return The snapshot.
+     */
+    public synchronized Map snapshot(){
+        Map out = new HashMap();
+        long unitsPerSecond = getUnitsPerSecond();
+        out.put("unitsPerSecond", unitsPerSecond);
+        Map tablesOut = new HashMap();
+        for ( Map.Entry<String,TableStats> e : tables.entrySet() ){
+            TableStats t = e.getValue();
+            Map m = new HashMap();
+            m.put("statements", t.statements);
+            m.put("rowsRead", t.rowsRead);
+            m.put("rowsHydrated", t.rowsHydrated);
+            m.put("rowsFromCache", t.rowsFromCache);
+            long served = t.rowsHydrated + t.rowsFromCache;
+            m.put("cacheHitRatio", served == 0 ? 0.0 : ((double)t.rowsFromCache)/served);
+            m.put("unmapCount", t.unmapCount);
+            m.put("unmapTime", t.unmapTime);
+            m.put("rowsImported", t.rowsImported);
+            m.put("importTime", t.importTime);
+            m.put("importRowsPerSecond", t.importTime == 0 ? 0.0 : t.rowsImported * (double)unitsPerSecond / t.importTime);
+            m.put("schemaLoadTime", t.schemaLoadTime);
+            tablesOut.put(e.getKey(), m);
+        }
+        out.put("tables", tablesOut);
+        List statementsOut = new ArrayList();
+        for ( ShapeStats s : shapes.values() ){
+            Map m = new HashMap();
+            m.put("table", s.table);
+            m.put("sql", s.sql);
+            m.put("count", s.count);
+            m.put("totalTime", s.totalTime);
+            m.put("maxTime", s.maxTime);
+            m.put("rows", s.rows);
+            List histogram = new ArrayList(HISTOGRAM_BUCKETS);
+            for ( long h : s.histogram ){
+                histogram.add(h);
+            }
+            m.put("histogram", histogram);
+            statementsOut.add(m);
+        }
+        out.put("statements", statementsOut);
+        return out;
+    }
+}
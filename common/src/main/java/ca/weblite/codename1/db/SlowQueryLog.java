@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A log of slow SQL statements issued by the DAOs of a {@link DAOProvider}.  Statements that
+ * take longer than a threshold are recorded with their SQL, the shape of their params (types 
+ * only, values are never recorded), the number of rows read and the elapsed time.  
+ * 
+ * <p>In addition, the <code>EXPLAIN QUERY PLAN</code> of each distinct statement shape (see 
+ * {@link SimpleDAOMetrics#statementShape(java.lang.String)}) is captured the first time it is seen, so that statements that scan whole tables (e.g. a 
+ * {@link DAO#fetch(java.util.Map)} on a column without an index) can be found before they 
+ * become slow.  See {@link #getTableScans()}.</p>
+ * @see DAOProvider#setSlowQueryLog(ca.weblite.codename1.db.SlowQueryLog) 
+ */
+public class SlowQueryLog {
+    
+    /**
+     * The default maximum number of entries retained by the log.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+    
+    /**
+     * The maximum number of distinct statement shapes whose query plans are captured.
+     */
+    public static final int MAX_PLANS = 512;
+    
+    /**
+     * A single slow statement.
+     */
+    public static class Entry {
+        private final String table;
+        private final String sql;
+        private final String paramShape;
+        private final int rows;
+        private final long elapsed;
+        private final long timestamp;
+        
+        Entry(String table, String sql, String paramShape, int rows, long elapsed, long timestamp){
+            this.table = table;
+            this.sql = sql;
+            this.paramShape = paramShape;
+            this.rows = rows;
+            this.elapsed = elapsed;
+            this.timestamp = timestamp;
+        }
+        
+        /**
+         * The table of the DAO that issued the statement.
+         * @return 
+         */
+        public String getTable(){
+            return table;
+        }
+        
+        /**
+         * The SQL of the statement.
+         * @return 
+         */
+        public String getSql(){
+            return sql;
+        }
+        
+        /**
+         * The shape of the params, e.g. "(String, Long, null)".
+         * @return 
+         */
+        public String getParamShape(){
+            return paramShape;
+        }
+        
+        /**
+         * The number of rows read, or -1 if the statement is not a query.
+         * @return 
+         */
+        public int getRows(){
+            return rows;
+        }
+        
+        /**
+         * The elapsed time in milliseconds.
+         * @return 
+         */
+        public long getElapsed(){
+            return elapsed;
+        }
+        
+        /**
+         * The time at which the statement completed.
+         * @return 
+         */
+        public long getTimestamp(){
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return elapsed+"ms "+(rows >= 0 ? rows+" rows " : "")+"["+table+"] "+sql+" "+paramShape;
+        }
+    }
+    
+    private long threshold;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private boolean explainEnabled = true;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final Map<String,String> plans = new HashMap<String,String>();
+    private final Map<String,String> planTables = new HashMap<String,String>();
+    
+    /**
+     * Creates a slow query log.
+     * @param thresholdMillis Statements that take longer than this number of milliseconds are logged.
+     */
+    public SlowQueryLog(long thresholdMillis){
+        this.threshold = thresholdMillis;
+    }
+    
+    public synchronized void setThreshold(long thresholdMillis){
+        this.threshold = thresholdMillis;
+    }
+    
+    public synchronized long getThreshold(){
+        return threshold;
+    }
+    
+    /**
+     * Sets the maximum number of entries that are retained.  When the log is full, the
+     * oldest entries are discarded.
+     * @param max 
+     */
+    public synchronized void setMaxEntries(int max){
+        maxEntries = max;
+        trim();
+    }
+    
+    public synchronized int getMaxEntries(){
+        return maxEntries;
+    }
+    
+    /**
+     * Enables or disables capturing of query plans.  Enabled by default.
+     * @param enabled 
+     */
+    public synchronized void setExplainEnabled(boolean enabled){
+        explainEnabled = enabled;
+    }
+    
+    public synchronized boolean isExplainEnabled(){
+        return explainEnabled;
+    }
+    
+    /**
+     * Gets the slow statements that have been logged, oldest first.
+     * @return 
+     */
+    public synchronized List<Entry> getEntries(){
+        return new ArrayList<Entry>(entries);
+    }
+    
+    /**
+     * Gets the captured query plans.
+     * @return Map from statement shape to its query plan, with one line per plan step.
+     */
+    public synchronized Map<String,String> getQueryPlans(){
+        return Collections.unmodifiableMap(new HashMap<String,String>(plans));
+    }
+    
+    /**
+     * Gets the statements whose query plans include a full table scan (i.e. a SCAN step that
+     * doesn't use an index).
+     * @return List of statement shapes.
+     */
+    public synchronized List<String> getTableScans(){
+        List<String> out = new ArrayList<String>();
+        for ( Map.Entry<String,String> e : plans.entrySet() ){
+            if ( isTableScan(e.getValue()) ){
+                out.add(e.getKey());
+            }
+        }
+        return out;
+    }
+    
+    /**
+     * Gets the table of the DAO that issued the given statement, for statements with captured plans.
+     * @param sql
+     * @return 
+     */
+    public synchronized String getTable(String sql){
+        return planTables.get(SimpleDAOMetrics.statementShape(sql));
+    }
+    
+    /**
+     * Removes all entries and captured plans.
+     */
+    public synchronized void clear(){
+        entries.clear();
+        plans.clear();
+        planTables.clear();
+    }
+    
+    /**
+     * Checks whether a query plan should be captured for the given statement.
+     * @param sql
+     * @return 
+     */
+    synchronized boolean needsPlan(String sql){
+        return explainEnabled && plans.size() < MAX_PLANS && !plans.containsKey(SimpleDAOMetrics.statementShape(sql));
+    }
+    
+    synchronized void addPlan(String table, String sql, String plan){
+        String shape = SimpleDAOMetrics.statementShape(sql);
+        plans.put(shape, plan);
+        planTables.put(shape, table);
+    }
+    
+    /**
+     * Records a completed statement, if it exceeded the threshold.
+     * @param table
+     * @param sql
+     * @param params
+     * @param rows
+     * @param elapsed 
+     */
+    synchronized void record(String table, String sql, Object[] params, int rows, long elapsed){
+        if ( elapsed <= threshold ){
+            return;
+        }
+        entries.add(new Entry(table, sql, paramShape(params), rows, elapsed, System.currentTimeMillis()));
+        trim();
+    }
+    
+    private void trim(){
+        while ( entries.size() > maxEntries && !entries.isEmpty() ){
+            entries.remove(0);
+        }
+    }
+    
+    /**
+     * Describes the types of the given params without their values.
+     * @param params
+     * @return 
+     */
+    static String paramShape(Object[] params){
+        if ( params == null || params.length == 0 ){
+            return "()";
+        }
+        StringBuilder sb = new StringBuilder("(");
+        for ( Object p : params ){
+            if ( p == null ){
+                sb.append("null");
+            } else if ( p instanceof byte[] ){
+                sb.append("byte[]");
+            } else {
+                String name = p.getClass().getName();
+                sb.append(name.substring(name.lastIndexOf('.')+1));
+            }
+            sb.append(", ");
+        }
+        sb.setLength(sb.length()-2);
+        sb.append(")");
+        return sb.toString();
+    }
+    
+    /**
+     * Checks whether a query plan contains a full table scan.  Scans that use an index, 
+     * scans of a constant row (e.g. <code>select 1</code>) and scans of virtual tables 
+     * (e.g. full-text index queries, which use the virtual table's own index) are not 
+     * table scans.
+     * @param plan
+     * @return 
+     */
+    static boolean isTableScan(String plan){
+        if ( plan == null ){
+            return false;
+        }
+        int pos = 0;
+        int len = plan.length();
+        while ( pos < len ){
+            int end = plan.indexOf('\n', pos);
+            if ( end < 0 ){
+                end = len;
+            }
+            String line = plan.substring(pos, end).trim();
+            if ( line.startsWith("SCAN ") 
+                    && line.indexOf(" USING ") < 0 
+                    && !line.equals("SCAN CONSTANT ROW") 
+                    && line.indexOf(" VIRTUAL TABLE ") < 0 ){
+                return true;
+            }
+            pos = end + 1;
+        }
+        return false;
+    }
+}
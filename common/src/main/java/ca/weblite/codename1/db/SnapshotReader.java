@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.DAO.ColType;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restores a binary snapshot written by a {@link SnapshotWriter} into a DAO's table.  The 
+ * snapshot is read a chunk at a time, and its rows are bulk inserted with multi-row 
+ * <code>INSERT OR REPLACE</code> statements, committing a transaction every 
+ * {@link #getBatchSize()} rows.  Entity objects are not created.
+ * 
+ * <p>Columns of the snapshot that are not in the table are skipped.  Rows with the same ID 
+ * as a row in the snapshot are replaced, and their entities are evicted from the DAO's cache.</p>
+ * @see DAO#restoreSnapshot(java.io.InputStream) 
+ */
+public class SnapshotReader {
+    
+    /**
+     * The default number of rows restored per transaction.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    private final DAO dao;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean anyTable;
+    
+    /**
+     * Creates a reader that restores snapshots into the table of the given DAO.
+     * @param dao 
+     */
+    public SnapshotReader(DAO dao){
+        this.dao = dao;
+    }
+    
+    /**
+     * Sets the number of rows that are restored in each transaction.  If this is 0, 
+     * rows are restored without transactions.  Default is {@link #DEFAULT_BATCH_SIZE}.
+     * @param batchSize 
+     */
+    public void setBatchSize(int batchSize){
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Gets the number of rows that are restored in each transaction.
+     * @return 
+     */
+    public int getBatchSize(){
+        return batchSize;
+    }
+    
+    /**
+     * Sets whether snapshots of other tables may be restored into the DAO's table.  By
+     * default, restoring a snapshot of another table fails, since rows with the same IDs 
+     * would be replaced, and the columns that the tables don't share would be set to null.
+     * @param anyTable True to restore snapshots regardless of the table they were written from.
+     */
+    public void setAnyTable(boolean anyTable){
+        this.anyTable = anyTable;
+    }
+    
+    /**
+     * Checks whether snapshots of other tables may be restored into the DAO's table.
+     * @return 
+     * @see #setAnyTable(boolean) 
+     */
+    public boolean isAnyTable(){
+        return anyTable;
+    }
+    
+    /**
+     * Restores a snapshot.
+     * @param is The stream to read the snapshot from.  It is not closed.
+     * @return The number of rows restored.
+     * @throws IOException If the snapshot is malformed, a checksum doesn't match, or the 
+     * snapshot is of another table (unless {@link #setAnyTable(boolean)} is set).  Rows 
+     * committed before the failure remain in the table.
+     */
+    public int read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if ( in.readInt() != SnapshotWriter.MAGIC ){
+            throw new IOException("Not a table snapshot");
+        }
+        int version = in.readUnsignedByte();
+        if ( version > SnapshotWriter.VERSION ){
+            throw new IOException("Unsupported snapshot version "+version);
+        }
+        boolean checksums = (in.readUnsignedByte() & SnapshotWriter.FLAG_CHECKSUMS) != 0;
+        String table = in.readUTF();
+        if ( !anyTable && !table.equals(dao.getTableName()) ){
+            throw new IOException("The snapshot is of table "+table+", not "+dao.getTableName());
+        }
+        int numCols = in.readUnsignedShort();
+        ColType[] types = new ColType[numCols];
+        boolean[] keep = new boolean[numCols];
+        List<String> names = new ArrayList<String>(numCols);
+        int idCol = -1;
+        for ( int i=0; i<numCols; i++ ){
+            String name = in.readUTF();
+            String type = in.readUTF();
+            try {
+                types[i] = ColType.valueOf(type);
+            } catch ( IllegalArgumentException ex ){
+                throw new IOException("Unknown column type "+type+" for column "+name);
+            }
+            keep[i] = dao.colTypes.containsKey(name);
+            if ( keep[i] ){
+                if ( "id".equals(name) ){
+                    idCol = names.size();
+                }
+                names.add(name);
+            }
+        }
+        String[] columns = names.toArray(new String[names.size()]);
+        if ( columns.length == 0 ){
+            throw new IOException("The snapshot has no columns of table "+dao.getTableName());
+        }
+        int rowsPerStatement = Math.max(1, DAO.MAX_SQL_VARIABLES / columns.length);
+        
+        DAOProvider provider = dao.getProvider();
+        DAOMetrics metrics = provider.getMetrics();
+        long start = metrics == null ? 0 : metrics.now();
+        Adler32 adler = checksums ? new Adler32() : null;
+        byte[] buf = new byte[SnapshotWriter.DEFAULT_CHUNK_SIZE];
+        boolean[] nulls = new boolean[numCols];
+        Object[] args = new Object[rowsPerStatement * columns.length];
+        long[] ids = new long[rowsPerStatement];
+        int pending = 0;
+        int rows = 0;
+        int chunks = 0;
+        boolean open = false;
+        boolean suspended = false;
+        provider.beginBatch();
+        try {
+            // INSERT OR REPLACE doesn't fire delete triggers, so the full-text index
+            // is rebuilt instead.
+            suspended = dao.suspendFullTextIndex();
+            int chunkRows;
+            while ( (chunkRows = in.readInt()) > 0 ){
+                chunks++;
+                int len = in.readInt();
+                if ( len > buf.length ){
+                    buf = new byte[len];
+                }
+                in.readFully(buf, 0, len);
+                if ( adler != null ){
+                    adler.reset();
+                    adler.update(buf, 0, len);
+                    if ( in.readInt() != adler.getValue() ){
+                        throw new IOException("Checksum mismatch in chunk "+chunks+" of snapshot");
+                    }
+                }
+                DataInputStream data = new DataInputStream(new ByteArrayInputStream(buf, 0, len));
+                for ( int r=0; r<chunkRows; r++ ){
+                    if ( batchSize > 0 && !open ){
+                        provider.beginTransaction();
+                        open = true;
+                    }
+                    readRow(data, types, keep, nulls, args, pending * columns.length);
+                    if ( idCol >= 0 ){
+                        Object id = args[pending * columns.length + idCol];
+                        ids[pending] = id == null ? -1 : ((Long)id).longValue();
+                    }
+                    pending++;
+                    rows++;
+                    if ( pending == rowsPerStatement ){
+                        insert(columns, args, pending, idCol >= 0 ? ids : null);
+                        pending = 0;
+                    }
+                    if ( open && rows % batchSize == 0 ){
+                        if ( pending > 0 ){
+                            insert(columns, args, pending, idCol >= 0 ? ids : null);
+                            pending = 0;
+                        }
+                        provider.commitTransaction();
+                        open = false;
+                    }
+                }
+            }
+            if ( pending > 0 ){
+                insert(columns, args, pending, idCol >= 0 ? ids : null);
+            }
+            if ( open ){
+                open = false;
+                provider.commitTransaction();
+            }
+            if ( metrics != null ){
+                metrics.imported(dao.getTableName(), rows, metrics.now() - start);
+            }
+            return rows;
+        } finally {
+            if ( open ){
+                provider.rollbackTransaction();
+            }
+            dao.invalidateCaches();
+            provider.endBatch();
+            if ( suspended ){
+                dao.resumeFullTextIndex();
+            }
+        }
+    }
+    
+    /**
+     * Inserts rows that have been read from the snapshot.
+     * @param columns The names of the columns to insert.
+     * @param args The values of the rows.
+     * @param rows The number of rows.
+     * @param ids The IDs of the rows, or null if the snapshot has no id column.
+     * @throws IOException 
+     */
+    private void insert(String[] columns, Object[] args, int rows, long[] ids) throws IOException {
+        int len = rows * columns.length;
+        if ( len < args.length ){
+            Object[] tmp = new Object[len];
+            System.arraycopy(args, 0, tmp, 0, len);
+            args = tmp;
+        }
+        dao.getProvider().execute(dao.getTableName(), dao.insertRowsStatement("INSERT OR REPLACE", columns, rows), args);
+        if ( ids != null ){
+            for ( int i=0; i<rows; i++ ){
+                if ( ids[i] > 0 ){
+                    dao.rowRestored(ids[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads a row.
+     * @param data The chunk that the row is in.
+     * @param types The types of the snapshot's columns.
+     * @param keep Flags indicating which of the snapshot's columns are restored.
+     * @param nulls Reusable array for the null flags of the columns.
+     * @param args Array to receive the values of the restored columns.
+     * @param off The index in args of the first value of the row.
+     * @throws IOException 
+     */
+    private static void readRow(DataInputStream data, ColType[] types, boolean[] keep, boolean[] nulls, Object[] args, int off) throws IOException {
+        int len = types.length;
+        int bits = 0;
+        for ( int i=0; i<len; i++ ){
+            if ( (i & 7) == 0 ){
+                bits = data.readUnsignedByte();
+            }
+            nulls[i] = (bits & (1 << (i & 7))) != 0;
+        }
+        for ( int i=0; i<len; i++ ){
+            Object v = null;
+            if ( !nulls[i] ){
+                switch ( types[i] ){
+                    case INTEGER:
+                    case LONG:
+                    case SHORT:
+                        v = readVarLong(data);
+                        break;
+                    case FLOAT:
+                    case DOUBLE:
+                        v = data.readDouble();
+                        break;
+                    case BLOB:
+                        v = readBytes(data);
+                        break;
+                    default:
+                        v = new String(readBytes(data), "UTF-8");
+                }
+            }
+            if ( keep[i] ){
+                args[off++] = v;
+            }
+        }
+    }
+    
+    private static byte[] readBytes(DataInputStream data) throws IOException {
+        long len = readVarLong(data);
+        if ( len < 0 || len > Integer.MAX_VALUE ){
+            throw new IOException("Invalid length "+len+" in snapshot");
+        }
+        byte[] b = new byte[(int)len];
+        data.readFully(b);
+        return b;
+    }
+    
+    /**
+     * Reads a zigzag encoded variable length integer.
+     * @param data
+     * @return
+     * @throws IOException 
+     */
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long v = 0;
+        int shift = 0;
+        int b;
+        do {
+            if ( shift > 63 ){
+                throw new IOException("Malformed variable length integer in snapshot");
+            }
+            b = data.readUnsignedByte();
+            v |= (long)(b & 0x7f) << shift;
+            shift += 7;
+        } while ( (b & 0x80) != 0 );
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.DAO.ColType;
+import com.codename1.db.Cursor;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a binary snapshot of a DAO's table, which can be restored with a {@link SnapshotReader}.
+ * Rows are read straight from the database cursor and written as they are read, without
+ * creating entity objects, so a snapshot can be taken of a table of any size in constant memory.
+ * 
+ * <p>The snapshot has a header with the table name, column names and {@link ColType column types},
+ * followed by length-prefixed chunks of rows.  Each row is a bitmap of the null columns followed 
+ * by the values of the other columns.  Integer columns are written as variable length integers, 
+ * real columns as 8 byte doubles, and strings and blobs as a length followed by their (UTF-8) bytes.  
+ * If {@link #setChecksums(boolean) checksums} are enabled, each chunk is followed by its Adler-32 
+ * checksum.</p>
+ * @see DAO#exportSnapshot(java.io.OutputStream) 
+ */
+public class SnapshotWriter {
+    
+    /**
+     * The first 4 bytes of a snapshot ("CN1S").
+     */
+    static final int MAGIC = 0x434E3153;
+    
+    /**
+     * The snapshot format version.
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * Header flag indicating that each chunk is followed by a checksum.
+     */
+    static final int FLAG_CHECKSUMS = 1;
+    
+    /**
+     * The default number of bytes of rows to buffer before writing a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    
+    private final DAO dao;
+    private boolean checksums;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    
+    /**
+     * Creates a writer for the table of the given DAO.
+     * @param dao 
+     */
+    public SnapshotWriter(DAO dao){
+        this.dao = dao;
+    }
+    
+    /**
+     * Enables checksums.  When enabled, each chunk of the snapshot is followed by its
+     * Adler-32 checksum, which is verified when the snapshot is restored.
+     * @param checksums 
+     */
+    public void setChecksums(boolean checksums){
+        this.checksums = checksums;
+    }
+    
+    /**
+     * Checks whether checksums are enabled.
+     * @return 
+     */
+    public boolean isChecksums(){
+        return checksums;
+    }
+    
+    /**
+     * Sets the number of bytes of rows to buffer before a chunk is written.  
+     * Default is {@link #DEFAULT_CHUNK_SIZE}.
+     * @param chunkSize 
+     */
+    public void setChunkSize(int chunkSize){
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Gets the number of bytes of rows to buffer before a chunk is written.
+     * @return 
+     */
+    public int getChunkSize(){
+        return chunkSize;
+    }
+    
+    /**
+     * Writes a snapshot of all of the rows of the table.
+     * @param os The stream to write to.  It is flushed, but not closed.
+     * @return The number of rows written.
+     * @throws IOException 
+     */
+    public int write(OutputStream os) throws IOException {
+        String table = dao.getTableName();
+        String[] cols = dao.columnNames();
+        ColType[] types = dao.columnTypes();
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(checksums ? FLAG_CHECKSUMS : 0);
+        out.writeUTF(table);
+        out.writeShort(cols.length);
+        for ( int i=0; i<cols.length; i++ ){
+            out.writeUTF(cols[i]);
+            out.writeUTF(typeOf(types[i]).name());
+        }
+        
+        Chunk chunk = new Chunk(chunkSize);
+        DataOutputStream data = new DataOutputStream(chunk);
+        Adler32 adler = checksums ? new Adler32() : null;
+        boolean[] nulls = new boolean[cols.length];
+        byte[][] blobs = new byte[cols.length][];
+        int rows = 0;
+        int chunkRows = 0;
+        Cursor c = null;
+        try {
+            c = dao.getProvider().executeRead(table, "SELECT * FROM \""+table+"\"", null);
+            CursorRowReader reader = new CursorRowReader(c);
+            int[] idx = reader.ordinals(cols);
+            while ( c.next() ){
+                reader.setRow(c.getRow());
+                writeRow(data, reader, idx, types, nulls, blobs);
+                rows++;
+                chunkRows++;
+                if ( chunk.size() >= chunkSize ){
+                    writeChunk(out, chunk, chunkRows, adler);
+                    chunkRows = 0;
+                }
+            }
+        } finally {
+            if ( c != null ){
+                c.close();
+            }
+        }
+        if ( chunkRows > 0 ){
+            writeChunk(out, chunk, chunkRows, adler);
+        }
+        out.writeInt(0);
+        out.flush();
+        return rows;
+    }
+    
+    /**
+     * Writes the current row.
+     * @param data The stream to write to.
+     * @param row The current row.
+     * @param idx The ordinals in the row of the table's columns.
+     * @param types The types of the table's columns.
+     * @param nulls Reusable array for the null flags of the columns.
+     * @param blobs Reusable array for the values of BLOB columns.
+     * @throws IOException 
+     */
+    private static void writeRow(DataOutputStream data, RowReader row, int[] idx, ColType[] types, boolean[] nulls, byte[][] blobs) throws IOException {
+        int len = idx.length;
+        int bits = 0;
+        for ( int i=0; i<len; i++ ){
+            if ( idx[i] < 0 ){
+                nulls[i] = true;
+            } else if ( types[i] == ColType.BLOB ){
+                // Blobs can't be read as strings on all platforms (e.g. Android), so 
+                // they are checked for null by reading them.
+                blobs[i] = row.getBlob(idx[i]);
+                nulls[i] = blobs[i] == null;
+            } else {
+                nulls[i] = row.isNull(idx[i]);
+            }
+            if ( nulls[i] ){
+                bits |= 1 << (i & 7);
+            }
+            if ( (i & 7) == 7 || i == len-1 ){
+                data.writeByte(bits);
+                bits = 0;
+            }
+        }
+        for ( int i=0; i<len; i++ ){
+            if ( nulls[i] ){
+                continue;
+            }
+            switch ( typeOf(types[i]) ){
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                    writeVarLong(data, row.getLong(idx[i]));
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    // Floats are stored as doubles in SQLite, so they are written as doubles
+                    // to restore the exact same values.
+                    data.writeDouble(row.getDouble(idx[i]));
+                    break;
+                case BLOB:
+                    writeBytes(data, blobs[i]);
+                    blobs[i] = null;
+                    break;
+                default:
+                    writeBytes(data, row.getString(idx[i]).getBytes("UTF-8"));
+            }
+        }
+    }
+    
+    private static void writeBytes(DataOutputStream data, byte[] b) throws IOException {
+        writeVarLong(data, b.length);
+        data.write(b);
+    }
+    
+    /**
+     * Writes a zigzag encoded variable length integer, so that small positive and negative
+     * values take a single byte.
+     * @param data
+     * @param v
+     * @throws IOException 
+     */
+    private static void writeVarLong(DataOutputStream data, long v) throws IOException {
+        v = (v << 1) ^ (v >> 63);
+        while ( (v & ~0x7fL) != 0 ){
+            data.writeByte((int)((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        data.writeByte((int)v);
+    }
+    
+    /**
+     * Writes a chunk of rows, and resets the chunk buffer.
+     * @param out The snapshot stream.
+     * @param chunk The buffered rows.
+     * @param rows The number of buffered rows.
+     * @param adler Checksum, or null if checksums are disabled.
+     * @throws IOException 
+     */
+    private static void writeChunk(DataOutputStream out, Chunk chunk, int rows, Adler32 adler) throws IOException {
+        out.writeInt(rows);
+        out.writeInt(chunk.size());
+        out.write(chunk.buffer(), 0, chunk.size());
+        if ( adler != null ){
+            adler.reset();
+            adler.update(chunk.buffer(), 0, chunk.size());
+            out.writeInt(adler.getValue());
+        }
+        chunk.reset();
+    }
+    
+    /**
+     * Gets the type that a column is written as.  Columns of unknown type are written as strings.
+     * @param type
+     * @return 
+     */
+    static ColType typeOf(ColType type){
+        return type == null ? ColType.STRING : type;
+    }
+    
+    /**
+     * Buffer for a chunk of rows, whose bytes can be written without copying them.
+     */
+    private static class Chunk extends ByteArrayOutputStream {
+        Chunk(int size){
+            super(size);
+        }
+        
+        byte[] buffer(){
+            return buf;
+        }
+    }
+}
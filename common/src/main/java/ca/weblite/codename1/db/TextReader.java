@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records or lines of text from a Reader, through a reusable buffer, so
+ * that large files can be read in constant memory.  A byte order mark at the start 
+ * of the stream is skipped.
+ */
+class TextReader {
+    
+    private final Reader reader;
+    private final char[] buf = new char[8192];
+    private int pos;
+    private int len;
+    
+    /**
+     * Flag to indicate that the first characters of the stream have been read.
+     */
+    private boolean started;
+    
+    /**
+     * Reusable buffer for the current field or line.
+     */
+    private final StringBuilder sb = new StringBuilder();
+    
+    /**
+     * Reusable list of the fields of the current record.
+     */
+    private final List<String> fields = new ArrayList<String>();
+    
+    /**
+     * Reusable array that lines are copied into by {@link #readLine()}.
+     */
+    private char[] line = new char[256];
+    
+    TextReader(Reader reader){
+        this.reader = reader;
+    }
+    
+    private int read() throws IOException {
+        if ( pos == len ){
+            len = reader.read(buf, 0, buf.length);
+            pos = 0;
+            if ( len <= 0 ){
+                len = 0;
+                return -1;
+            }
+            if ( !started ){
+                started = true;
+                // Some editors write a byte order mark at the start of UTF-8 files,
+                // which would otherwise become part of the first column name.
+                if ( buf[0] == '\uFEFF' ){
+                    pos = 1;
+                    return read();
+                }
+            }
+        }
+        return buf[pos++];
+    }
+    
+    private void unread(){
+        pos--;
+    }
+    
+    /**
+     * Reads a CSV record, as specified by RFC 4180.  Fields may be quoted with double 
+     * quotes, in which case they may contain delimiters, line breaks, and doubled 
+     * quotes.  Records may be terminated by CRLF or LF.
+     * @param delimiter The field delimiter.
+     * @return The fields of the record, or null at the end of the stream.  Empty unquoted 
+     * fields are returned as null, and empty quoted fields as "".
+     * @throws IOException If the record is malformed.
+     */
+    String[] readRecord(char delimiter) throws IOException {
+        int c = read();
+        if ( c == -1 ){
+            return null;
+        }
+        unread();
+        fields.clear();
+        while ( true ){
+            sb.setLength(0);
+            boolean quoted = false;
+            c = read();
+            if ( c == '"' ){
+                quoted = true;
+                while ( true ){
+                    c = read();
+                    if ( c == -1 ){
+                        throw new IOException("Unterminated quoted field in CSV record "+fields.size());
+                    }
+                    if ( c == '"' ){
+                        c = read();
+                        if ( c != '"' ){
+                            break;
+                        }
+                    }
+                    sb.append((char)c);
+                }
+            } else {
+                while ( c != -1 && c != delimiter && c != '\n' && c != '\r' ){
+                    sb.append((char)c);
+                    c = read();
+                }
+            }
+            fields.add(sb.length() == 0 && !quoted ? null : sb.toString());
+            if ( c == delimiter ){
+                continue;
+            }
+            if ( c == '\r' ){
+                c = read();
+                if ( c != '\n' && c != -1 ){
+                    unread();
+                }
+            } else if ( c != '\n' && c != -1 ){
+                throw new IOException("Unexpected character after quoted field in CSV: "+(char)c);
+            }
+            return fields.toArray(new String[fields.size()]);
+        }
+    }
+    
+    /**
+     * Reads a line of text, terminated by LF or CRLF.  The characters of the line 
+     * are available in {@link #getLine()} until the next call.
+     * @return The length of the line, or -1 at the end of the stream.
+     * @throws IOException 
+     */
+    int readLine() throws IOException {
+        int c = read();
+        if ( c == -1 ){
+            return -1;
+        }
+        sb.setLength(0);
+        while ( c != -1 && c != '\n' ){
+            sb.append((char)c);
+            c = read();
+        }
+        int n = sb.length();
+        if ( n > 0 && sb.charAt(n-1) == '\r' ){
+            n--;
+        }
+        if ( line.length < n ){
+            line = new char[Math.max(n, line.length * 2)];
+        }
+        sb.getChars(0, n, line, 0);
+        return n;
+    }
+    
+    /**
+     * Gets the buffer holding the characters of the last line read by {@link #readLine()}.
+     * @return 
+     */
+    char[] getLine(){
+        return line;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A named set of SQLite PRAGMA settings that a {@link DAOProvider} applies to its database.  
+ * Profiles are immutable.  Three profiles are predefined:
+ * 
+ * <ul>
+ * <li>{@link #DEFAULT} - WAL journaling with <code>synchronous=NORMAL</code>, which is durable
+ * across application crashes, and much faster than the default rollback journal.</li>
+ * <li>{@link #BULK_IMPORT} - For the duration of large imports.  Durability is the same as 
+ * {@link #DEFAULT}, but the page cache is larger and the WAL is checkpointed less often.  
+ * (Syncs aren't disabled, since with <code>synchronous=OFF</code> an OS crash or power failure 
+ * during the import can corrupt the database, not just lose the import.)</li>
+ * <li>{@link #READ_MOSTLY} - For databases that are mostly read.  The page cache is larger and 
+ * the database file is memory mapped.</li>
+ * </ul>
+ * 
+ * <p>PRAGMAs that aren't supported by the SQLite build of a platform are ignored.</p>
+ * @see DAOProvider#setProfile(ca.weblite.codename1.db.TuningProfile) 
+ */
+public class TuningProfile {
+    
+    public static final TuningProfile DEFAULT = new TuningProfile("default", new String[]{
+        "journal_mode", "WAL",
+        "synchronous", "NORMAL",
+        "temp_store", "MEMORY",
+        "cache_size", "-2000"
+    });
+    
+    public static final TuningProfile BULK_IMPORT = new TuningProfile("bulk_import", new String[]{
+        "journal_mode", "WAL",
+        "synchronous", "NORMAL",
+        "temp_store", "MEMORY",
+        "cache_size", "-16000",
+        "wal_autocheckpoint", "10000"
+    });
+    
+    public static final TuningProfile READ_MOSTLY = new TuningProfile("read_mostly", new String[]{
+        "journal_mode", "WAL",
+        "synchronous", "NORMAL",
+        "temp_store", "MEMORY",
+        "cache_size", "-8000",
+        "mmap_size", "268435456"
+    });
+    
+    private final String name;
+    private final Map<String,String> pragmas = new LinkedHashMap<String,String>();
+    
+    /**
+     * Creates a profile.
+     * @param name The name of the profile.
+     * @param pragmas The PRAGMA settings of the profile.  Odd entries are PRAGMA names, and the 
+     * next even entry is the corresponding value.  PRAGMAs are applied in this order.
+     */
+    public TuningProfile(String name, String[] pragmas){
+        this.name = name;
+        for ( int i=0; i<pragmas.length; i+=2 ){
+            this.pragmas.put(pragmas[i], pragmas[i+1]);
+        }
+    }
+    
+    /**
+     * Creates a profile.
+     * @param name The name of the profile.
+     * @param pragmas Maps PRAGMA names to their values.  PRAGMAs are applied in the iteration 
+     * order of the map.
+     */
+    public TuningProfile(String name, Map<String,String> pragmas){
+        this.name = name;
+        this.pragmas.putAll(pragmas);
+    }
+    
+    /**
+     * Gets one of the predefined profiles by name.
+     * @param name The name of the profile.  E.g. "bulk_import".
+     * @return The profile, or null if there is no predefined profile with the given name.
+     */
+    public static TuningProfile forName(String name){
+        TuningProfile[] profiles = new TuningProfile[]{DEFAULT, BULK_IMPORT, READ_MOSTLY};
+        for ( TuningProfile p : profiles ){
+            if ( p.name.equalsIgnoreCase(name) ){
+                return p;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the name of the profile.
+     * @return 
+     */
+    public String getName(){
+        return name;
+    }
+    
+    /**
+     * Gets the value of a PRAGMA in this profile.
+     * @param pragma The PRAGMA name.
+     * @return The value, or null if the profile doesn't set the PRAGMA.
+     */
+    public String getPragma(String pragma){
+        return pragmas.get(pragma);
+    }
+    
+    /**
+     * Gets the PRAGMA settings of this profile, in the order that they are applied.
+     * @return An unmodifiable map of PRAGMA names to values.
+     */
+    public Map<String,String> getPragmas(){
+        return Collections.unmodifiableMap(pragmas);
+    }
+    
+    public String toString(){
+        return name+pragmas;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as an entity that is stored in a database table.  When the 
+ * data-access-processor annotation processor is on the compiler's processor path, 
+ * a {@link ca.weblite.codename1.db.DAO} subclass is generated for each entity class.  
+ * The generated DAO reads row columns by ordinal directly into the entity's fields, and 
+ * binds the fields directly to statement arguments, so rows don't pass through an 
+ * intermediate Map, and no reflection is required.
+ * 
+ * <p>All non-static, non-transient fields of a supported type are mapped to the column 
+ * of the same name, unless the column name is overridden with {@link Column}.  Supported 
+ * types are the primitive numeric types and their wrappers, boolean, String and byte[].
+ * Private fields are accessed using their getter and setter methods.</p>
+ * 
+ * <p>The entity class must have a no-arg constructor that is accessible from its package, 
+ * and a field named "id" (or annotated with {@link Id}) for the row ID.</p>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Entity {
+    
+    /**
+     * The name of the table.  Defaults to the simple name of the class in lower case.
+     * @return 
+     */
+    String table() default "";
+    
+    /**
+     * The simple name of the generated DAO class.  Defaults to the simple name of 
+     * the entity class followed by "DAO".
+     * @return 
+     */
+    String daoName() default "";
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.jdbc;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Row;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A forward-only cursor over a JDBC result set.  The cursor is its own {@link Row}, so
+ * {@link #getRow()} doesn't allocate.  Closing the cursor returns its statement to the 
+ * {@link JDBCDatabase}'s statement cache.
+ */
+class JDBCCursor implements Cursor, Row {
+    
+    private final JDBCDatabase db;
+    private final JDBCDatabase.CachedStatement statement;
+    
+    /**
+     * The result set, or null if the statement returned no rows.
+     */
+    private final ResultSet rs;
+    private int position = -1;
+    private boolean closed;
+    
+    JDBCCursor(JDBCDatabase db, JDBCDatabase.CachedStatement statement, ResultSet rs){
+        this.db = db;
+        this.statement = statement;
+        this.rs = rs;
+    }
+    
+    private static IOException error(SQLException ex){
+        return new IOException(ex.getMessage(), ex);
+    }
+
+    /**
+     * Moves to the first row.  Since the cursor is forward-only, this is only supported 
+     * before the cursor has moved past the first row.
+     * @return
+     * @throws IOException 
+     */
+    public boolean first() throws IOException {
+        if ( position == 0 ){
+            return true;
+        }
+        if ( position > 0 ){
+            throw new IOException("Cursor is forward-only");
+        }
+        return next();
+    }
+
+    public boolean last() throws IOException {
+        throw new IOException("Cursor is forward-only");
+    }
+
+    public boolean next() throws IOException {
+        if ( rs == null ){
+            return false;
+        }
+        try {
+            if ( rs.next() ){
+                position++;
+                return true;
+            }
+            return false;
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public boolean prev() throws IOException {
+        throw new IOException("Cursor is forward-only");
+    }
+
+    public int getColumnIndex(String columnName) throws IOException {
+        if ( rs == null ){
+            return -1;
+        }
+        try {
+            return rs.findColumn(columnName) - 1;
+        } catch ( SQLException ex ){
+            return -1;
+        }
+    }
+
+    public String getColumnName(int columnIndex) throws IOException {
+        try {
+            return rs.getMetaData().getColumnLabel(columnIndex+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public int getColumnCount() throws IOException {
+        if ( rs == null ){
+            return 0;
+        }
+        try {
+            return rs.getMetaData().getColumnCount();
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public int getPosition() throws IOException {
+        return position;
+    }
+
+    /**
+     * Moves to the given row.  Since the cursor is forward-only, the row can't be before
+     * the current row.
+     * @param row
+     * @return
+     * @throws IOException 
+     */
+    public boolean position(int row) throws IOException {
+        if ( row < position ){
+            throw new IOException("Cursor is forward-only");
+        }
+        while ( position < row ){
+            if ( !next() ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void close() throws IOException {
+        if ( closed ){
+            return;
+        }
+        closed = true;
+        try {
+            if ( rs != null ){
+                rs.close();
+            }
+        } catch ( SQLException ex ){
+            throw error(ex);
+        } finally {
+            db.release(statement);
+        }
+    }
+
+    public Row getRow() throws IOException {
+        return this;
+    }
+
+    public byte[] getBlob(int index) throws IOException {
+        try {
+            return rs.getBytes(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public double getDouble(int index) throws IOException {
+        try {
+            return rs.getDouble(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public float getFloat(int index) throws IOException {
+        try {
+            return rs.getFloat(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public int getInteger(int index) throws IOException {
+        try {
+            return rs.getInt(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public long getLong(int index) throws IOException {
+        try {
+            return rs.getLong(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public short getShort(int index) throws IOException {
+        try {
+            return rs.getShort(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+
+    public String getString(int index) throws IOException {
+        try {
+            return rs.getString(index+1);
+        } catch ( SQLException ex ){
+            throw error(ex);
+        }
+    }
+}
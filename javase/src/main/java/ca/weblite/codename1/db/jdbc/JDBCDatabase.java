@@ -0,0 +1,418 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db.jdbc;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Database;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Database} that is backed directly by a JDBC connection to an SQLite database, 
+ * for use with the JavaSE port (e.g. desktop and server tooling).  
+ * 
+ * <p>Prepared statements are kept in an LRU cache keyed on their SQL text, so statements
+ * that are executed repeatedly (as the DAO's statements are) are only compiled once.  Params 
+ * are bound with their own types (rather than as strings), and {@link #executeBatch(java.lang.String, java.util.List)}
+ * executes a statement for many sets of params in a single JDBC batch.</p>
+ * 
+ * <p>A statement is only reused once the cursor of its previous query has been closed.  If the 
+ * same query is run again while its cursor is still open, a new statement is prepared for it.</p>
+ */
+public class JDBCDatabase extends Database {
+    
+    /**
+     * The default number of prepared statements to keep in the cache.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    
+    /**
+     * A prepared statement, and its cache state.
+     */
+    static class CachedStatement {
+        final String sql;
+        final PreparedStatement ps;
+        
+        /**
+         * Whether the statement is still in the cache.
+         */
+        boolean cached;
+        
+        /**
+         * Whether the statement is being used by a query or update.
+         */
+        boolean inUse;
+        
+        CachedStatement(String sql, PreparedStatement ps){
+            this.sql = sql;
+            this.ps = ps;
+        }
+    }
+    
+    private final Connection conn;
+    private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+    private int hits, misses;
+    
+    /**
+     * Cache of prepared statements, in LRU order.
+     */
+    private final Map<String,CachedStatement> statements = new LinkedHashMap<String,CachedStatement>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,CachedStatement> eldest) {
+            if ( size() > statementCacheSize ){
+                evict(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    
+    /**
+     * Creates a database that uses the given JDBC connection.
+     * @param conn A connection to an SQLite database.
+     */
+    public JDBCDatabase(Connection conn){
+        this.conn = conn;
+    }
+    
+    /**
+     * Opens (or creates) the SQLite database at the given path.  This requires an SQLite
+     * JDBC driver (e.g. org.xerial:sqlite-jdbc) on the classpath.
+     * @param path The path to the database file.
+     * @return The database.
+     * @throws IOException 
+     */
+    public static JDBCDatabase open(String path) throws IOException {
+        try {
+            return new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite:"+path));
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to open database "+path, ex);
+        }
+    }
+    
+    /**
+     * Gets the JDBC connection of this database.
+     * @return 
+     */
+    public Connection getConnection(){
+        return conn;
+    }
+    
+    /**
+     * Sets the maximum number of prepared statements to keep in the cache.  If this is 0, 
+     * statements are prepared every time they are executed.  Default is {@link #DEFAULT_STATEMENT_CACHE_SIZE}.
+     * @param size 
+     */
+    public void setStatementCacheSize(int size){
+        synchronized ( statements ){
+            statementCacheSize = size;
+            List<String> keys = new ArrayList<String>(statements.keySet());
+            for ( int i=0; i<keys.size() - size; i++ ){
+                evict(statements.remove(keys.get(i)));
+            }
+        }
+    }
+    
+    /**
+     * Gets the maximum number of prepared statements to keep in the cache.
+     * @return 
+     */
+    public int getStatementCacheSize(){
+        return statementCacheSize;
+    }
+    
+    /**
+     * Gets the number of statements that were served from the statement cache.
+     * @return 
+     */
+    public int getStatementCacheHits(){
+        synchronized ( statements ){
+            return hits;
+        }
+    }
+    
+    /**
+     * Gets the number of statements that had to be prepared.
+     * @return 
+     */
+    public int getStatementCacheMisses(){
+        synchronized ( statements ){
+            return misses;
+        }
+    }
+    
+    /**
+     * Gets a prepared statement for the given SQL, from the cache if possible.  The 
+     * statement must be passed to {@link #release} when it is no longer being used.
+     * @param sql The SQL statement.
+     * @return 
+     * @throws IOException 
+     */
+    CachedStatement acquire(String sql) throws IOException {
+        synchronized ( statements ){
+            CachedStatement s = statements.get(sql);
+            if ( s != null && !s.inUse ){
+                hits++;
+                s.inUse = true;
+                return s;
+            }
+            misses++;
+            try {
+                s = new CachedStatement(sql, conn.prepareStatement(sql));
+            } catch ( SQLException ex ){
+                throw new IOException("Failed to prepare statement "+sql, ex);
+            }
+            s.inUse = true;
+            if ( statementCacheSize > 0 && !statements.containsKey(sql) ){
+                s.cached = true;
+                statements.put(sql, s);
+            }
+            return s;
+        }
+    }
+    
+    /**
+     * Releases a statement that was obtained from {@link #acquire}.  Statements that are
+     * no longer in the cache are closed.
+     * @param s 
+     */
+    void release(CachedStatement s){
+        synchronized ( statements ){
+            s.inUse = false;
+            if ( !s.cached ){
+                close(s);
+            } else {
+                try {
+                    s.ps.clearParameters();
+                } catch ( SQLException ex ){
+                    statements.remove(s.sql);
+                    s.cached = false;
+                    close(s);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Removes a statement from the cache, closing it if it isn't in use.
+     * @param s 
+     */
+    private void evict(CachedStatement s){
+        s.cached = false;
+        if ( !s.inUse ){
+            close(s);
+        }
+    }
+    
+    private static void close(CachedStatement s){
+        try {
+            s.ps.close();
+        } catch ( SQLException ex ){
+            // Nothing more we can do
+        }
+    }
+    
+    /**
+     * Binds params to a prepared statement, according to their types.
+     * @param ps The statement.
+     * @param params The params.  May be null if there are none.
+     * @throws SQLException 
+     */
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        if ( params == null ){
+            return;
+        }
+        for ( int i=0; i<params.length; i++ ){
+            Object p = params[i];
+            int index = i+1;
+            if ( p == null ){
+                ps.setNull(index, Types.NULL);
+            } else if ( p instanceof String ){
+                ps.setString(index, (String)p);
+            } else if ( p instanceof Long ){
+                ps.setLong(index, (Long)p);
+            } else if ( p instanceof Integer || p instanceof Short || p instanceof Byte ){
+                ps.setInt(index, ((Number)p).intValue());
+            } else if ( p instanceof Double || p instanceof Float ){
+                ps.setDouble(index, ((Number)p).doubleValue());
+            } else if ( p instanceof byte[] ){
+                ps.setBytes(index, (byte[])p);
+            } else if ( p instanceof Boolean ){
+                ps.setInt(index, ((Boolean)p) ? 1 : 0);
+            } else {
+                ps.setString(index, p.toString());
+            }
+        }
+    }
+    
+    @Override
+    public void beginTransaction() throws IOException {
+        try {
+            conn.setAutoCommit(false);
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to begin transaction", ex);
+        }
+    }
+
+    @Override
+    public void commitTransaction() throws IOException {
+        try {
+            conn.commit();
+            conn.setAutoCommit(true);
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to commit transaction", ex);
+        }
+    }
+
+    @Override
+    public void rollbackTransaction() throws IOException {
+        try {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to roll back transaction", ex);
+        }
+    }
+
+    /**
+     * Closes the cached statements and the connection.
+     * @throws IOException 
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized ( statements ){
+            for ( CachedStatement s : statements.values() ){
+                evict(s);
+            }
+            statements.clear();
+        }
+        try {
+            conn.close();
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to close database", ex);
+        }
+    }
+
+    /**
+     * Executes an SQL statement without params.  These are typically DDL statements or scripts,
+     * so they aren't prepared or cached.
+     * @param sql
+     * @throws IOException 
+     */
+    @Override
+    public void execute(String sql) throws IOException {
+        Statement stmt = null;
+        try {
+            stmt = conn.createStatement();
+            stmt.execute(sql);
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to execute "+sql, ex);
+        } finally {
+            if ( stmt != null ){
+                try {
+                    stmt.close();
+                } catch ( SQLException ex ){
+                    // Nothing more we can do
+                }
+            }
+        }
+    }
+
+    @Override
+    public void execute(String sql, String[] params) throws IOException {
+        execute(sql, (Object[])params);
+    }
+    
+    @Override
+    public void execute(String sql, Object... params) throws IOException {
+        CachedStatement s = acquire(sql);
+        try {
+            bind(s.ps, params);
+            s.ps.execute();
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to execute "+sql, ex);
+        } finally {
+            release(s);
+        }
+    }
+    
+    /**
+     * Executes a statement once for each set of params, in a single JDBC batch.
+     * @param sql The SQL statement.
+     * @param params The sets of params.
+     * @return The update counts of the executions.
+     * @throws IOException 
+     */
+    public int[] executeBatch(String sql, List<Object[]> params) throws IOException {
+        CachedStatement s = acquire(sql);
+        try {
+            for ( Object[] p : params ){
+                bind(s.ps, p);
+                s.ps.addBatch();
+            }
+            return s.ps.executeBatch();
+        } catch ( SQLException ex ){
+            throw new IOException("Failed to execute batch "+sql, ex);
+        } finally {
+            try {
+                s.ps.clearBatch();
+            } catch ( SQLException ex ){
+                // Released below
+            }
+            release(s);
+        }
+    }
+
+    @Override
+    public Cursor executeQuery(String sql, String[] params) throws IOException {
+        return executeQuery(sql, (Object[])params);
+    }
+    
+    @Override
+    public Cursor executeQuery(String sql, Object... params) throws IOException {
+        CachedStatement s = acquire(sql);
+        ResultSet rs;
+        try {
+            bind(s.ps, params);
+            // Statements that return no rows (e.g. PRAGMAs that set a value) give an 
+            // empty cursor, as they do on the device.
+            rs = s.ps.execute() ? s.ps.getResultSet() : null;
+        } catch ( SQLException ex ){
+            release(s);
+            throw new IOException("Failed to execute query "+sql, ex);
+        } catch ( RuntimeException ex ){
+            release(s);
+            throw ex;
+        }
+        return new JDBCCursor(this, s, rs);
+    }
+
+    @Override
+    public Cursor executeQuery(String sql) throws IOException {
+        return executeQuery(sql, (Object[])null);
+    }
+}
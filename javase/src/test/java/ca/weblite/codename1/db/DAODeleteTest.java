@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DAO#delete}, {@link DAO#deleteById(long...)} and 
+ * {@link DAO#deleteWhere(java.util.Map)}.
+ */
+public class DAODeleteTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, age INTEGER)");
+        provider = new DAOProvider(db, 0);
+        provider.setRowCache(new RowCache());
+        people = provider.get("people");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private Map person(String name, int age){
+        Map m = new HashMap();
+        m.put("name", name);
+        m.put("age", age);
+        return m;
+    }
+    
+    private List<Map> insert(int n, int age) throws Exception {
+        List<Map> out = new ArrayList<Map>();
+        for ( int i=0; i<n; i++ ){
+            out.add(person("P"+i, age));
+        }
+        people.insertAll(out);
+        return out;
+    }
+    
+    private int count() throws Exception {
+        Cursor c = db.executeQuery("SELECT count(*) FROM people");
+        try {
+            assertTrue(c.next());
+            return c.getRow().getInteger(0);
+        } finally {
+            c.close();
+        }
+    }
+    
+    @Test
+    public void testDeleteByIdInChunks() throws Exception {
+        List<Map> list = insert(2500, 1);
+        long[] ids = new long[2100];
+        for ( int i=0; i<ids.length; i++ ){
+            ids[i] = people.getId(list.get(i));
+        }
+        people.deleteById(ids);
+        assertEquals(400, count());
+        for ( int i=0; i<list.size(); i++ ){
+            Map cached = people.getById(people.getId(list.get(i)), false);
+            if ( i < ids.length ){
+                assertNull(cached);
+            } else {
+                assertSame(list.get(i), cached);
+            }
+        }
+    }
+    
+    @Test
+    public void testDeleteWhereInChunks() throws Exception {
+        List<Map> ones = insert(1500, 1);
+        insert(10, 2);
+        assertEquals(1500, people.deleteWhere(new String[]{"age", "1"}));
+        assertEquals(10, count());
+        assertNull(people.getById(people.getId(ones.get(1499)), false));
+    }
+    
+    @Test
+    public void testDeleteEvictsFromRowCache() throws Exception {
+        Map p = insert(1, 1).get(0);
+        long id = people.getId(p);
+        people.fetchAll();
+        people.clearCache();
+        // The entity can be rebuilt from the row cache.
+        assertNotNull(people.getById(id, false));
+        
+        people.deleteById(id);
+        assertNull(people.getById(id, false));
+        assertNull(people.getById(id, true));
+    }
+    
+    @Test
+    public void testDeleteInvalidatesQueryCache() throws Exception {
+        people.setQueryCacheSize(10);
+        List<Map> list = insert(3, 1);
+        assertEquals(3, people.fetchAll().size());
+        assertEquals(3, people.fetchAll().size());
+        assertEquals(1, people.getQueryCacheHits());
+        
+        people.delete(list.get(0));
+        List<Map> res = people.fetchAll();
+        assertEquals(2, res.size());
+        assertFalse(res.contains(list.get(0)));
+        assertEquals(1, people.getQueryCacheHits());
+    }
+    
+    @Test
+    public void testSaveAfterDelete() throws Exception {
+        Map p = insert(1, 1).get(0);
+        long id = people.getId(p);
+        people.delete(p);
+        assertEquals(0, count());
+        
+        // The deleted entity is inserted again, with its old ID.
+        p.put("age", 2);
+        people.save(p);
+        assertEquals(1, count());
+        assertEquals(id, people.getId(p));
+        assertSame(p, people.getById(id, false));
+        people.clearCache();
+        assertEquals(2, ((Number)people.getById(id, true).get("age")).intValue());
+        
+        // Subsequent saves update the row.
+        Map q = people.getById(id, false);
+        q.put("age", 3);
+        people.save(q);
+        assertEquals(1, count());
+        people.clearCache();
+        assertEquals(3, ((Number)people.getById(id, true).get("age")).intValue());
+    }
+}
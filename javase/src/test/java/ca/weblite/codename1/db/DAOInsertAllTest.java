@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DAO#insertAll(java.util.List)}.
+ */
+public class DAOInsertAllTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR UNIQUE, age INTEGER)");
+        // Start the IDs of inserted rows somewhere other than 1.
+        db.execute("INSERT INTO people (id, name, age) VALUES (100, 'First', 1)");
+        db.execute("DELETE FROM people");
+        provider = new DAOProvider(db, 0);
+        people = provider.get("people");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private Map person(String name, int age){
+        Map m = new HashMap();
+        m.put("name", name);
+        m.put("age", age);
+        return m;
+    }
+    
+    private List<Map> people(int n){
+        List<Map> out = new ArrayList<Map>();
+        for ( int i=0; i<n; i++ ){
+            out.add(person("P"+i, i));
+        }
+        return out;
+    }
+    
+    /**
+     * Reads the names of all rows, by ID.
+     */
+    private Map<Long,String> names() throws Exception {
+        Map<Long,String> out = new HashMap<Long,String>();
+        Cursor c = db.executeQuery("SELECT id, name FROM people");
+        try {
+            while ( c.next() ){
+                out.put(c.getRow().getLong(0), c.getRow().getString(1));
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+    
+    private void assertInserted(List<Map> list) throws Exception {
+        Map<Long,String> names = names();
+        assertEquals(list.size(), names.size());
+        for ( Map p : list ){
+            long id = people.getId(p);
+            assertEquals(p.get("name"), names.get(id));
+            assertSame(p, people.getById(id, false));
+        }
+    }
+    
+    @Test
+    public void testIdsAcrossStatements() throws Exception {
+        // 2 columns per row, so 499 rows per statement, and 3 statements.
+        List<Map> list = people(1200);
+        people.insertAll(list);
+        assertInserted(list);
+        assertEquals(101L, people.getId(list.get(0)));
+        assertEquals(1300L, people.getId(list.get(1199)));
+    }
+    
+    @Test
+    public void testEntitiesWithIdsAreInsertedIndividually() throws Exception {
+        List<Map> list = people(1000);
+        Map a = list.get(10);
+        a.put("id", 5000L);
+        Map b = list.get(700);
+        b.put("id", 20L);
+        people.insertAll(list);
+        assertInserted(list);
+        assertEquals(5000L, people.getId(a));
+        assertEquals(20L, people.getId(b));
+    }
+    
+    @Test
+    public void testFailureRollsBackAndEvicts() throws Exception {
+        List<Map> list = people(1200);
+        // The second statement fails on the unique name.
+        list.get(600).put("name", "P1");
+        try {
+            people.insertAll(list);
+            fail("The duplicate name should fail the insert");
+        } catch ( IOException ex ){
+            // Expected
+        }
+        assertTrue(names().isEmpty());
+        for ( int i=0; i<499; i++ ){
+            long id = people.getId(list.get(i));
+            assertNull(people.getById(id, false));
+        }
+        
+        // The entities can be inserted after the error is fixed.
+        List<Map> retry = people(1200);
+        people.insertAll(retry);
+        assertInserted(retry);
+    }
+    
+    @Test
+    public void testFailureOfIndividualInsertRollsBackAndEvicts() throws Exception {
+        List<Map> list = people(600);
+        list.get(550).put("id", 20L);
+        list.get(550).put("name", "P1");
+        try {
+            people.insertAll(list);
+            fail("The duplicate name should fail the insert");
+        } catch ( IOException ex ){
+            // Expected
+        }
+        assertTrue(names().isEmpty());
+        for ( int i=0; i<499; i++ ){
+            assertNull(people.getById(people.getId(list.get(i)), false));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for DAOs with reader connections while another thread holds a transaction.
+ */
+public class DAOReaderTest {
+    
+    /**
+     * A connection that counts the query plans that are captured on it.
+     */
+    private static class ExplainCountingDatabase extends JDBCDatabase {
+        int explains;
+        
+        ExplainCountingDatabase(Connection conn){
+            super(conn);
+        }
+        
+        @Override
+        public Cursor executeQuery(String sql, Object... params) throws IOException {
+            if ( sql.startsWith("EXPLAIN") ){
+                explains++;
+            }
+            return super.executeQuery(sql, params);
+        }
+    }
+    
+    private File file;
+    private ExplainCountingDatabase db;
+    private ExplainCountingDatabase reader;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("readers", ".db");
+        db = new ExplainCountingDatabase(DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath()));
+        db.execute("PRAGMA journal_mode=WAL");
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR)");
+        db.execute("INSERT INTO people (name) VALUES ('Steve')");
+        provider = new DAOProvider(db, 0);
+        reader = new ExplainCountingDatabase(DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath()));
+        provider.addReader(reader);
+        people = provider.get("people");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        provider.closeReaders();
+        db.close();
+        new File(file.getAbsolutePath()+"-wal").delete();
+        new File(file.getAbsolutePath()+"-shm").delete();
+        file.delete();
+    }
+    
+    private Map person(String name){
+        Map m = new HashMap();
+        m.put("name", name);
+        return m;
+    }
+    
+    @Test
+    public void testWritesWaitForTransactionOfOtherThread() throws Exception {
+        provider.beginTransaction();
+        final Map bob = person("Bob");
+        final Exception[] error = new Exception[1];
+        Thread t = new Thread(){
+            public void run(){
+                try {
+                    people.insert(bob);
+                } catch ( Exception ex ){
+                    error[0] = ex;
+                }
+            }
+        };
+        t.start();
+        t.join(300);
+        assertTrue("Insert should wait for the transaction to end", t.isAlive());
+        
+        Map carl = person("Carl");
+        people.insert(carl);
+        provider.rollbackTransaction();
+        t.join(5000);
+        assertFalse(t.isAlive());
+        assertNull(error[0]);
+        
+        // Bob's insert wasn't part of the rolled back transaction.
+        long id = people.getId(bob);
+        assertSame(bob, people.getById(id, false));
+        assertEquals("Bob", people.fetchOne(new String[]{"id", ""+id}).get("name"));
+        assertEquals(2, people.fetchAll().size());
+    }
+    
+    @Test
+    public void testIdentityWhileOtherThreadWrites() throws Exception {
+        final CountDownLatch written = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Exception[] error = new Exception[1];
+        Thread t = new Thread(){
+            public void run(){
+                try {
+                    provider.beginTransaction();
+                    try {
+                        people.insert(person("Bob"));
+                        written.countDown();
+                        done.await();
+                    } finally {
+                        provider.commitTransaction();
+                    }
+                } catch ( Exception ex ){
+                    error[0] = ex;
+                    written.countDown();
+                }
+            }
+        };
+        t.start();
+        written.await();
+        try {
+            Map steve = people.getById(1, true);
+            assertEquals("Steve", steve.get("name"));
+            assertSame(steve, people.getById(1, true));
+            assertSame(steve, people.fetchAll().get(0));
+        } finally {
+            done.countDown();
+            t.join();
+        }
+        assertNull(error[0]);
+    }
+    
+    @Test
+    public void testQueryPlansAreCapturedOnTheConnectionOfTheQuery() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(0);
+        provider.setSlowQueryLog(log);
+        people.fetchAll();
+        assertEquals(1, reader.explains);
+        assertEquals(0, db.explains);
+        
+        // The transaction's queries run on the main connection.
+        provider.beginTransaction();
+        try {
+            people.fetch(Collections.singletonMap("name", "Steve"));
+        } finally {
+            provider.commitTransaction();
+        }
+        assertEquals(1, reader.explains);
+        assertEquals(1, db.explains);
+        assertEquals(2, log.getQueryPlans().size());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the entity cache across {@link DAOProvider} transactions.
+ */
+public class DAOTransactionTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR)");
+        provider = new DAOProvider(db, 0);
+        people = provider.get("people");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private Map person(String name){
+        Map m = new HashMap();
+        m.put("name", name);
+        return m;
+    }
+    
+    @Test
+    public void testRolledBackInsertIsEvicted() throws Exception {
+        Map p = person("Steve");
+        provider.beginTransaction();
+        people.insert(p);
+        long id = people.getId(p);
+        assertSame(p, people.getById(id, false));
+        provider.rollbackTransaction();
+        
+        assertNull(people.getById(id, false));
+        assertNull(people.getById(id, true));
+        
+        // The entity is inserted again, rather than updating a row that doesn't exist.
+        people.save(p);
+        assertEquals(1, people.fetchAll().size());
+    }
+    
+    @Test
+    public void testRolledBackUpdateIsEvicted() throws Exception {
+        Map p = person("Steve");
+        people.insert(p);
+        long id = people.getId(p);
+        
+        provider.beginTransaction();
+        p.put("name", "Bob");
+        people.update(p);
+        provider.rollbackTransaction();
+        
+        assertNull(people.getById(id, false));
+        Map reloaded = people.getById(id, true);
+        assertNotSame(p, reloaded);
+        assertEquals("Steve", reloaded.get("name"));
+    }
+    
+    @Test
+    public void testNestedRollbackEvictsOnOuterCommit() throws Exception {
+        Map p = person("Steve");
+        provider.beginTransaction();
+        people.insert(p);
+        provider.beginTransaction();
+        provider.rollbackTransaction();
+        try {
+            provider.commitTransaction();
+            fail("Commit of a transaction with a rolled back nested transaction should fail");
+        } catch ( java.io.IOException ex ){
+            // Expected
+        }
+        assertNull(people.getById(people.getId(p), false));
+    }
+    
+    @Test
+    public void testCommittedWritesStayCached() throws Exception {
+        Map p = person("Steve");
+        provider.beginTransaction();
+        people.insert(p);
+        provider.commitTransaction();
+        
+        long id = people.getId(p);
+        assertSame(p, people.getById(id, false));
+        
+        // Rolling back a later transaction doesn't evict entities written before it.
+        provider.beginTransaction();
+        people.insert(person("Bob"));
+        provider.rollbackTransaction();
+        assertSame(p, people.getById(id, false));
+    }
+    
+    private List<DAOChangeEvent> listen(){
+        final List<DAOChangeEvent> events = new ArrayList<DAOChangeEvent>();
+        people.addChangeListener(new DAOChangeListener(){
+            public void tableChanged(DAOChangeEvent evt) {
+                events.add(evt);
+            }
+        });
+        return events;
+    }
+    
+    @Test
+    public void testRollbackKeepsChangesOfEnclosingBatch() throws Exception {
+        List<DAOChangeEvent> events = listen();
+        provider.beginBatch();
+        Map p = person("Steve");
+        people.insert(p);
+        
+        Map q = person("Bob");
+        provider.beginTransaction();
+        people.insert(q);
+        provider.commitTransaction();
+        
+        provider.beginTransaction();
+        people.insert(person("Failed"));
+        p.put("name", "Steven");
+        people.update(p);
+        provider.rollbackTransaction();
+        assertTrue(events.isEmpty());
+        
+        provider.endBatch();
+        assertEquals(1, events.size());
+        DAOChangeEvent evt = events.get(0);
+        assertEquals(new HashSet<Long>(Arrays.asList(people.getId(p), people.getId(q))), evt.getInsertedIds());
+        assertTrue(evt.getUpdatedIds().isEmpty());
+    }
+    
+    @Test
+    public void testRolledBackTransactionDeliversNoChanges() throws Exception {
+        List<DAOChangeEvent> events = listen();
+        provider.beginTransaction();
+        people.insert(person("Steve"));
+        provider.rollbackTransaction();
+        assertTrue(events.isEmpty());
+        
+        Map p = person("Bob");
+        provider.beginTransaction();
+        people.insert(p);
+        provider.commitTransaction();
+        assertEquals(1, events.size());
+        assertEquals(new HashSet<Long>(Arrays.asList(people.getId(p))), events.get(0).getInsertedIds());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for exporting tables with blob columns, on a database that (like Android) 
+ * can't read blobs as strings.
+ */
+public class ExporterTest {
+    
+    private StrictBlobDatabase db;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new StrictBlobDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, photo BLOB)");
+        db.execute("INSERT INTO people (name, photo) VALUES (?,?)", new Object[]{"Steve", new byte[]{1, 2, 3}});
+        db.execute("INSERT INTO people (name, photo) VALUES (?,?)", new Object[]{"Bob", null});
+        people = new DAOProvider(db, 0).get("people");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    @Test
+    public void testExportJSONWithBlobs() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, people.exportJSON(out));
+        String json = out.toString("UTF-8");
+        assertTrue(json, json.contains("\"photo\":\"AQID\""));
+        assertTrue(json, json.contains("\"photo\":null"));
+    }
+    
+    @Test
+    public void testSnapshotWithBlobs() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, people.exportSnapshot(out));
+        people.deleteWhere(new String[]{"name", "Steve"});
+        people.deleteWhere(new String[]{"name", "Bob"});
+        assertEquals(2, people.restoreSnapshot(new ByteArrayInputStream(out.toByteArray())));
+        
+        List<Map> res = people.fetchAll();
+        assertEquals(2, res.size());
+        for ( Map p : res ){
+            if ( "Steve".equals(p.get("name")) ){
+                assertArrayEquals(new byte[]{1, 2, 3}, (byte[])p.get("photo"));
+            } else {
+                assertNull(p.get("photo"));
+            }
+        }
+    }
+    
+    @Test
+    public void testExportedBlobsAreImportedAgain() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, people.exportNDJSON(out, null));
+        people.deleteWhere(new String[]{"name", "Steve"});
+        people.deleteWhere(new String[]{"name", "Bob"});
+        
+        Importer<Map> importer = new Importer<Map>(people, new String[]{"name"}, (Map)null);
+        importer.importNDJSON(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, importer.getInsertedCount());
+        assertBlobs();
+        
+        // Importing the same rows again doesn't change them.
+        importer.setSkipUnchanged(true);
+        importer.importNDJSON(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, importer.getUnchangedCount());
+        assertBlobs();
+    }
+    
+    private void assertBlobs() throws Exception {
+        people.clearCache();
+        List<Map> res = people.fetchAll();
+        assertEquals(2, res.size());
+        for ( Map p : res ){
+            if ( "Steve".equals(p.get("name")) ){
+                assertArrayEquals(new byte[]{1, 2, 3}, (byte[])p.get("photo"));
+            } else {
+                assertNull(p.get("photo"));
+            }
+        }
+    }
+    
+    @Test(expected=IOException.class)
+    public void testInvalidBase64IsRejected() throws Exception {
+        Map row = new HashMap();
+        row.put("name", "Carl");
+        row.put("photo", "not base64!");
+        new Importer<Map>(people, new String[]{"name"}, (Map)null).importSet(Arrays.asList(row));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.sql.DriverManager;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the full-text index of a DAO.
+ */
+public class FullTextTest {
+    
+    private JDBCDatabase db;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR)");
+        db.execute("INSERT INTO people (name) VALUES ('Steve Hannah')");
+        people = new DAOProvider(db, 0).get("people");
+        people.setFullTextColumns(new String[]{"name"});
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    @Test
+    public void testSearch() throws Exception {
+        assertEquals(1, people.search("hann", 0).size());
+        db.execute("INSERT INTO people (name) VALUES ('Bob Hanson')");
+        assertEquals(2, people.search("han", 0).size());
+        assertEquals(0, people.search("carl", 0).size());
+    }
+    
+    @Test
+    public void testIndexIsRebuiltAfterInterruptedImport() throws Exception {
+        // The app is killed during an import, after the triggers were dropped.
+        assertTrue(people.suspendFullTextIndex());
+        db.execute("INSERT INTO people (name) VALUES ('Bob Hanson')");
+        
+        people = new DAOProvider(db, 0).get("people");
+        people.setFullTextColumns(new String[]{"name"});
+        assertEquals(2, people.search("han", 0).size());
+        
+        db.execute("INSERT INTO people (name) VALUES ('Carl Hansen')");
+        assertEquals(3, people.search("han", 0).size());
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link Importer}.
+ */
+public class ImporterTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> items;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE items (id INTEGER PRIMARY KEY AUTOINCREMENT, sku VARCHAR, code VARCHAR, qty INTEGER, big LONG, price DOUBLE)");
+        provider = new DAOProvider(db, 0);
+        items = provider.get("items");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private static Map row(String code, Object qty, Object big, Object price){
+        Map m = new HashMap();
+        m.put("sku", "A1");
+        m.put("code", code);
+        m.put("qty", qty);
+        m.put("big", big);
+        m.put("price", price);
+        return m;
+    }
+    
+    private Importer<Map> importRows(Map... rows) throws Exception {
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.setSkipUnchanged(true);
+        List list = new ArrayList();
+        for ( Map r : rows ){
+            list.add(r);
+        }
+        importer.importSet(list);
+        return importer;
+    }
+    
+    @Test
+    public void testNumericValuesOfNumericColumnsAreUnchanged() throws Exception {
+        importRows(row("007", 5L, 9007199254740993L, 1.5));
+        Importer<Map> importer = importRows(row("007", 5.0, "9007199254740993", "1.50"));
+        assertEquals(1, importer.getUnchangedCount());
+        assertEquals(0, importer.getUpdatedCount());
+    }
+    
+    @Test
+    public void testStringColumnsAreComparedExactly() throws Exception {
+        importRows(row("007", 5L, 1L, 1.5));
+        Importer<Map> importer = importRows(row("7", 5L, 1L, 1.5));
+        assertEquals(1, importer.getUpdatedCount());
+        assertEquals("7", items.fetchOne(new String[]{"sku", "A1"}).get("code"));
+        
+        importer = importRows(row("1e3", 5L, 1L, 1.5));
+        assertEquals(1, importer.getUpdatedCount());
+        importer = importRows(row("1000", 5L, 1L, 1.5));
+        assertEquals(1, importer.getUpdatedCount());
+    }
+    
+    @Test
+    public void testLargeIntegersAreComparedExactly() throws Exception {
+        importRows(row("a", 5L, 9007199254740993L, 1.5));
+        // Equal to the stored value after conversion to double.
+        Importer<Map> importer = importRows(row("a", 5L, 9007199254740992L, 1.5));
+        assertEquals(1, importer.getUpdatedCount());
+        Cursor c = db.executeQuery("SELECT big FROM items");
+        c.next();
+        assertEquals(9007199254740992L, c.getRow().getLong(0));
+        c.close();
+    }
+    
+    @Test
+    public void testUnbatchedRowIsCommittedWithItsCheckpoint() throws Exception {
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null){
+            @Override
+            protected void afterImport(Map object, Map row) {
+                if ( "B2".equals(row.get("sku")) ){
+                    throw new RuntimeException("Failed after writing "+row.get("sku"));
+                }
+            }
+        };
+        importer.setBatchSize(0);
+        importer.setCheckpoint("feed1");
+        List list = new ArrayList();
+        for ( String sku : new String[]{"A1", "B2", "C3"} ){
+            Map m = row("x", 1L, 1L, 1.0);
+            m.put("sku", sku);
+            list.add(m);
+        }
+        try {
+            importer.importSet(list);
+            fail("The import should fail");
+        } catch ( RuntimeException ex ){
+            // Expected
+        }
+        
+        Cursor c = db.executeQuery("SELECT last_row FROM \""+Importer.CHECKPOINT_TABLE+"\"");
+        assertTrue(c.next());
+        assertEquals(1, c.getRow().getInteger(0));
+        c.close();
+        c = db.executeQuery("SELECT sku FROM items");
+        assertTrue(c.next());
+        assertEquals("A1", c.getRow().getString(0));
+        assertFalse(c.next());
+        c.close();
+    }
+    
+    private static List skuRows(String... skus){
+        List list = new ArrayList();
+        for ( String sku : skus ){
+            Map m = row("x", 1L, 1L, 1.0);
+            m.put("sku", sku);
+            list.add(m);
+        }
+        return list;
+    }
+    
+    private List<String> skus() throws Exception {
+        List<String> out = new ArrayList<String>();
+        Cursor c = db.executeQuery("SELECT sku FROM items ORDER BY sku");
+        try {
+            while ( c.next() ){
+                out.add(c.getRow().getString(0));
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+    
+    private boolean tableExists(String name) throws Exception {
+        Cursor c = db.executeQuery("SELECT name FROM sqlite_master WHERE name=? UNION SELECT name FROM sqlite_temp_master WHERE name=?", new Object[]{name, name});
+        try {
+            return c.next();
+        } finally {
+            c.close();
+        }
+    }
+    
+    private Map cachedItem(String sku) throws Exception {
+        List<Map> res = items.fetch(Collections.singletonMap("sku", sku));
+        assertEquals(1, res.size());
+        return res.get(0);
+    }
+    
+    @Test
+    public void testMirrorDeletesUnseenRows() throws Exception {
+        new Importer<Map>(items, new String[]{"sku"}, (Map)null).importSet(skuRows("A1", "B2", "C3", "D4"));
+        Map a1 = cachedItem("A1");
+        long b2 = items.getId(cachedItem("B2"));
+        
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.setMirror(true);
+        importer.importSet(skuRows("A1", "C3"));
+        
+        assertEquals(2, importer.getDeletedCount());
+        assertEquals(Arrays.asList("A1", "C3"), skus());
+        assertNull(items.getById(b2, false));
+        assertSame(a1, items.getById(items.getId(a1), false));
+        assertFalse(tableExists("dao_import_seen_items"));
+    }
+    
+    @Test
+    public void testMirrorDeletesNothingIfImportFails() throws Exception {
+        new Importer<Map>(items, new String[]{"sku"}, (Map)null).importSet(skuRows("A1", "B2", "C3"));
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null){
+            @Override
+            protected void afterImport(Map object, Map row) {
+                if ( "D4".equals(row.get("sku")) ){
+                    throw new RuntimeException("Failed after writing "+row.get("sku"));
+                }
+            }
+        };
+        importer.setMirror(true);
+        try {
+            importer.importSet(skuRows("A1", "D4"));
+            fail("The import should fail");
+        } catch ( RuntimeException ex ){
+            // Expected
+        }
+        assertEquals(Arrays.asList("A1", "B2", "C3"), skus());
+    }
+    
+    @Test
+    public void testResumedMirrorKeepsRowsSeenBeforeInterruption() throws Exception {
+        // The import is resumed on a new connection, as it would be after the app was killed.
+        db.close();
+        File file = File.createTempFile("mirror", ".db");
+        try {
+            db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath()));
+            db.execute("CREATE TABLE items (id INTEGER PRIMARY KEY AUTOINCREMENT, sku VARCHAR, code VARCHAR, qty INTEGER, big LONG, price DOUBLE)");
+            items = new DAOProvider(db, 0).get("items");
+            new Importer<Map>(items, new String[]{"sku"}, (Map)null).importSet(skuRows("A1", "B2", "Z9"));
+            List feed = skuRows("A1", "B2", "C3", "D4", "E5");
+
+            Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null){
+                @Override
+                protected void afterImport(Map object, Map row) {
+                    if ( "D4".equals(row.get("sku")) ){
+                        throw new RuntimeException("Failed after writing "+row.get("sku"));
+                    }
+                }
+            };
+            importer.setBatchSize(2);
+            importer.setCheckpoint("feed1");
+            importer.setMirror(true);
+            try {
+                importer.importSet(feed);
+                fail("The import should fail");
+            } catch ( RuntimeException ex ){
+                // Expected
+            }
+            db.close();
+
+            db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath()));
+            items = new DAOProvider(db, 0).get("items");
+            long z9 = items.getId(cachedItem("Z9"));
+            importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+            importer.setBatchSize(2);
+            importer.setCheckpoint("feed1");
+            importer.setMirror(true);
+            importer.importSet(feed);
+
+            // The rows imported before the interruption aren't deleted, even though 
+            // the resumed import skipped them.
+            assertEquals(1, importer.getDeletedCount());
+            assertEquals(Arrays.asList("A1", "B2", "C3", "D4", "E5"), skus());
+            assertNull(items.getById(z9, false));
+            assertFalse(tableExists("dao_import_seen_items"));
+        } finally {
+            db.close();
+            file.delete();
+        }
+    }
+    
+    private List<Map> importCSV(String csv) throws Exception {
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.importCSV(new ByteArrayInputStream(csv.getBytes("UTF-8")));
+        return items.fetchAll("SELECT * FROM items ORDER BY id", new String[0]);
+    }
+    
+    @Test
+    public void testImportCSV() throws Exception {
+        List<Map> res = importCSV("\uFEFFsku,code,qty\r\n"
+                + "A1,\"x,y\",5\r\n"
+                + "\r\n"
+                + "B2,\"line1\r\nline2 \"\"quoted\"\"\",\r\n"
+                + "C3,\"\",7");
+        assertEquals(3, res.size());
+        assertEquals("A1", res.get(0).get("sku"));
+        assertEquals("x,y", res.get(0).get("code"));
+        assertEquals(5, ((Number)res.get(0).get("qty")).intValue());
+        assertEquals("line1\r\nline2 \"quoted\"", res.get(1).get("code"));
+        assertEquals("", res.get(2).get("code"));
+        
+        // The empty qty field of B2 is imported as null.
+        Cursor c = db.executeQuery("SELECT sku FROM items WHERE qty IS NULL");
+        assertTrue(c.next());
+        assertEquals("B2", c.getRow().getString(0));
+        assertFalse(c.next());
+        c.close();
+    }
+    
+    @Test
+    public void testImportCSVWithShortRecord() throws Exception {
+        List<Map> res = importCSV("sku,code,qty\nA1\n");
+        assertEquals(1, res.size());
+        assertNull(res.get(0).get("code"));
+    }
+    
+    @Test
+    public void testImportCSVWithExtraFields() throws Exception {
+        try {
+            importCSV("sku,code\nA1,x\nB2,y,5\n");
+            fail("A record with more fields than the header should fail the import");
+        } catch ( IOException ex ){
+            assertTrue(ex.getMessage(), ex.getMessage().contains("record 3"));
+        }
+    }
+    
+    @Test
+    public void testImportNDJSON() throws Exception {
+        String ndjson = "{\"sku\":\"A1\",\"code\":\"x\"}\r\n"
+                + "\n"
+                + "   \n"
+                + "{\"sku\":\"B2\",\"code\":null}\n"
+                + "\t{\"sku\":\"C3\",\"code\":\"z\"}";
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.importNDJSON(new ByteArrayInputStream(ndjson.getBytes("UTF-8")));
+        List<Map> res = items.fetchAll("SELECT * FROM items ORDER BY id", new String[0]);
+        assertEquals(3, res.size());
+        assertEquals("x", res.get(0).get("code"));
+        assertEquals("B2", res.get(1).get("sku"));
+        assertNull(res.get(1).get("code"));
+        assertEquals("C3", res.get(2).get("sku"));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JSONRowStream}.  The parser callbacks are called in the order that the
+ * Codename One JSON parser calls them.
+ */
+public class JSONRowStreamTest {
+    
+    @Test
+    public void testNullLiteralAndNullString() throws Exception {
+        final List<Map> rows = new ArrayList<Map>();
+        JSONRowStream s = new JSONRowStream("rows"){
+            @Override
+            boolean row(Map row) {
+                rows.add(row);
+                return true;
+            }
+        };
+        
+        // {"rows":[{"name":"null","nick":null,"age":5}]}
+        s.startBlock(null);
+        s.startArray("rows");
+        s.startBlock(null);
+        s.stringToken("null");
+        s.keyValue("name", "null");
+        s.keyValue("nick", "null");
+        s.longToken(5);
+        s.keyValue("age", "5");
+        s.endBlock(null);
+        s.endArray("rows");
+        s.endBlock(null);
+        
+        assertEquals(1, rows.size());
+        Map row = rows.get(0);
+        assertEquals("null", row.get("name"));
+        assertTrue(row.containsKey("nick"));
+        assertNull(row.get("nick"));
+        assertEquals("5", row.get("age"));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the DAO query cache.
+ */
+public class QueryCacheTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, age INTEGER)");
+        provider = new DAOProvider(db, 0);
+        people = provider.get("people");
+        people.setQueryCacheSize(10);
+        people.insert(person("A", 1));
+        people.insert(person("B", 2));
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private static Map person(String name, int age){
+        Map m = new HashMap();
+        m.put("name", name);
+        m.put("age", age);
+        return m;
+    }
+    
+    /**
+     * Runs fetchAll() twice so that the second run is served from the query cache.
+     * @return The result of the cached run.
+     */
+    private List<Map> warm() throws Exception {
+        people.fetchAll();
+        int hits = people.getQueryCacheHits();
+        List<Map> out = people.fetchAll();
+        assertEquals(hits+1, people.getQueryCacheHits());
+        return out;
+    }
+    
+    private void assertInvalidated(int invalidations) throws Exception {
+        assertEquals(invalidations+1, people.getQueryCacheInvalidations());
+        int hits = people.getQueryCacheHits();
+        people.fetchAll();
+        assertEquals(hits, people.getQueryCacheHits());
+    }
+    
+    private static List<String> names(List<Map> list){
+        List<String> out = new ArrayList<String>();
+        for ( Map m : list ){
+            out.add((String)m.get("name"));
+        }
+        return out;
+    }
+    
+    @Test
+    public void testInsertInvalidates() throws Exception {
+        warm();
+        int inv = people.getQueryCacheInvalidations();
+        people.insert(person("C", 3));
+        assertInvalidated(inv);
+        assertEquals(3, people.fetchAll().size());
+    }
+    
+    @Test
+    public void testUpdateInvalidates() throws Exception {
+        Map a = warm().get(0);
+        int inv = people.getQueryCacheInvalidations();
+        a.put("name", "Z");
+        people.update(a);
+        assertInvalidated(inv);
+    }
+    
+    @Test
+    public void testSaveInvalidates() throws Exception {
+        warm();
+        int inv = people.getQueryCacheInvalidations();
+        people.save(person("C", 3));
+        assertInvalidated(inv);
+        assertTrue(names(people.fetchAll()).contains("C"));
+        
+        Map c = people.fetchAll().get(2);
+        inv = people.getQueryCacheInvalidations();
+        c.put("age", 4);
+        people.save(c);
+        assertInvalidated(inv);
+    }
+    
+    @Test
+    public void testImportInvalidates() throws Exception {
+        warm();
+        int inv = people.getQueryCacheInvalidations();
+        List rows = new ArrayList();
+        rows.add(person("C", 3));
+        new Importer<Map>(people, new String[]{"name"}, (Map)null).importSet(rows);
+        assertInvalidated(inv);
+        assertTrue(names(people.fetchAll()).contains("C"));
+    }
+    
+    @Test
+    public void testConcurrentStatistics() throws Exception {
+        warm();
+        final int hits = people.getQueryCacheHits();
+        final int nThreads = 8;
+        final int runs = 2000;
+        final Exception[] err = new Exception[1];
+        Thread[] threads = new Thread[nThreads];
+        for ( int i=0; i<nThreads; i++ ){
+            threads[i] = new Thread(){
+                @Override
+                public void run() {
+                    try {
+                        for ( int j=0; j<runs; j++ ){
+                            people.fetchAll();
+                        }
+                    } catch ( Exception ex ){
+                        err[0] = ex;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for ( Thread t : threads ){
+            t.join();
+        }
+        if ( err[0] != null ){
+            throw err[0];
+        }
+        assertEquals(hits + nThreads*runs, people.getQueryCacheHits());
+    }
+}
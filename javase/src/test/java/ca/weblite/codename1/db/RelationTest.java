@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the queries issued to load declared relations.
+ */
+public class RelationTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    private final List<String> statements = new ArrayList<String>();
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE companies (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR)");
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, company_id INTEGER)");
+        db.execute("INSERT INTO companies (name) VALUES ('Acme')");
+        db.execute("INSERT INTO people (name, company_id) VALUES ('Steve', 1)");
+        db.execute("INSERT INTO people (name, company_id) VALUES ('Bob', 1)");
+        provider = new DAOProvider(db, 0);
+        provider.get("companies");
+        people = provider.get("people");
+        people.addManyToOne("company", "company_id", "companies");
+        provider.setMetrics(new SimpleDAOMetrics(){
+            @Override
+            public synchronized void statementExecuted(String table, String sql, int rows, long elapsed) {
+                super.statementExecuted(table, sql, rows, elapsed);
+                statements.add(sql);
+            }
+        });
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private int statementsOn(String table){
+        int count = 0;
+        for ( String sql : statements ){
+            if ( sql.contains("\""+table+"\"") ){
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    @Test
+    public void testFetchLoadsRelationsInOneQuery() throws Exception {
+        List<Map> res = people.fetchAll();
+        assertEquals(2, res.size());
+        assertEquals("Acme", ((Map)res.get(0).get("company")).get("name"));
+        assertSame(res.get(0).get("company"), res.get(1).get("company"));
+        assertEquals(1, statementsOn("companies"));
+    }
+    
+    @Test
+    public void testFetchOneDoesNotLoadRelations() throws Exception {
+        Map steve = people.fetchOne(new String[]{"name", "Steve"});
+        assertEquals("Steve", steve.get("name"));
+        assertFalse(steve.containsKey("company"));
+        assertEquals(0, statementsOn("companies"));
+    }
+    
+    @Test
+    public void testImportDoesNotLoadRelations() throws Exception {
+        DAO<Map> companies = provider.get("companies");
+        companies.addOneToMany("employees", "people", "company_id");
+        List rows = new ArrayList();
+        for ( String name : new String[]{"Acme", "Initech", "Globex"} ){
+            Map m = new HashMap();
+            m.put("name", name);
+            rows.add(m);
+        }
+        new Importer<Map>(companies, new String[]{"name"}, (Map)null).importSet(rows);
+        assertEquals(3, companies.fetchAll().size());
+        assertEquals(1, statementsOn("people"));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the use of the {@link RowCache} by DAOs.
+ */
+public class RowCacheTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    private long id;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, age INTEGER)");
+        db.execute("INSERT INTO people (name, age) VALUES ('Steve', 35)");
+        provider = new DAOProvider(db, 0);
+        provider.setRowCache(new RowCache());
+        people = provider.get("people");
+        Cursor c = db.executeQuery("SELECT id FROM people");
+        c.next();
+        id = c.getRow().getLong(0);
+        c.close();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    @Test
+    public void testPartialProjectionIsNotCached() throws Exception {
+        List<Map> res = people.fetchAll("select id, name from people", new String[0]);
+        assertEquals(1, res.size());
+        assertEquals("Steve", res.get(0).get("name"));
+        people.clearCache();
+        
+        // The row cache doesn't have the row, so it isn't built with a null age.
+        assertNull(people.getById(id, false));
+        Map p = people.getById(id, true);
+        assertEquals(35, ((Number)p.get("age")).intValue());
+    }
+    
+    @Test
+    public void testFullRowIsCached() throws Exception {
+        people.fetchAll();
+        people.clearCache();
+        
+        Map p = people.getById(id, false);
+        assertNotNull(p);
+        assertEquals("Steve", p.get("name"));
+        assertEquals(35, ((Number)p.get("age")).intValue());
+    }
+}
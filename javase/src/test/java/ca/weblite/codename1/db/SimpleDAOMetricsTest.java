@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SimpleDAOMetrics}.
+ */
+public class SimpleDAOMetricsTest {
+    
+    @Test
+    public void testStatementShape() throws Exception {
+        assertEquals("select * from \"people\"", SimpleDAOMetrics.statementShape("select * from \"people\""));
+        assertEquals("select * from \"people\" where \"name\"=? ", SimpleDAOMetrics.statementShape("select * from \"people\" where \"name\"=? "));
+        assertEquals("DELETE FROM \"people\" WHERE id IN (?,...)", SimpleDAOMetrics.statementShape("DELETE FROM \"people\" WHERE id IN (?)"));
+        assertEquals("DELETE FROM \"people\" WHERE id IN (?,...)", SimpleDAOMetrics.statementShape("DELETE FROM \"people\" WHERE id IN (?,?,?)"));
+        assertEquals("INSERT INTO \"people\" (\"name\",\"age\") VALUES (?,...)", 
+                SimpleDAOMetrics.statementShape("INSERT INTO \"people\" (\"name\",\"age\") VALUES (?,?),(?,?), (?, ?)"));
+        assertEquals("select count(*) from t where a in (?,...) and b in (?,...)", 
+                SimpleDAOMetrics.statementShape("select count(*) from t where a in (?,?) and b in (?)"));
+    }
+    
+    @Test
+    public void testStatementsOfDifferentSizesHaveOneShape() throws Exception {
+        JDBCDatabase db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        try {
+            db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR)");
+            DAOProvider provider = new DAOProvider(db, 0);
+            SimpleDAOMetrics metrics = new SimpleDAOMetrics();
+            provider.setMetrics(metrics);
+            DAO<Map> people = provider.get("people");
+            for ( int n=1; n<=3; n++ ){
+                List<Map> list = new ArrayList<Map>();
+                for ( int i=0; i<n; i++ ){
+                    Map m = new HashMap();
+                    m.put("name", "Person "+i);
+                    list.add(m);
+                }
+                people.insertAll(list);
+            }
+            people.deleteById(new long[]{1});
+            people.deleteById(new long[]{2, 3});
+            
+            int inserts = 0;
+            int deletes = 0;
+            for ( Object o : (List)metrics.snapshot().get("statements") ){
+                String sql = (String)((Map)o).get("sql");
+                if ( sql.startsWith("INSERT") ){
+                    inserts++;
+                    assertEquals(3L, ((Map)o).get("count"));
+                } else if ( sql.startsWith("DELETE") ){
+                    deletes++;
+                    assertEquals(2L, ((Map)o).get("count"));
+                }
+            }
+            assertEquals(1, inserts);
+            assertEquals(1, deletes);
+        } finally {
+            db.close();
+        }
+    }
+    
+    @Test
+    public void testDurationsInClockUnits() throws Exception {
+        SimpleDAOMetrics metrics = new SimpleDAOMetrics(){
+            @Override
+            public long getUnitsPerSecond() {
+                return 1000000000L;
+            }
+        };
+        metrics.imported("people", 500, 2000000000L);
+        metrics.statementExecuted("people", "select 1", 1, 1500L);
+        metrics.statementExecuted("people", "select 1", 1, 500L);
+        
+        Map snapshot = metrics.snapshot();
+        assertEquals(1000000000L, snapshot.get("unitsPerSecond"));
+        Map table = (Map)((Map)snapshot.get("tables")).get("people");
+        assertEquals(250.0, (Double)table.get("importRowsPerSecond"), 0.0001);
+        
+        List histogram = (List)((Map)((List)snapshot.get("statements")).get(0)).get("histogram");
+        assertEquals(1L, histogram.get(0));
+        assertEquals(1L, histogram.get(1));
+    }
+    
+    @Test
+    public void testMillisecondHistogram() throws Exception {
+        SimpleDAOMetrics metrics = new SimpleDAOMetrics();
+        metrics.statementExecuted("people", "select 1", 1, 0);
+        metrics.statementExecuted("people", "select 1", 1, 1);
+        metrics.imported("people", 500, 2000);
+        
+        Map snapshot = metrics.snapshot();
+        Map table = (Map)((Map)snapshot.get("tables")).get("people");
+        assertEquals(250.0, (Double)table.get("importRowsPerSecond"), 0.0001);
+        List histogram = (List)((Map)((List)snapshot.get("statements")).get(0)).get("histogram");
+        assertEquals(1L, histogram.get(0));
+        // 1ms = 1000 microseconds, in [512, 1024)
+        assertEquals(1L, histogram.get(10));
+    }
+}
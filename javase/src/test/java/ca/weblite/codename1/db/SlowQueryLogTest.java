@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SlowQueryLog}.
+ */
+public class SlowQueryLogTest {
+    
+    @Test
+    public void testTableScans() throws Exception {
+        assertTrue(SlowQueryLog.isTableScan("SCAN people\n"));
+        assertTrue(SlowQueryLog.isTableScan("SCAN TABLE people\n"));
+        assertTrue(SlowQueryLog.isTableScan("SEARCH companies USING INTEGER PRIMARY KEY (rowid=?)\nSCAN people\n"));
+        assertTrue(SlowQueryLog.isTableScan("  SCAN people\nUSE TEMP B-TREE FOR ORDER BY\n"));
+    }
+    
+    @Test
+    public void testIndexedPlansAreNotTableScans() throws Exception {
+        assertFalse(SlowQueryLog.isTableScan(null));
+        assertFalse(SlowQueryLog.isTableScan("SEARCH people USING INTEGER PRIMARY KEY (rowid=?)\n"));
+        assertFalse(SlowQueryLog.isTableScan("SEARCH people USING INDEX people_name (name=?)\n"));
+        assertFalse(SlowQueryLog.isTableScan("SCAN people USING COVERING INDEX people_name\n"));
+    }
+    
+    @Test
+    public void testConstantRowIsNotTableScan() throws Exception {
+        assertFalse(SlowQueryLog.isTableScan("SCAN CONSTANT ROW\n"));
+    }
+    
+    @Test
+    public void testVirtualTableIsNotTableScan() throws Exception {
+        assertFalse(SlowQueryLog.isTableScan("SCAN people_fts VIRTUAL TABLE INDEX 0:M3\n"));
+        assertFalse(SlowQueryLog.isTableScan("SCAN TABLE people_fts VIRTUAL TABLE INDEX 0:M3\n"));
+        assertTrue(SlowQueryLog.isTableScan("SCAN people_fts VIRTUAL TABLE INDEX 0:M3\nSCAN people\n"));
+    }
+    
+    @Test
+    public void testPlansAreCapturedOncePerShape() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(100);
+        assertTrue(log.needsPlan("DELETE FROM \"people\" WHERE id IN (?,?)"));
+        log.addPlan("people", "DELETE FROM \"people\" WHERE id IN (?,?)", "SEARCH people USING INTEGER PRIMARY KEY (rowid=?)\n");
+        assertFalse(log.needsPlan("DELETE FROM \"people\" WHERE id IN (?,?,?)"));
+        assertEquals("people", log.getTable("DELETE FROM \"people\" WHERE id IN (?)"));
+        assertEquals(1, log.getQueryPlans().size());
+    }
+}
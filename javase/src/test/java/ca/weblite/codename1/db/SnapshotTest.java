@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SnapshotWriter} and {@link SnapshotReader}.
+ */
+public class SnapshotTest {
+    
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> people;
+    private DAO<Map> pets;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, photo BLOB)");
+        db.execute("CREATE TABLE pets (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, species VARCHAR)");
+        provider = new DAOProvider(db, 0);
+        people = provider.get("people");
+        pets = provider.get("pets");
+        db.execute("INSERT INTO people (name, photo) VALUES (?,?)", new Object[]{"Steve", new byte[]{1, 2, 3}});
+        db.execute("INSERT INTO pets (name, species) VALUES (?,?)", new Object[]{"Rex", "dog"});
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private byte[] snapshot(DAO dao) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dao.exportSnapshot(out);
+        return out.toByteArray();
+    }
+    
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] snapshot = snapshot(people);
+        people.deleteWhere(new String[]{"name", "Steve"});
+        assertEquals(1, people.restoreSnapshot(new ByteArrayInputStream(snapshot)));
+        List<Map> res = people.fetchAll();
+        assertEquals(1, res.size());
+        assertEquals("Steve", res.get(0).get("name"));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[])res.get(0).get("photo"));
+    }
+    
+    @Test
+    public void testOtherTableIsRejected() throws Exception {
+        byte[] snapshot = snapshot(people);
+        try {
+            pets.restoreSnapshot(new ByteArrayInputStream(snapshot));
+            fail("Restoring a snapshot of another table should fail");
+        } catch ( IOException ex ){
+            // Expected
+        }
+        Map rex = pets.fetchOne(new String[]{"name", "Rex"});
+        assertNotNull(rex);
+        assertEquals("dog", rex.get("species"));
+    }
+    
+    @Test
+    public void testOtherTableWithOptIn() throws Exception {
+        byte[] snapshot = snapshot(people);
+        SnapshotReader reader = new SnapshotReader(pets);
+        reader.setAnyTable(true);
+        assertEquals(1, reader.read(new ByteArrayInputStream(snapshot)));
+        assertEquals("Steve", pets.fetchAll().get(0).get("name"));
+    }
+}
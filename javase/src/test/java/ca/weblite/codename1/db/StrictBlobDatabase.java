@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import com.codename1.db.Database;
+import com.codename1.db.Row;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A test database that behaves like the Android port when reading blobs: reading 
+ * a BLOB value with {@link Row#getString(int)} throws an exception.  Writes are 
+ * delegated to a {@link JDBCDatabase} on the same connection.
+ */
+class StrictBlobDatabase extends Database {
+    
+    private final Connection conn;
+    private final JDBCDatabase db;
+    
+    StrictBlobDatabase(Connection conn){
+        this.conn = conn;
+        this.db = new JDBCDatabase(conn);
+    }
+    
+    private static class StrictCursor implements Cursor, Row {
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private int position = -1;
+        
+        StrictCursor(PreparedStatement ps, ResultSet rs){
+            this.ps = ps;
+            this.rs = rs;
+        }
+        
+        private static IOException error(SQLException ex){
+            return new IOException(ex.getMessage(), ex);
+        }
+        
+        public boolean first() throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        public boolean last() throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        public boolean next() throws IOException {
+            try {
+                position++;
+                return rs.next();
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public boolean prev() throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        public int getColumnIndex(String columnName) throws IOException {
+            try {
+                return rs.findColumn(columnName) - 1;
+            } catch ( SQLException ex ){
+                return -1;
+            }
+        }
+
+        public String getColumnName(int columnIndex) throws IOException {
+            try {
+                return rs.getMetaData().getColumnName(columnIndex + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public int getColumnCount() throws IOException {
+            try {
+                return rs.getMetaData().getColumnCount();
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public int getPosition() throws IOException {
+            return position;
+        }
+
+        public boolean position(int row) throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        public void close() throws IOException {
+            try {
+                rs.close();
+                ps.close();
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public Row getRow() throws IOException {
+            return this;
+        }
+
+        public byte[] getBlob(int index) throws IOException {
+            try {
+                return rs.getBytes(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public double getDouble(int index) throws IOException {
+            try {
+                return rs.getDouble(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public float getFloat(int index) throws IOException {
+            try {
+                return rs.getFloat(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public int getInteger(int index) throws IOException {
+            try {
+                return rs.getInt(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public long getLong(int index) throws IOException {
+            try {
+                return rs.getLong(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public short getShort(int index) throws IOException {
+            try {
+                return rs.getShort(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+
+        public String getString(int index) throws IOException {
+            try {
+                if ( rs.getObject(index + 1) instanceof byte[] ){
+                    throw new IllegalStateException("Unable to convert BLOB to string");
+                }
+                return rs.getString(index + 1);
+            } catch ( SQLException ex ){
+                throw error(ex);
+            }
+        }
+    }
+
+    @Override
+    public void beginTransaction() throws IOException {
+        db.beginTransaction();
+    }
+
+    @Override
+    public void commitTransaction() throws IOException {
+        db.commitTransaction();
+    }
+
+    @Override
+    public void rollbackTransaction() throws IOException {
+        db.rollbackTransaction();
+    }
+
+    @Override
+    public void close() throws IOException {
+        db.close();
+    }
+
+    @Override
+    public void execute(String sql) throws IOException {
+        db.execute(sql);
+    }
+
+    @Override
+    public void execute(String sql, String[] params) throws IOException {
+        db.execute(sql, params);
+    }
+
+    @Override
+    public void execute(String sql, Object... params) throws IOException {
+        db.execute(sql, params);
+    }
+
+    @Override
+    public Cursor executeQuery(String sql, String[] params) throws IOException {
+        return executeQuery(sql, (Object[])params);
+    }
+
+    @Override
+    public Cursor executeQuery(String sql, Object... params) throws IOException {
+        try {
+            PreparedStatement ps = conn.prepareStatement(sql);
+            if ( params != null ){
+                for ( int i=0; i<params.length; i++ ){
+                    ps.setObject(i + 1, params[i]);
+                }
+            }
+            return new StrictCursor(ps, ps.executeQuery());
+        } catch ( SQLException ex ){
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Cursor executeQuery(String sql) throws IOException {
+        return executeQuery(sql, (Object[])null);
+    }
+}
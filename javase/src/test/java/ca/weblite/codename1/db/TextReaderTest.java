@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TextReader}.
+ */
+public class TextReaderTest {
+    
+    private static List<String[]> records(String csv) throws IOException {
+        TextReader r = new TextReader(new StringReader(csv));
+        List<String[]> out = new ArrayList<String[]>();
+        String[] record;
+        while ( (record = r.readRecord(',')) != null ){
+            out.add(record);
+        }
+        return out;
+    }
+    
+    private static List<String> lines(String text) throws IOException {
+        TextReader r = new TextReader(new StringReader(text));
+        List<String> out = new ArrayList<String>();
+        int len;
+        while ( (len = r.readLine()) >= 0 ){
+            out.add(new String(r.getLine(), 0, len));
+        }
+        return out;
+    }
+    
+    @Test
+    public void testQuotedDelimiters() throws Exception {
+        List<String[]> res = records("a,\"b,c\",d\n");
+        assertEquals(1, res.size());
+        assertArrayEquals(new String[]{"a", "b,c", "d"}, res.get(0));
+    }
+    
+    @Test
+    public void testEmbeddedLineBreaks() throws Exception {
+        List<String[]> res = records("\"line1\r\nline2\",x\r\nnext,y\r\n");
+        assertEquals(2, res.size());
+        assertArrayEquals(new String[]{"line1\r\nline2", "x"}, res.get(0));
+        assertArrayEquals(new String[]{"next", "y"}, res.get(1));
+    }
+    
+    @Test
+    public void testDoubledQuotes() throws Exception {
+        List<String[]> res = records("\"say \"\"hi\"\"\",\"\"\"\"\n");
+        assertArrayEquals(new String[]{"say \"hi\"", "\""}, res.get(0));
+    }
+    
+    @Test
+    public void testEmptyAndQuotedEmptyFields() throws Exception {
+        List<String[]> res = records(",\"\",x,\n\"\"\n");
+        assertEquals(2, res.size());
+        assertArrayEquals(new String[]{null, "", "x", null}, res.get(0));
+        assertArrayEquals(new String[]{""}, res.get(1));
+    }
+    
+    @Test
+    public void testLastRecordWithoutLineBreak() throws Exception {
+        List<String[]> res = records("a,b\nc,\"d\"");
+        assertEquals(2, res.size());
+        assertArrayEquals(new String[]{"c", "d"}, res.get(1));
+    }
+    
+    @Test
+    public void testByteOrderMarkIsSkipped() throws Exception {
+        List<String[]> res = records("\uFEFFsku,qty\nA1,5\n");
+        assertArrayEquals(new String[]{"sku", "qty"}, res.get(0));
+        assertEquals(Arrays.asList("a", "b"), lines("\uFEFFa\nb"));
+    }
+    
+    @Test(expected=IOException.class)
+    public void testCharacterAfterQuotedField() throws Exception {
+        records("\"a\"b,c\n");
+    }
+    
+    @Test(expected=IOException.class)
+    public void testUnterminatedQuotedField() throws Exception {
+        records("a,\"b\n");
+    }
+    
+    @Test
+    public void testLines() throws Exception {
+        assertEquals(Arrays.asList("a", "", "b", "  "), lines("a\r\n\nb\n  "));
+        
+        // Lines longer than the initial line buffer
+        StringBuilder sb = new StringBuilder();
+        for ( int i=0; i<1000; i++ ){
+            sb.append('x');
+        }
+        assertEquals(Arrays.asList(sb.toString(), "y"), lines(sb+"\r\ny\n"));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db;
+
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import java.io.File;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for applying {@link TuningProfile}s, directly and around imports.
+ */
+public class TuningProfileTest {
+    
+    private File file;
+    private JDBCDatabase db;
+    private DAOProvider provider;
+    private DAO<Map> items;
+    
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("profiles", ".db");
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite:"+file.getAbsolutePath()));
+        db.execute("CREATE TABLE items (id INTEGER PRIMARY KEY AUTOINCREMENT, sku VARCHAR, qty INTEGER)");
+        provider = new DAOProvider(db, 0);
+        items = provider.get("items");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+        new File(file.getAbsolutePath()+"-wal").delete();
+        new File(file.getAbsolutePath()+"-shm").delete();
+        file.delete();
+    }
+    
+    private String pragma(String name) throws Exception {
+        Cursor c = db.executeQuery("PRAGMA "+name);
+        try {
+            assertTrue(c.next());
+            return c.getRow().getString(0);
+        } finally {
+            c.close();
+        }
+    }
+    
+    private List rows(int n){
+        List out = new ArrayList();
+        for ( int i=0; i<n; i++ ){
+            Map m = new HashMap();
+            m.put("sku", "A"+i);
+            m.put("qty", i);
+            out.add(m);
+        }
+        return out;
+    }
+    
+    @Test
+    public void testDefaultProfile() throws Exception {
+        provider.setProfile(TuningProfile.DEFAULT);
+        assertEquals("wal", pragma("journal_mode"));
+        assertEquals("1", pragma("synchronous"));
+        assertEquals("2", pragma("temp_store"));
+        assertEquals("-2000", pragma("cache_size"));
+    }
+    
+    @Test
+    public void testBulkImportProfile() throws Exception {
+        provider.setProfile(TuningProfile.BULK_IMPORT);
+        assertEquals("wal", pragma("journal_mode"));
+        assertEquals("1", pragma("synchronous"));
+        assertEquals("2", pragma("temp_store"));
+        assertEquals("-16000", pragma("cache_size"));
+        assertEquals("10000", pragma("wal_autocheckpoint"));
+    }
+    
+    @Test
+    public void testReadMostlyProfile() throws Exception {
+        provider.setProfile(TuningProfile.READ_MOSTLY);
+        assertEquals("wal", pragma("journal_mode"));
+        assertEquals("1", pragma("synchronous"));
+        assertEquals("2", pragma("temp_store"));
+        assertEquals("-8000", pragma("cache_size"));
+        assertEquals("268435456", pragma("mmap_size"));
+    }
+    
+    @Test
+    public void testApplyProfileReturnsPreviousValues() throws Exception {
+        provider.setProfile(TuningProfile.DEFAULT);
+        TuningProfile previous = provider.applyProfile(TuningProfile.BULK_IMPORT);
+        assertEquals("-16000", pragma("cache_size"));
+        assertEquals("-2000", previous.getPragma("cache_size"));
+        assertEquals("1000", previous.getPragma("wal_autocheckpoint"));
+        
+        provider.applyProfile(previous);
+        assertEquals("-2000", pragma("cache_size"));
+        assertEquals("1000", pragma("wal_autocheckpoint"));
+        assertSame(TuningProfile.DEFAULT, provider.getProfile());
+    }
+    
+    @Test
+    public void testImportAppliesAndRestoresProfile() throws Exception {
+        provider.setProfile(TuningProfile.DEFAULT);
+        final String[] during = new String[1];
+        items.addChangeListener(new DAOChangeListener(){
+            public void tableChanged(DAOChangeEvent evt) {
+                try {
+                    during[0] = pragma("cache_size");
+                } catch ( Exception ex ){
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.setProfile(TuningProfile.BULK_IMPORT);
+        importer.importSet(rows(10));
+        
+        assertEquals("-16000", during[0]);
+        assertEquals("-2000", pragma("cache_size"));
+        assertEquals(10, items.fetchAll().size());
+    }
+    
+    @Test
+    public void testProfileIsRestoredWhenEndOfImportFails() throws Exception {
+        provider.setProfile(TuningProfile.DEFAULT);
+        items.addChangeListener(new DAOChangeListener(){
+            public void tableChanged(DAOChangeEvent evt) {
+                throw new IllegalStateException("Listener failed");
+            }
+        });
+        Importer<Map> importer = new Importer<Map>(items, new String[]{"sku"}, (Map)null);
+        importer.setProfile(TuningProfile.BULK_IMPORT);
+        try {
+            importer.importSet(rows(10));
+            fail("The listener's exception should be thrown by the import");
+        } catch ( IllegalStateException ex ){
+            // Expected
+        }
+        assertEquals("-2000", pragma("cache_size"));
+        assertEquals("1000", pragma("wal_autocheckpoint"));
+    }
+}
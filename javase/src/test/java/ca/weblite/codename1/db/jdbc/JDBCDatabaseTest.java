@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db.jdbc;
+
+import com.codename1.db.Cursor;
+import com.codename1.db.Row;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JDBCDatabase}, against an in-memory SQLite database.
+ */
+public class JDBCDatabaseTest {
+    
+    private JDBCDatabase db;
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE t (id INTEGER PRIMARY KEY AUTOINCREMENT, v)");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    private long count() throws Exception {
+        Cursor c = db.executeQuery("SELECT count(*) FROM t");
+        try {
+            assertTrue(c.next());
+            return c.getRow().getLong(0);
+        } finally {
+            c.close();
+        }
+    }
+    
+    @Test
+    public void testStatementCacheHit() throws Exception {
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"a"});
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"b"});
+        assertEquals(1, db.getStatementCacheMisses());
+        assertEquals(1, db.getStatementCacheHits());
+        assertEquals(2, count());
+    }
+    
+    @Test
+    public void testEvictionOfStatementInUse() throws Exception {
+        db.setStatementCacheSize(1);
+        JDBCDatabase.CachedStatement a = db.acquire("SELECT 1");
+        JDBCDatabase.CachedStatement b = db.acquire("SELECT 2");
+        // Evicted, but not closed while it is in use.
+        assertFalse(a.cached);
+        assertFalse(a.ps.isClosed());
+        assertTrue(b.cached);
+        db.release(a);
+        assertTrue(a.ps.isClosed());
+        db.release(b);
+        assertFalse(b.ps.isClosed());
+    }
+    
+    @Test
+    public void testEvictionWithOpenCursor() throws Exception {
+        db.setStatementCacheSize(1);
+        for ( int i=0; i<3; i++ ){
+            db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"row"+i});
+        }
+        Cursor c = db.executeQuery("SELECT v FROM t ORDER BY id");
+        assertTrue(c.next());
+        assertEquals("row0", c.getRow().getString(0));
+        
+        // Evicts the statement of the open cursor from the cache.
+        assertEquals(3, count());
+        
+        assertTrue(c.next());
+        assertEquals("row1", c.getRow().getString(0));
+        assertTrue(c.next());
+        assertFalse(c.next());
+        c.close();
+    }
+    
+    @Test
+    public void testSameQueryWhileCursorOpen() throws Exception {
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"a"});
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"b"});
+        Cursor c1 = db.executeQuery("SELECT v FROM t ORDER BY id");
+        assertTrue(c1.next());
+        Cursor c2 = db.executeQuery("SELECT v FROM t ORDER BY id");
+        assertTrue(c2.next());
+        assertTrue(c2.next());
+        assertEquals("b", c2.getRow().getString(0));
+        assertEquals("a", c1.getRow().getString(0));
+        c2.close();
+        c1.close();
+        
+        int hits = db.getStatementCacheHits();
+        db.executeQuery("SELECT v FROM t ORDER BY id").close();
+        assertEquals(hits+1, db.getStatementCacheHits());
+    }
+    
+    @Test
+    public void testTypedBinding() throws Exception {
+        Object[] values = new Object[]{"7", 7L, 7, 7.5, new byte[]{1, 2, 3}, null, Boolean.TRUE};
+        String[] types = new String[]{"text", "integer", "integer", "real", "blob", "null", "integer"};
+        for ( Object v : values ){
+            db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{v});
+        }
+        Cursor c = db.executeQuery("SELECT typeof(v), v FROM t ORDER BY id");
+        try {
+            for ( int i=0; i<types.length; i++ ){
+                assertTrue(c.next());
+                Row row = c.getRow();
+                assertEquals("value "+i, types[i], row.getString(0));
+                if ( values[i] instanceof byte[] ){
+                    assertArrayEquals((byte[])values[i], row.getBlob(1));
+                }
+            }
+            assertFalse(c.next());
+        } finally {
+            c.close();
+        }
+    }
+    
+    @Test
+    public void testStringParamsBoundAsText() throws Exception {
+        db.execute("INSERT INTO t (v) VALUES (?)", new String[]{"42"});
+        Cursor c = db.executeQuery("SELECT typeof(v) FROM t WHERE v=?", new String[]{"42"});
+        try {
+            assertTrue(c.next());
+            assertEquals("text", c.getRow().getString(0));
+        } finally {
+            c.close();
+        }
+    }
+    
+    @Test
+    public void testExecuteBatch() throws Exception {
+        List<Object[]> params = new ArrayList<Object[]>();
+        for ( int i=0; i<5; i++ ){
+            params.add(new Object[]{(long)i});
+        }
+        int[] counts = db.executeBatch("INSERT INTO t (v) VALUES (?)", params);
+        assertEquals(5, counts.length);
+        for ( int n : counts ){
+            assertEquals(1, n);
+        }
+        assertEquals(5, count());
+        
+        // The statement is returned to the cache, with its batch cleared.
+        params.clear();
+        params.add(new Object[]{99L});
+        db.executeBatch("INSERT INTO t (v) VALUES (?)", params);
+        assertEquals(6, count());
+    }
+    
+    @Test
+    public void testRollback() throws Exception {
+        db.beginTransaction();
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"a"});
+        db.rollbackTransaction();
+        assertEquals(0, count());
+        
+        db.beginTransaction();
+        db.execute("INSERT INTO t (v) VALUES (?)", new Object[]{"a"});
+        db.commitTransaction();
+        assertEquals(1, count());
+    }
+}
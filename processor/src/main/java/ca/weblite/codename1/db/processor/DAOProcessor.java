@@ -0,0 +1,489 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates a DAO subclass for each class annotated with
+ * <code>@Entity</code>.  The generated DAO implements <code>DAO.hydrate()</code> 
+ * and <code>DAO.bind()</code> so that column values are copied between 
+ * rows and fields by ordinal, without an intermediate Map, and without reflection.  It also 
+ * implements <code>DAO.map()</code> and <code>DAO.unmap()</code>, 
+ * which are still used by the importer.
+ * 
+ * <p>The DAO is generated in the same package as the entity, so it can access package-private
+ * fields directly.  Private fields are accessed through their getter and setter methods.
+ * Only fields declared in the entity class itself are mapped.</p>
+ */
+@SupportedAnnotationTypes(DAOProcessor.ENTITY)
+public class DAOProcessor extends AbstractProcessor {
+    
+    static final String ENTITY = "ca.weblite.codename1.db.annotations.Entity";
+    static final String COLUMN = "ca.weblite.codename1.db.annotations.Column";
+    static final String ID = "ca.weblite.codename1.db.annotations.Id";
+    
+    /**
+     * The supported property types.
+     */
+    enum Kind {
+        LONG("long", "Long", "getLong"),
+        INT("int", "Integer", "getInt"),
+        SHORT("short", "Short", "getShort"),
+        DOUBLE("double", "Double", "getDouble"),
+        FLOAT("float", "Float", "getFloat"),
+        BOOLEAN("boolean", "Boolean", null),
+        STRING(null, "String", "getString"),
+        BLOB(null, null, "getBlob");
+        
+        final String primitive;
+        final String wrapper;
+        final String getter;
+        
+        Kind(String primitive, String wrapper, String getter){
+            this.primitive = primitive;
+            this.wrapper = wrapper;
+            this.getter = getter;
+        }
+    }
+    
+    /**
+     * A mapped field of an entity class.
+     */
+    static class Property {
+        String column;
+        String field;
+        Kind kind;
+        
+        /**
+         * True if the field is of a wrapper type (e.g. Long rather than long).
+         */
+        boolean boxed;
+        
+        /**
+         * The getter and setter methods, or null if the field is accessed directly.
+         */
+        String getter;
+        String setter;
+        
+        String read(String obj){
+            return getter == null ? obj+"."+field : obj+"."+getter+"()";
+        }
+        
+        String write(String obj, String value){
+            return setter == null ? obj+"."+field+" = "+value+";" : obj+"."+setter+"("+value+");";
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement entity = processingEnv.getElementUtils().getTypeElement(ENTITY);
+        if ( entity == null ){
+            return false;
+        }
+        for ( Element e : roundEnv.getElementsAnnotatedWith(entity) ){
+            if ( e.getKind() != ElementKind.CLASS ){
+                error(e, "@Entity can only be applied to classes");
+                continue;
+            }
+            try {
+                generate((TypeElement)e);
+            } catch ( IOException ex ){
+                error(e, "Failed to write DAO for "+e+": "+ex.getMessage());
+            }
+        }
+        return true;
+    }
+    
+    private void error(Element e, String msg){
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, e);
+    }
+    
+    /**
+     * Generates the DAO for a single entity class.
+     * @param type The entity class.
+     * @throws IOException 
+     */
+    private void generate(TypeElement type) throws IOException {
+        AnnotationMirror ann = annotation(type, ENTITY);
+        String table = value(ann, "table");
+        if ( table.length() == 0 ){
+            table = type.getSimpleName().toString().toLowerCase();
+        }
+        String daoName = value(ann, "daoName");
+        if ( daoName.length() == 0 ){
+            daoName = type.getSimpleName()+"DAO";
+        }
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String pkgName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String entityName = type.getQualifiedName().toString();
+        
+        List<Property> props = properties(type);
+        if ( props == null ){
+            return;
+        }
+        Property id = null;
+        for ( Property p : props ){
+            if ( "id".equals(p.column) ){
+                id = p;
+            }
+        }
+        if ( id == null ){
+            error(type, "Entity "+entityName+" has no id field.  Add a field named id or annotate one with @Id");
+            return;
+        }
+        if ( id.kind != Kind.LONG && id.kind != Kind.INT ){
+            error(type, "The id field of "+entityName+" must be a long, int, Long or Integer");
+            return;
+        }
+        
+        String qualifiedName = pkgName.length() == 0 ? daoName : pkgName+"."+daoName;
+        PrintWriter w = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter());
+        try {
+            write(w, pkgName, daoName, entityName, table, props, id);
+        } finally {
+            w.close();
+        }
+    }
+    
+    /**
+     * Gets the mapped properties of an entity class.
+     * @param type The entity class.
+     * @return The properties, or null if there were errors.
+     */
+    private List<Property> properties(TypeElement type){
+        List<Property> out = new ArrayList<Property>();
+        Set<String> columns = new HashSet<String>();
+        boolean ok = true;
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        for ( VariableElement f : ElementFilter.fieldsIn(type.getEnclosedElements()) ){
+            Set<Modifier> mods = f.getModifiers();
+            if ( mods.contains(Modifier.STATIC) || mods.contains(Modifier.TRANSIENT) ){
+                continue;
+            }
+            AnnotationMirror col = annotation(f, COLUMN);
+            boolean isId = annotation(f, ID) != null;
+            Property p = new Property();
+            p.field = f.getSimpleName().toString();
+            p.column = isId ? "id" : (col == null ? "" : value(col, "name"));
+            if ( p.column.length() == 0 ){
+                p.column = p.field;
+            }
+            if ( !kind(f.asType(), p) ){
+                if ( col != null || isId ){
+                    error(f, "Unsupported column type "+f.asType());
+                    ok = false;
+                }
+                continue;
+            }
+            if ( mods.contains(Modifier.PRIVATE) ){
+                String cap = Character.toUpperCase(p.field.charAt(0))+p.field.substring(1);
+                p.getter = method(methods, "get"+cap, 0);
+                if ( p.getter == null && p.kind == Kind.BOOLEAN ){
+                    p.getter = method(methods, "is"+cap, 0);
+                }
+                p.setter = method(methods, "set"+cap, 1);
+                if ( p.getter == null || p.setter == null ){
+                    error(f, "Private field "+p.field+" requires a getter and a setter");
+                    ok = false;
+                    continue;
+                }
+            } else if ( mods.contains(Modifier.FINAL) ){
+                error(f, "Final field "+p.field+" cannot be mapped.  Make it transient or remove the final modifier");
+                ok = false;
+                continue;
+            }
+            if ( !columns.add(p.column) ){
+                error(f, "Duplicate column "+p.column);
+                ok = false;
+                continue;
+            }
+            out.add(p);
+        }
+        return ok ? out : null;
+    }
+    
+    /**
+     * Finds a non-private, non-static method by name and number of parameters.
+     * @return The method name, or null if it isn't found.
+     */
+    private static String method(List<ExecutableElement> methods, String name, int params){
+        for ( ExecutableElement m : methods ){
+            if ( m.getSimpleName().contentEquals(name) && m.getParameters().size() == params 
+                    && !m.getModifiers().contains(Modifier.PRIVATE) && !m.getModifiers().contains(Modifier.STATIC) ){
+                return name;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Sets the kind of a property from the type of its field.
+     * @param t The field type.
+     * @param p The property.
+     * @return False if the type isn't supported.
+     */
+    private static boolean kind(TypeMirror t, Property p){
+        TypeKind k = t.getKind();
+        if ( k.isPrimitive() ){
+            for ( Kind kind : Kind.values() ){
+                if ( t.toString().equals(kind.primitive) ){
+                    p.kind = kind;
+                    return true;
+                }
+            }
+            return false;
+        }
+        if ( k == TypeKind.ARRAY ){
+            if ( ((ArrayType)t).getComponentType().getKind() == TypeKind.BYTE ){
+                p.kind = Kind.BLOB;
+                return true;
+            }
+            return false;
+        }
+        if ( k == TypeKind.DECLARED ){
+            String name = ((TypeElement)((DeclaredType)t).asElement()).getQualifiedName().toString();
+            for ( Kind kind : Kind.values() ){
+                if ( kind.wrapper != null && name.equals("java.lang."+kind.wrapper) ){
+                    p.kind = kind;
+                    p.boxed = kind != Kind.STRING;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static AnnotationMirror annotation(Element e, String type){
+        for ( AnnotationMirror m : e.getAnnotationMirrors() ){
+            if ( ((TypeElement)m.getAnnotationType().asElement()).getQualifiedName().contentEquals(type) ){
+                return m;
+            }
+        }
+        return null;
+    }
+    
+    private static String value(AnnotationMirror m, String key){
+        for ( Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : m.getElementValues().entrySet() ){
+            if ( e.getKey().getSimpleName().contentEquals(key) ){
+                return String.valueOf(e.getValue().getValue());
+            }
+        }
+        return "";
+    }
+    
+    private static String quote(String s){
+        return "\""+s.replace("\\", "\\\\").replace("\"", "\\\"")+"\"";
+    }
+    
+    /**
+     * Gets an expression for the value of a property as it should be stored in a row.  
+     * Booleans are stored as 1 or 0.
+     * @param p The property.
+     * @return 
+     */
+    private static String rowValue(Property p){
+        String v = p.read("o");
+        if ( p.kind != Kind.BOOLEAN ){
+            return v;
+        }
+        if ( p.boxed ){
+            return "toRow("+v+")";
+        }
+        return "("+v+" ? 1 : 0)";
+    }
+    
+    /**
+     * Gets an expression that converts the value v from a row Map to the type of a property.
+     * @param p The property.
+     * @return 
+     */
+    private static String fromMap(Property p){
+        String conv;
+        switch ( p.kind ){
+            case LONG: conv = "NumberUtil.longValue(v)"; break;
+            case INT: conv = "NumberUtil.intValue(v)"; break;
+            case SHORT: conv = "(short)NumberUtil.intValue(v)"; break;
+            case DOUBLE: conv = "NumberUtil.doubleValue(v)"; break;
+            case FLOAT: conv = "(float)NumberUtil.doubleValue(v)"; break;
+            case BOOLEAN: conv = "NumberUtil.booleanValue(v)"; break;
+            case STRING: return "v == null ? null : String.valueOf(v)";
+            default: return "(byte[])v";
+        }
+        if ( p.boxed ){
+            return "v == null ? null : "+p.kind.wrapper+".valueOf("+conv+")";
+        }
+        return conv;
+    }
+    
+    /**
+     * Gets an expression that reads column i of a RowReader as the type of a property.
+     * @param p The property.
+     * @return 
+     */
+    private static String fromRow(Property p){
+        String get = p.kind == Kind.BOOLEAN ? "row.getInt(i) != 0" : "row."+p.kind.getter+"(i)";
+        if ( p.boxed ){
+            return "row.isNull(i) ? null : "+p.kind.wrapper+".valueOf("+get+")";
+        }
+        return get;
+    }
+    
+    private void write(PrintWriter w, String pkgName, String daoName, String entityName, String table, List<Property> props, Property id){
+        boolean booleans = false;
+        w.println("/*");
+        w.println(" * Generated by "+DAOProcessor.class.getName()+" from "+entityName+".  Do not edit.");
+        w.println(" */");
+        if ( pkgName.length() > 0 ){
+            w.println("package "+pkgName+";");
+            w.println();
+        }
+        w.println("import ca.weblite.codename1.db.DAO;");
+        w.println("import ca.weblite.codename1.db.DAOProvider;");
+        w.println("import ca.weblite.codename1.db.NumberUtil;");
+        w.println("import ca.weblite.codename1.db.RowReader;");
+        w.println("import java.io.IOException;");
+        w.println("import java.util.Map;");
+        w.println();
+        w.println("/**");
+        w.println(" * DAO for the "+table+" table.  Generated from {@link "+entityName+"}.");
+        w.println(" */");
+        w.println("public class "+daoName+" extends DAO<"+entityName+"> {");
+        w.println();
+        w.println("    public static final String TABLE = "+quote(table)+";");
+        w.println();
+        w.println("    /**");
+        w.println("     * The mapped columns, in the order of the entity's fields.");
+        w.println("     */");
+        w.print("    private static final String[] COLUMNS = new String[]{");
+        for ( int k=0; k<props.size(); k++ ){
+            w.print((k > 0 ? ", " : "")+quote(props.get(k).column));
+            booleans = booleans || (props.get(k).kind == Kind.BOOLEAN && props.get(k).boxed);
+        }
+        w.println("};");
+        w.println();
+        w.println("    private String[] bindColumns;");
+        w.println("    private int[] bindIndexes;");
+        w.println();
+        w.println("    public "+daoName+"(DAOProvider provider) throws IOException {");
+        w.println("        super(TABLE, provider);");
+        w.println("    }");
+        w.println();
+        w.println("    public "+entityName+" newObject() {");
+        w.println("        return new "+entityName+"();");
+        w.println("    }");
+        w.println();
+        w.println("    public long getId("+entityName+" o) {");
+        if ( id.boxed ){
+            w.println("        "+id.kind.wrapper+" id = "+id.read("o")+";");
+            w.println("        return id == null ? 0 : id.longValue();");
+        } else {
+            w.println("        return "+id.read("o")+";");
+        }
+        w.println("    }");
+        w.println();
+        w.println("    protected void setId("+entityName+" o, long id) {");
+        String idValue = id.kind == Kind.INT ? "(int)id" : "id";
+        if ( id.boxed ){
+            idValue = id.kind.wrapper+".valueOf("+idValue+")";
+        }
+        w.println("        "+id.write("o", idValue));
+        w.println("    }");
+        w.println();
+        w.println("    public void map("+entityName+" o, Map values) {");
+        for ( Property p : props ){
+            w.println("        values.put("+quote(p.column)+", "+rowValue(p)+");");
+        }
+        w.println("    }");
+        w.println();
+        w.println("    public void unmap("+entityName+" o, Map values) {");
+        w.println("        Object v;");
+        for ( Property p : props ){
+            w.println("        if ( values.containsKey("+quote(p.column)+") ){");
+            w.println("            v = values.get("+quote(p.column)+");");
+            w.println("            "+p.write("o", fromMap(p)));
+            w.println("        }");
+        }
+        w.println("    }");
+        w.println();
+        w.println("    protected boolean hydrate("+entityName+" o, RowReader row) throws IOException {");
+        w.println("        int[] idx = row.ordinals(COLUMNS);");
+        w.println("        int i;");
+        for ( int k=0; k<props.size(); k++ ){
+            Property p = props.get(k);
+            w.println("        if ( (i = idx["+k+"]) >= 0 ){");
+            w.println("            "+p.write("o", fromRow(p)));
+            w.println("        }");
+        }
+        w.println("        return true;");
+        w.println("    }");
+        w.println();
+        w.println("    protected boolean bind("+entityName+" o, String[] columns, Object[] values) {");
+        w.println("        if ( columns != bindColumns ){");
+        w.println("            bindIndexes = columnIndexes(columns, COLUMNS);");
+        w.println("            bindColumns = columns;");
+        w.println("        }");
+        w.println("        int[] idx = bindIndexes;");
+        w.println("        int i;");
+        for ( int k=0; k<props.size(); k++ ){
+            Property p = props.get(k);
+            w.println("        if ( (i = idx["+k+"]) >= 0 ){");
+            w.println("            values[i] = "+rowValue(p)+";");
+            w.println("        }");
+        }
+        w.println("        return true;");
+        w.println("    }");
+        if ( booleans ){
+            w.println();
+            w.println("    private static Integer toRow(Boolean b) {");
+            w.println("        return b == null ? null : Integer.valueOf(b.booleanValue() ? 1 : 0);");
+            w.println("    }");
+        }
+        w.println("}");
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 the data-access authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.weblite.codename1.db.processor;
+
+import ca.weblite.codename1.db.DAO;
+import ca.weblite.codename1.db.DAOProvider;
+import ca.weblite.codename1.db.jdbc.JDBCDatabase;
+import com.codename1.db.Cursor;
+import com.codename1.db.Database;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compiles an entity class with the {@link DAOProcessor}, and round-trips entities 
+ * through the generated DAO.
+ */
+public class DAOProcessorTest {
+    
+    private static final String ENTITY = 
+            "package example;\n"
+            + "import ca.weblite.codename1.db.annotations.*;\n"
+            + "@Entity(table=\"people\")\n"
+            + "public class Person {\n"
+            + "    public long id;\n"
+            + "    public String name;\n"
+            + "    public int age;\n"
+            + "    public Double score;\n"
+            + "    public Boolean active;\n"
+            + "    @Column(name=\"photo_data\") public byte[] photo;\n"
+            + "}\n";
+    
+    private static Class personClass;
+    private static Class daoClass;
+    
+    private JDBCDatabase db;
+    private DAO dao;
+    
+    @BeforeClass
+    public static void compileEntity() throws Exception {
+        File dir = File.createTempFile("daoprocessor", "");
+        dir.delete();
+        File src = new File(dir, "src/example");
+        File out = new File(dir, "classes");
+        src.mkdirs();
+        out.mkdirs();
+        File source = new File(src, "Person.java");
+        Writer w = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+        try {
+            w.write(ENTITY);
+        } finally {
+            w.close();
+        }
+        
+        // The entity and the generated DAO are compiled against the library classes
+        String cp = location(DAO.class)+File.pathSeparator+location(Database.class);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int res = compiler.run(null, null, err, 
+                "-nowarn",
+                "-classpath", cp,
+                "-processorpath", location(DAOProcessor.class),
+                "-processor", DAOProcessor.class.getName(),
+                "-s", out.getPath(),
+                "-d", out.getPath(),
+                source.getPath());
+        assertEquals(err.toString(), 0, res);
+        
+        ClassLoader loader = new URLClassLoader(new URL[]{out.toURI().toURL()}, DAOProcessorTest.class.getClassLoader());
+        personClass = loader.loadClass("example.Person");
+        daoClass = loader.loadClass("example.PersonDAO");
+    }
+    
+    private static String location(Class cls) throws Exception {
+        return new File(cls.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        db = new JDBCDatabase(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        db.execute("CREATE TABLE people (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR, age INTEGER, score REAL, active INTEGER, photo_data BLOB)");
+        dao = newDAO();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+    
+    /**
+     * Creates a generated DAO on a new provider, so that it has empty caches.
+     */
+    private DAO newDAO() throws Exception {
+        DAOProvider provider = new DAOProvider(db, 0);
+        DAO out = (DAO)daoClass.getConstructor(DAOProvider.class).newInstance(provider);
+        provider.set("people", out);
+        return out;
+    }
+    
+    private Object person(String name, int age, Double score, Boolean active, byte[] photo) throws Exception {
+        Object p = personClass.newInstance();
+        set(p, "name", name);
+        set(p, "age", age);
+        set(p, "score", score);
+        set(p, "active", active);
+        set(p, "photo", photo);
+        return p;
+    }
+    
+    private static void set(Object o, String field, Object value) throws Exception {
+        personClass.getField(field).set(o, value);
+    }
+    
+    private static Object get(Object o, String field) throws Exception {
+        return personClass.getField(field).get(o);
+    }
+    
+    private long id(Object o) throws Exception {
+        return ((Long)get(o, "id")).longValue();
+    }
+    
+    /**
+     * Gets the SQLite storage class of each column of a row, e.g. "blob" or "null".
+     */
+    private List<String> types(long id) throws Exception {
+        Cursor c = db.executeQuery("SELECT typeof(name), typeof(age), typeof(score), typeof(active), typeof(photo_data) FROM people WHERE id=?", new Object[]{id});
+        try {
+            assertTrue(c.next());
+            List<String> out = new ArrayList<String>();
+            for ( int i=0; i<5; i++ ){
+                out.add(c.getRow().getString(i));
+            }
+            return out;
+        } finally {
+            c.close();
+        }
+    }
+    
+    private void assertPerson(Object p, String name, int age, Double score, Boolean active, byte[] photo) throws Exception {
+        assertEquals(name, get(p, "name"));
+        assertEquals(age, get(p, "age"));
+        assertEquals(score, get(p, "score"));
+        assertEquals(active, get(p, "active"));
+        assertArrayEquals(photo, (byte[])get(p, "photo"));
+    }
+    
+    @Test
+    public void testInsertRoundTrip() throws Exception {
+        Object p = person("Steve", 35, 4.5, Boolean.TRUE, new byte[]{1, 2, 3});
+        dao.insert(p);
+        assertEquals(Arrays.asList("text", "integer", "real", "integer", "blob"), types(id(p)));
+        assertPerson(newDAO().getById(id(p), true), "Steve", 35, 4.5, Boolean.TRUE, new byte[]{1, 2, 3});
+    }
+    
+    @Test
+    public void testInsertNulls() throws Exception {
+        Object p = person(null, 0, null, null, null);
+        dao.insert(p);
+        assertEquals(Arrays.asList("null", "integer", "null", "null", "null"), types(id(p)));
+        assertPerson(newDAO().getById(id(p), true), null, 0, null, null, null);
+    }
+    
+    @Test
+    public void testUpdateRoundTrip() throws Exception {
+        Object p = person("Steve", 35, null, Boolean.TRUE, null);
+        dao.insert(p);
+        set(p, "name", null);
+        set(p, "score", 2.25);
+        set(p, "active", Boolean.FALSE);
+        set(p, "photo", new byte[]{4, 5});
+        dao.update(p);
+        assertEquals(Arrays.asList("null", "integer", "real", "integer", "blob"), types(id(p)));
+        assertPerson(newDAO().getById(id(p), true), null, 35, 2.25, Boolean.FALSE, new byte[]{4, 5});
+        
+        set(p, "photo", null);
+        dao.update(p);
+        assertEquals("null", types(id(p)).get(4));
+    }
+    
+    @Test
+    public void testInsertAllRoundTrip() throws Exception {
+        Object a = person("Steve", 35, 1.5, Boolean.TRUE, new byte[]{1, 2, 3});
+        Object b = person(null, 20, null, null, null);
+        dao.insertAll(Arrays.asList(a, b));
+        assertEquals(Arrays.asList("text", "integer", "real", "integer", "blob"), types(id(a)));
+        assertEquals(Arrays.asList("null", "integer", "null", "null", "null"), types(id(b)));
+        DAO fresh = newDAO();
+        assertPerson(fresh.getById(id(a), true), "Steve", 35, 1.5, Boolean.TRUE, new byte[]{1, 2, 3});
+        assertPerson(fresh.getById(id(b), true), null, 20, null, null, null);
+    }
+}